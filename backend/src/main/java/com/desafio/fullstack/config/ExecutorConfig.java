@@ -0,0 +1,60 @@
+package com.desafio.fullstack.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    // HttpClient dos provedores de CEP e continuações da consulta assíncrona
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService cepExecutor(@Value("${app.cep.async.threads:8}") int tamanho) {
+        return Executors.newFixedThreadPool(tamanho, threads("cep-async-"));
+    }
+
+    // Leitura e gravação em cep_enderecos (JDBC bloqueante), fora do cepExecutor do HttpClient
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService cepBancoExecutor(@Value("${app.cep.persistencia.threads:4}") int tamanho) {
+        return Executors.newFixedThreadPool(tamanho, threads("cep-banco-"));
+    }
+
+    // Consultas simultâneas do job de reenriquecimento de endereços
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService cepReenriquecimentoExecutor(@Value("${app.cep.reenriquecimento.paralelismo:4}") int paralelismo) {
+        return Executors.newFixedThreadPool(paralelismo, threads("cep-reenriquecimento-"));
+    }
+
+    // Contagens das listagens que rodam em paralelo com a consulta da página (ConsultaParalela)
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService listagemExecutor(@Value("${app.busca.paralela.threads:4}") int tamanho) {
+        return Executors.newFixedThreadPool(tamanho, threads("listagem-contagem-"));
+    }
+
+    // Busca de empresas da busca global (BuscaUnificadaService), em paralelo com a de fornecedores
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService buscaExecutor(@Value("${app.busca.unificada.threads:4}") int tamanho) {
+        return Executors.newFixedThreadPool(tamanho, threads("busca-unificada-"));
+    }
+
+    // Libera as chamadas que aguardam na fila dos limitadores de taxa dos provedores de CEP
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService cepLimiteAgendador() {
+        return Executors.newSingleThreadScheduledExecutor(threads("cep-limite-"));
+    }
+
+    static ThreadFactory threads(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefixo + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.desafio.fullstack.controller;
+
+import com.desafio.fullstack.dto.BuscaDTO;
+import com.desafio.fullstack.dto.ReconstrucaoIndiceDTO;
+import com.desafio.fullstack.dto.SugestaoNomeDTO;
+import com.desafio.fullstack.enums.TipoCadastro;
+import com.desafio.fullstack.service.BuscaUnificadaService;
+import com.desafio.fullstack.service.CadastroBuscaIndex;
+import com.desafio.fullstack.service.NomeSugestaoIndex;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/busca")
+@RequiredArgsConstructor
+@Tag(name = "Busca", description = "Busca textual de empresas e fornecedores")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class BuscaController {
+
+    private final CadastroBuscaIndex cadastroBuscaIndex;
+    private final NomeSugestaoIndex nomeSugestaoIndex;
+    private final BuscaUnificadaService buscaUnificadaService;
+
+    // caixa de busca global: empresas e fornecedores numa lista só, do documento exato ao trecho do nome
+    @GetMapping
+    public ResponseEntity<BuscaDTO.Response> buscar(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "5") int limitePorTipo) {
+        return ResponseEntity.ok(buscaUnificadaService.buscar(q, limitePorTipo));
+    }
+
+    // atendido só pela memória, para a digitação nas listagens não chegar ao banco
+    @GetMapping("/sugestoes")
+    public ResponseEntity<List<SugestaoNomeDTO>> sugestoes(
+            @RequestParam String q,
+            @RequestParam(required = false) TipoCadastro tipo,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(nomeSugestaoIndex.sugerir(q, tipo, Math.min(limite, 50)));
+    }
+
+    // recria o índice a partir do banco; enquanto isso as listagens usam a consulta por trigramas
+    @PostMapping("/indice/reconstrucao")
+    public ResponseEntity<ReconstrucaoIndiceDTO> reconstruirIndice() {
+        return ResponseEntity.ok(cadastroBuscaIndex.reconstruir());
+    }
+}
@@ -1,12 +1,27 @@
 package com.desafio.fullstack.controller;
 
 import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.dto.CepLoteDTO;
+import com.desafio.fullstack.dto.CepProvedorDTO;
+import com.desafio.fullstack.dto.EnderecoSugestaoDTO;
+import com.desafio.fullstack.dto.ReenriquecimentoDTO;
+import com.desafio.fullstack.service.CepCache;
+import com.desafio.fullstack.service.CepLoteService;
 import com.desafio.fullstack.service.CepService;
+import com.desafio.fullstack.service.EnderecoAutocompleteIndex;
+import com.desafio.fullstack.service.ReenriquecimentoCepService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/cep")
@@ -16,9 +31,50 @@ import org.springframework.web.bind.annotation.*;
 public class CepController {
 
     private final CepService cepService;
+    private final CepLoteService cepLoteService;
+    private final EnderecoAutocompleteIndex enderecoAutocompleteIndex;
+    private final ReenriquecimentoCepService reenriquecimentoCepService;
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<EnderecoSugestaoDTO>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(enderecoAutocompleteIndex.sugerir(q, Math.min(limite, 50)));
+    }
 
     @GetMapping("/{cep}")
-    public ResponseEntity<CepDTO> consultar(@PathVariable String cep) {
-        return ResponseEntity.ok(cepService.consultarCep(cep));
+    public CompletableFuture<ResponseEntity<CepDTO>> consultar(@PathVariable String cep) {
+        return cepService.consultarCepAsync(cep).thenApply(ResponseEntity::ok);
+    }
+
+    // NDJSON: uma linha por CEP, na ordem em que as consultas terminam
+    @PostMapping(value = "/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> consultarLote(@Valid @RequestBody CepLoteDTO.Request request) {
+        StreamingResponseBody corpo = saida -> cepLoteService.resolver(request.getCeps(), saida);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(corpo);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CepCache.Stats> estatisticasCache() {
+        return ResponseEntity.ok(cepService.estatisticasCache());
+    }
+
+    @GetMapping("/provedores")
+    public ResponseEntity<List<CepProvedorDTO>> statusProvedores() {
+        return ResponseEntity.ok(cepService.statusProvedores());
+    }
+
+    // renova o endereço dos cadastros; continua do último checkpoint se a execução anterior não terminou
+    @PostMapping("/reenriquecimento")
+    public ResponseEntity<ReenriquecimentoDTO> iniciarReenriquecimento(
+            @RequestParam(defaultValue = "false") boolean recomecar) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reenriquecimentoCepService.iniciar(recomecar));
+    }
+
+    @GetMapping("/reenriquecimento")
+    public ResponseEntity<ReenriquecimentoDTO> statusReenriquecimento() {
+        return ResponseEntity.ok(reenriquecimentoCepService.status());
     }
 }
@@ -7,8 +7,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,11 +23,19 @@ public class EmpresaController {
 
     private final EmpresaService empresaService;
 
+    // filtros: search, uf, cidade, criadoDe/criadoAte (yyyy-MM-dd). Com o parâmetro cursor (vazio na primeira
+    // página) a paginação é por cursor; sem ele, por page/size. contar=false dispensa o total: só indica se há
+    // próxima página. Sem sort, a busca só por texto vem por relevância e as demais por nome
     @GetMapping
     public ResponseEntity<PageResponse<EmpresaDTO.Response>> findAll(
-            @RequestParam(required = false, defaultValue = "") String search,
-            @PageableDefault(size = 10, sort = "nomeFantasia", direction = Sort.Direction.ASC) Pageable pageable) {
-        return ResponseEntity.ok(empresaService.findAll(search, pageable));
+            @ParameterObject EmpresaDTO.Filtro filtro,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "true") boolean contar,
+            @PageableDefault(size = 10) Pageable pageable) {
+        if (cursor != null) {
+            return ResponseEntity.ok(empresaService.findAllPorCursor(filtro, cursor, pageable));
+        }
+        return ResponseEntity.ok(empresaService.findAll(filtro, contar, pageable));
     }
 
     @GetMapping("/{id}")
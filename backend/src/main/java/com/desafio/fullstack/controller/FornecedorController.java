@@ -7,8 +7,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,12 +23,20 @@ public class FornecedorController {
 
     private final FornecedorService fornecedorService;
 
+    // filtros: nome, cpfCnpj, uf, cidade, tipoPessoa, criadoDe/criadoAte (yyyy-MM-dd) e empresaId. Com o
+    // parâmetro cursor (vazio na primeira página) a paginação é por cursor; sem ele, por page/size. contar=false
+    // dispensa o total: só indica se há próxima página. Sem sort, a busca só por nome/documento vem por
+    // relevância e as demais por nome
     @GetMapping
     public ResponseEntity<PageResponse<FornecedorDTO.Response>> findAll(
-            @RequestParam(required = false, defaultValue = "") String nome,
-            @RequestParam(required = false, defaultValue = "") String cpfCnpj,
-            @PageableDefault(size = 10, sort = "nome", direction = Sort.Direction.ASC) Pageable pageable) {
-        return ResponseEntity.ok(fornecedorService.findAll(nome, cpfCnpj, pageable));
+            @ParameterObject FornecedorDTO.Filtro filtro,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "true") boolean contar,
+            @PageableDefault(size = 10) Pageable pageable) {
+        if (cursor != null) {
+            return ResponseEntity.ok(fornecedorService.findAllPorCursor(filtro, cursor, pageable));
+        }
+        return ResponseEntity.ok(fornecedorService.findAll(filtro, contar, pageable));
     }
 
     @GetMapping("/{id}")
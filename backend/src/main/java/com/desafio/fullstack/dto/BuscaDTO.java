@@ -0,0 +1,33 @@
+package com.desafio.fullstack.dto;
+
+import com.desafio.fullstack.enums.Correspondencia;
+import com.desafio.fullstack.enums.TipoCadastro;
+import lombok.*;
+
+import java.util.List;
+
+public class BuscaDTO {
+
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private TipoCadastro tipo;
+        private Long id;
+        private String nome;
+        private String documento;
+        private String cidade;
+        private String uf;
+        private Correspondencia correspondencia;
+    }
+
+    // itens das duas entidades numa lista só; maisEmpresas/maisFornecedores indicam que o limite do tipo cortou resultados
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private List<Item> itens;
+        private boolean maisEmpresas;
+        private boolean maisFornecedores;
+    }
+}
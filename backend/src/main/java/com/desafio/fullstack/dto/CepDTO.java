@@ -12,5 +12,7 @@ public class CepDTO {
     private String bairro;
     private String logradouro;
     private boolean valido;
+    // UF deduzida só pela faixa do CEP; logradouro, bairro e cidade ainda não foram confirmados pelos provedores
+    private boolean provisorio;
     private String mensagem;
 }
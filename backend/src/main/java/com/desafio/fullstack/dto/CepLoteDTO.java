@@ -0,0 +1,31 @@
+package com.desafio.fullstack.dto;
+
+import com.desafio.fullstack.enums.StatusConsultaCep;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import java.util.List;
+
+public class CepLoteDTO {
+
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    @Builder
+    public static class Request {
+
+        @NotEmpty(message = "Informe ao menos um CEP")
+        @Size(max = 5000, message = "O lote aceita no máximo 5000 CEPs")
+        private List<String> ceps;
+    }
+
+    // Uma linha do NDJSON de resposta
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    @Builder
+    public static class Resultado {
+        private String cep;
+        private StatusConsultaCep status;
+        private CepDTO endereco;
+        private String mensagem;
+    }
+}
@@ -0,0 +1,28 @@
+package com.desafio.fullstack.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CepProvedorDTO {
+    private String nome;
+    private int posicaoRota;
+    private String estado;
+    private double taxaFalha;
+    private double taxaLenta;
+    private int chamadasNaJanela;
+    private long timeoutMs;
+    private long latenciaP50Ms;
+    private long latenciaP95Ms;
+    private long latenciaP99Ms;
+    private long latenciaEwmaMs;
+    private double taxaSucessoEwma;
+    private Map<String, Long> histogramaLatenciaMs;
+    private int chamadasNaFila;
+    private long chamadasEnfileiradas;
+    private long chamadasRejeitadas;
+    private long chamadasExpiradas;
+}
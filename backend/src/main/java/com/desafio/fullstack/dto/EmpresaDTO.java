@@ -1,9 +1,13 @@
 package com.desafio.fullstack.dto;
 
+import com.desafio.fullstack.enums.StatusEnriquecimento;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -39,6 +43,7 @@ public class EmpresaDTO {
         private String bairro;
         private String cidade;
         private String uf;
+        private StatusEnriquecimento statusEnriquecimento;
         private LocalDateTime criadoEm;
         private LocalDateTime atualizadoEm;
         private List<FornecedorDTO.ResponseSimple> fornecedores;
@@ -61,4 +66,18 @@ public class EmpresaDTO {
     public static class VincularFornecedor {
         private Long fornecedorId;
     }
+
+    // filtros da listagem (query string); só os informados entram na consulta
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    @Builder
+    public static class Filtro {
+        private String search;
+        private String uf;
+        private String cidade;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate criadoDe;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate criadoAte;
+    }
 }
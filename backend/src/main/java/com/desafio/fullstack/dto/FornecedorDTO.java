@@ -1,8 +1,11 @@
 package com.desafio.fullstack.dto;
 
+import com.desafio.fullstack.enums.StatusEnriquecimento;
 import com.desafio.fullstack.enums.TipoPessoa;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -54,6 +57,7 @@ public class FornecedorDTO {
         private String bairro;
         private String cidade;
         private String uf;
+        private StatusEnriquecimento statusEnriquecimento;
         private LocalDateTime criadoEm;
         private LocalDateTime atualizadoEm;
         private List<EmpresaDTO.ResponseSimple> empresas;
@@ -69,4 +73,22 @@ public class FornecedorDTO {
         private String nome;
         private String email;
     }
+
+    // filtros da listagem (query string); só os informados entram na consulta
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    @Builder
+    public static class Filtro {
+        private String nome;
+        private String cpfCnpj;
+        private String uf;
+        private String cidade;
+        private TipoPessoa tipoPessoa;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate criadoDe;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate criadoAte;
+        // só fornecedores vinculados a esta empresa
+        private Long empresaId;
+    }
 }
@@ -1,5 +1,6 @@
 package com.desafio.fullstack.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import java.util.List;
 
@@ -8,10 +9,18 @@ import java.util.List;
 @Builder
 public class PageResponse<T> {
     private List<T> content;
+    // -1 na paginação por cursor, que não conta nem numera páginas
     private int pageNumber;
     private int pageSize;
     private long totalElements;
     private int totalPages;
     private boolean first;
     private boolean last;
+    // total da estimativa do banco (listagens grandes sem filtro); com contar=false os totais voltam -1
+    private boolean totalAproximado;
+    // cursores opacos da paginação por cursor (null quando não há página naquela direção ou no modo por offset)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String next;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String prev;
 }
@@ -0,0 +1,12 @@
+package com.desafio.fullstack.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ReconstrucaoIndiceDTO {
+    private long empresas;
+    private long fornecedores;
+    private long duracaoMs;
+}
@@ -0,0 +1,22 @@
+package com.desafio.fullstack.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ReenriquecimentoDTO {
+    private boolean executando;
+    private boolean concluido;
+    private String ultimoCep;
+    private long totalCeps;
+    private long cepsProcessados;
+    private long registrosAtualizados;
+    private long cepsNaoEncontrados;
+    private long falhas;
+    private double percentual;
+    private LocalDateTime iniciadoEm;
+    private LocalDateTime atualizadoEm;
+    private LocalDateTime concluidoEm;
+}
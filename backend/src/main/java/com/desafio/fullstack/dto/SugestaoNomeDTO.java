@@ -0,0 +1,13 @@
+package com.desafio.fullstack.dto;
+
+import com.desafio.fullstack.enums.TipoCadastro;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class SugestaoNomeDTO {
+    private TipoCadastro tipo;
+    private Long id;
+    private String nome;
+}
@@ -0,0 +1,26 @@
+package com.desafio.fullstack.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Balde de tokens compartilhado entre as réplicas para as chamadas a um provedor de CEP.
+ */
+@Entity
+@Table(name = "cep_baldes_tokens")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BaldeTokens {
+
+    @Id
+    @Column(length = 50)
+    private String nome;
+
+    @Column(nullable = false)
+    private double tokens;
+
+    // epoch em ms do último reabastecimento; relógio de parede porque é comparado entre nós
+    @Column(name = "atualizado_em_ms", nullable = false)
+    private long atualizadoEmMs;
+}
@@ -0,0 +1,38 @@
+package com.desafio.fullstack.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "cep_enderecos")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CepEndereco {
+
+    @Id
+    @Column(length = 8)
+    private String cep;
+
+    @Column(length = 200)
+    private String logradouro;
+
+    @Column(length = 100)
+    private String bairro;
+
+    @Column(length = 100)
+    private String cidade;
+
+    @Column(nullable = false, length = 2)
+    private String uf;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        atualizadoEm = LocalDateTime.now();
+    }
+}
@@ -1,5 +1,7 @@
 package com.desafio.fullstack.entity;
 
+import com.desafio.fullstack.enums.StatusEnriquecimento;
+import com.desafio.fullstack.util.TextoNormalizador;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -7,7 +9,12 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "empresas")
+// (chave de ordenação, id) para a paginação por cursor; filtros da listagem por UF e cidade
+@Table(name = "empresas",
+       indexes = {@Index(name = "idx_empresas_nome_fantasia_id", columnList = "nome_fantasia, id"),
+                  @Index(name = "idx_empresas_criado_em_id", columnList = "criado_em, id"),
+                  @Index(name = "idx_empresas_uf_nome_fantasia_id", columnList = "uf, nome_fantasia, id"),
+                  @Index(name = "idx_empresas_uf_cidade", columnList = "uf, cidade")})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -23,6 +30,10 @@ public class Empresa {
     @Column(name = "nome_fantasia", nullable = false, length = 200)
     private String nomeFantasia;
 
+    // nome normalizado pelo TextoNormalizador; no Postgres tem índice GIN de trigramas (schema-postgresql.sql)
+    @Column(name = "nome_busca", length = 200)
+    private String nomeBusca;
+
     @Column(nullable = false, length = 8)
     private String cep;
 
@@ -38,6 +49,12 @@ public class Empresa {
     @Column(length = 2)
     private String uf;
 
+    // null em registros anteriores ao enriquecimento assíncrono: equivale a CONCLUIDO
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_enriquecimento", length = 20)
+    @Builder.Default
+    private StatusEnriquecimento statusEnriquecimento = StatusEnriquecimento.CONCLUIDO;
+
     @Column(name = "criado_em", nullable = false, updatable = false)
     private LocalDateTime criadoEm;
 
@@ -56,10 +73,12 @@ public class Empresa {
     @PrePersist
     protected void onCreate() {
         criadoEm = LocalDateTime.now();
+        nomeBusca = TextoNormalizador.normalizar(nomeFantasia);
     }
 
     @PreUpdate
     protected void onUpdate() {
         atualizadoEm = LocalDateTime.now();
+        nomeBusca = TextoNormalizador.normalizar(nomeFantasia);
     }
 }
@@ -0,0 +1,43 @@
+package com.desafio.fullstack.entity;
+
+import com.desafio.fullstack.enums.TipoCadastro;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "enriquecimentos_pendentes",
+       indexes = @Index(name = "idx_enriquecimentos_proxima_tentativa", columnList = "proxima_tentativa"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class EnriquecimentoPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoCadastro tipo;
+
+    @Column(name = "cadastro_id", nullable = false)
+    private Long cadastroId;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(name = "proxima_tentativa", nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+    }
+}
@@ -1,6 +1,8 @@
 package com.desafio.fullstack.entity;
 
+import com.desafio.fullstack.enums.StatusEnriquecimento;
 import com.desafio.fullstack.enums.TipoPessoa;
+import com.desafio.fullstack.util.TextoNormalizador;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
@@ -9,7 +11,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "fornecedores")
+// (chave de ordenação, id) para a paginação por cursor; filtros da listagem por UF, cidade e tipo de pessoa
+@Table(name = "fornecedores",
+       indexes = {@Index(name = "idx_fornecedores_nome_id", columnList = "nome, id"),
+                  @Index(name = "idx_fornecedores_criado_em_id", columnList = "criado_em, id"),
+                  @Index(name = "idx_fornecedores_uf_nome_id", columnList = "uf, nome, id"),
+                  @Index(name = "idx_fornecedores_uf_cidade", columnList = "uf, cidade"),
+                  @Index(name = "idx_fornecedores_tipo_pessoa_nome_id", columnList = "tipo_pessoa, nome, id")})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -29,6 +37,10 @@ public class Fornecedor {
     @Column(nullable = false, length = 200)
     private String nome;
 
+    // nome normalizado pelo TextoNormalizador; no Postgres tem índice GIN de trigramas (schema-postgresql.sql)
+    @Column(name = "nome_busca", length = 200)
+    private String nomeBusca;
+
     @Column(nullable = false, length = 200)
     private String email;
 
@@ -55,6 +67,12 @@ public class Fornecedor {
     @Column(length = 2)
     private String uf;
 
+    // null em registros anteriores ao enriquecimento assíncrono: equivale a CONCLUIDO
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_enriquecimento", length = 20)
+    @Builder.Default
+    private StatusEnriquecimento statusEnriquecimento = StatusEnriquecimento.CONCLUIDO;
+
     @Column(name = "criado_em", nullable = false, updatable = false)
     private LocalDateTime criadoEm;
 
@@ -68,10 +86,12 @@ public class Fornecedor {
     @PrePersist
     protected void onCreate() {
         criadoEm = LocalDateTime.now();
+        nomeBusca = TextoNormalizador.normalizar(nome);
     }
 
     @PreUpdate
     protected void onUpdate() {
         atualizadoEm = LocalDateTime.now();
+        nomeBusca = TextoNormalizador.normalizar(nome);
     }
 }
@@ -0,0 +1,56 @@
+package com.desafio.fullstack.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint do job de reenriquecimento: uma linha por job, atualizada a cada lote concluído.
+ */
+@Entity
+@Table(name = "reenriquecimento_execucoes")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ReenriquecimentoExecucao {
+
+    @Id
+    @Column(length = 50)
+    private String nome;
+
+    @Column(name = "ultimo_cep", nullable = false, length = 8)
+    private String ultimoCep;
+
+    @Column(name = "total_ceps", nullable = false)
+    private long totalCeps;
+
+    @Column(name = "ceps_processados", nullable = false)
+    private long cepsProcessados;
+
+    @Column(name = "registros_atualizados", nullable = false)
+    private long registrosAtualizados;
+
+    @Column(name = "ceps_nao_encontrados", nullable = false)
+    private long cepsNaoEncontrados;
+
+    @Column(nullable = false)
+    private long falhas;
+
+    @Column(nullable = false)
+    private boolean concluido;
+
+    @Column(name = "iniciado_em", nullable = false)
+    private LocalDateTime iniciadoEm;
+
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+
+    @Column(name = "concluido_em")
+    private LocalDateTime concluidoEm;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        atualizadoEm = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.desafio.fullstack.enums;
+
+// faixas de relevância da busca global, da melhor para a pior
+public enum Correspondencia {
+    DOCUMENTO_EXATO,
+    PREFIXO,
+    TRECHO
+}
@@ -0,0 +1,8 @@
+package com.desafio.fullstack.enums;
+
+public enum StatusConsultaCep {
+    OK,
+    NAO_ENCONTRADO,
+    INVALIDO,
+    ERRO
+}
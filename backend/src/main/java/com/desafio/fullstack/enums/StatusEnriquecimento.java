@@ -0,0 +1,8 @@
+package com.desafio.fullstack.enums;
+
+public enum StatusEnriquecimento {
+    PENDENTE,
+    CONCLUIDO,
+    CEP_INVALIDO,
+    FALHOU
+}
@@ -0,0 +1,6 @@
+package com.desafio.fullstack.enums;
+
+public enum TipoCadastro {
+    EMPRESA,
+    FORNECEDOR
+}
@@ -0,0 +1,12 @@
+package com.desafio.fullstack.exception;
+
+public class CepIndisponivelException extends RuntimeException {
+
+    public CepIndisponivelException(String message) {
+        super(message);
+    }
+
+    public CepIndisponivelException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
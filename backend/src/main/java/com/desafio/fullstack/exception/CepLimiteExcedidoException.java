@@ -0,0 +1,21 @@
+package com.desafio.fullstack.exception;
+
+import java.time.Duration;
+
+/**
+ * Consulta de CEP recusada por limite de taxa: o provedor respondeu HTTP 429 ou a fila local do limitador
+ * ficou cheia/esgotou o tempo de espera. {@code retryAfter} é o tempo sugerido antes de tentar de novo.
+ */
+public class CepLimiteExcedidoException extends CepIndisponivelException {
+
+    private final Duration retryAfter;
+
+    public CepLimiteExcedidoException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
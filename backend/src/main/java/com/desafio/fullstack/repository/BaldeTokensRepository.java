@@ -0,0 +1,19 @@
+package com.desafio.fullstack.repository;
+
+import com.desafio.fullstack.entity.BaldeTokens;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BaldeTokensRepository extends JpaRepository<BaldeTokens, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BaldeTokens b WHERE b.nome = :nome")
+    Optional<BaldeTokens> findParaAtualizar(@Param("nome") String nome);
+}
@@ -0,0 +1,40 @@
+package com.desafio.fullstack.repository;
+
+import com.desafio.fullstack.entity.CepEndereco;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CepEnderecoRepository extends JpaRepository<CepEndereco, String> {
+
+    // Um endereço por CEP a partir do que já está gravado em empresas e fornecedores: a linha inteira do cadastro
+    // atualizado por último, para não misturar logradouro de um cadastro com cidade de outro
+    @Modifying
+    @Query(value = "INSERT INTO cep_enderecos (cep, logradouro, bairro, cidade, uf, atualizado_em) " +
+                   "SELECT t.cep, t.logradouro, t.bairro, t.cidade, t.uf, CURRENT_TIMESTAMP FROM (" +
+                   "  SELECT c.cep, c.logradouro, c.bairro, c.cidade, c.uf, " +
+                   "    ROW_NUMBER() OVER (PARTITION BY c.cep ORDER BY c.atualizado_em DESC NULLS LAST) AS ordem FROM (" +
+                   "    SELECT cep, logradouro, bairro, cidade, uf, atualizado_em FROM empresas WHERE uf IS NOT NULL AND uf <> '' " +
+                   "    UNION ALL " +
+                   "    SELECT cep, logradouro, bairro, cidade, uf, atualizado_em FROM fornecedores WHERE uf IS NOT NULL AND uf <> ''" +
+                   "  ) c" +
+                   ") t " +
+                   "WHERE t.ordem = 1 AND NOT EXISTS (SELECT 1 FROM cep_enderecos e WHERE e.cep = t.cep)",
+           nativeQuery = true)
+    int semearDeEnderecosCadastrados();
+
+    // CEPs distintos em uso por empresas e fornecedores, em ordem, a partir de um checkpoint
+    @Query(value = "SELECT t.cep FROM (SELECT cep FROM empresas UNION SELECT cep FROM fornecedores) t " +
+                   "WHERE t.cep > :apos ORDER BY t.cep LIMIT :limite",
+           nativeQuery = true)
+    List<String> findCepsEmUsoApos(@Param("apos") String apos, @Param("limite") int limite);
+
+    @Query(value = "SELECT COUNT(*) FROM (SELECT cep FROM empresas UNION SELECT cep FROM fornecedores) t",
+           nativeQuery = true)
+    long countCepsEmUso();
+}
@@ -1,17 +1,19 @@
 package com.desafio.fullstack.repository;
 
+import com.desafio.fullstack.dto.EnderecoSugestaoDTO;
 import com.desafio.fullstack.entity.Empresa;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EmpresaRepository extends JpaRepository<Empresa, Long> {
+public interface EmpresaRepository extends JpaRepository<Empresa, Long>, FatiaSpecificationExecutor<Empresa> {
 
     Optional<Empresa> findByCnpj(String cnpj);
 
@@ -19,9 +21,25 @@ public interface EmpresaRepository extends JpaRepository<Empresa, Long> {
 
     boolean existsByCnpjAndIdNot(String cnpj, Long id);
 
-    @Query("SELECT e FROM Empresa e WHERE " +
-           "(:search IS NULL OR :search = '' OR " +
-           "LOWER(e.nomeFantasia) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "e.cnpj LIKE CONCAT('%', :search, '%'))")
-    Page<Empresa> findBySearch(@Param("search") String search, Pageable pageable);
+    List<Empresa> findByCep(String cep);
+
+    List<Empresa> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT e.id AS id, e.nomeFantasia AS nome FROM Empresa e WHERE e.id > :id ORDER BY e.id")
+    List<NomeCadastro> findNomesAposId(@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT DISTINCT new com.desafio.fullstack.dto.EnderecoSugestaoDTO(e.cep, e.logradouro, e.bairro, e.cidade, e.uf) " +
+           "FROM Empresa e WHERE e.uf IS NOT NULL")
+    List<EnderecoSugestaoDTO> findEnderecosDistintos();
+
+    // Atualiza de uma vez todos os cadastros do CEP cujo endereço mudou; pendentes ficam com o enriquecimento assíncrono
+    @Modifying
+    @Query("UPDATE Empresa e SET e.logradouro = :logradouro, e.bairro = :bairro, e.cidade = :cidade, e.uf = :uf, " +
+           "e.statusEnriquecimento = com.desafio.fullstack.enums.StatusEnriquecimento.CONCLUIDO, e.atualizadoEm = LOCAL DATETIME " +
+           "WHERE e.cep = :cep " +
+           "AND (e.statusEnriquecimento IS NULL OR e.statusEnriquecimento <> com.desafio.fullstack.enums.StatusEnriquecimento.PENDENTE) " +
+           "AND (COALESCE(e.logradouro, '') <> :logradouro OR COALESCE(e.bairro, '') <> :bairro " +
+           "OR COALESCE(e.cidade, '') <> :cidade OR COALESCE(e.uf, '') <> :uf)")
+    int atualizarEnderecoPorCep(@Param("cep") String cep, @Param("logradouro") String logradouro,
+                                @Param("bairro") String bairro, @Param("cidade") String cidade, @Param("uf") String uf);
 }
@@ -0,0 +1,77 @@
+package com.desafio.fullstack.repository;
+
+import com.desafio.fullstack.entity.Empresa;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros da listagem de empresas. Cada um só gera predicado quando informado (null = sem restrição), para o plano
+ * usar o índice do filtro em vez de um {@code :param = '' OR ...} genérico.
+ */
+public final class EmpresaSpecifications {
+
+    private EmpresaSpecifications() {
+    }
+
+    // nome normalizado ou dígitos do CNPJ; no Postgres cada LIKE usa o índice de trigramas
+    public static Specification<Empresa> busca(String nome, String documento) {
+        return (root, query, cb) -> {
+            List<Predicate> alternativas = new ArrayList<>();
+            if (!nome.isEmpty()) {
+                alternativas.add(cb.like(root.get("nomeBusca"), "%" + nome + "%"));
+            }
+            if (!documento.isEmpty()) {
+                alternativas.add(cb.like(root.get("cnpj"), "%" + documento + "%"));
+            }
+            return alternativas.isEmpty() ? null : cb.or(alternativas.toArray(Predicate[]::new));
+        };
+    }
+
+    // busca global: nome ou documento, ordenado pela faixa de relevância (documento exato, começo do nome ou do
+    // documento, trecho) e depois pelo nome, para o limite da página ficar com as melhores correspondências
+    public static Specification<Empresa> buscaPorRelevancia(String nome, String documento) {
+        Specification<Empresa> busca = busca(nome, documento);
+        return (root, query, cb) -> {
+            CriteriaBuilder.Case<Integer> faixa = cb.selectCase();
+            if (!documento.isEmpty()) {
+                faixa = faixa.when(cb.equal(root.get("cnpj"), documento), 0)
+                    .when(cb.like(root.get("cnpj"), documento + "%"), 1);
+            }
+            if (!nome.isEmpty()) {
+                faixa = faixa.when(cb.like(root.get("nomeBusca"), nome + "%"), 1);
+            }
+            query.orderBy(cb.asc(faixa.otherwise(2)), cb.asc(root.get("nomeBusca")), cb.asc(root.get("id")));
+            return busca.toPredicate(root, query, cb);
+        };
+    }
+
+    public static Specification<Empresa> uf(String uf) {
+        return uf.isEmpty() ? null : (root, query, cb) -> cb.equal(root.get("uf"), uf);
+    }
+
+    public static Specification<Empresa> cidade(String cidade) {
+        return cidade.isEmpty() ? null : (root, query, cb) -> cb.equal(root.get("cidade"), cidade);
+    }
+
+    // datas inclusivas; o fim vira "antes do dia seguinte" para cobrir o dia inteiro
+    public static Specification<Empresa> criadoEntre(LocalDate de, LocalDate ate) {
+        if (de == null && ate == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            List<Predicate> limites = new ArrayList<>();
+            if (de != null) {
+                limites.add(cb.greaterThanOrEqualTo(root.get("criadoEm"), de.atStartOfDay()));
+            }
+            if (ate != null) {
+                limites.add(cb.lessThan(root.get("criadoEm"), ate.plusDays(1).atStartOfDay()));
+            }
+            return cb.and(limites.toArray(Predicate[]::new));
+        };
+    }
+}
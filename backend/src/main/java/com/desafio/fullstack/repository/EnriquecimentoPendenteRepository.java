@@ -0,0 +1,26 @@
+package com.desafio.fullstack.repository;
+
+import com.desafio.fullstack.entity.EnriquecimentoPendente;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EnriquecimentoPendenteRepository extends JpaRepository<EnriquecimentoPendente, Long> {
+
+    // SELECT ... FOR UPDATE SKIP LOCKED (lock.timeout = -2): linhas que outra réplica está reservando são puladas,
+    // não esperadas. Precisa de transação aberta
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM EnriquecimentoPendente p WHERE p.proximaTentativa <= :agora ORDER BY p.proximaTentativa")
+    List<EnriquecimentoPendente> travarVencidos(@Param("agora") LocalDateTime agora, Pageable pageable);
+}
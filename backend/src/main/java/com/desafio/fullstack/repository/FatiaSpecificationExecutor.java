@@ -0,0 +1,27 @@
+package com.desafio.fullstack.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+/**
+ * Leitura de uma página por {@link Specification} sem o {@code COUNT} do {@code findAll(spec, pageable)}: o total
+ * das listagens vem do ContagemListagem.
+ */
+public interface FatiaSpecificationExecutor<T> extends JpaSpecificationExecutor<T> {
+
+    // a janela de limit = tamanho da página indica se há mais linhas depois dela, sem contar
+    default Slice<T> findSlice(Specification<T> especificacao, Pageable pageable) {
+        ScrollPosition posicao = pageable.getOffset() == 0
+            ? ScrollPosition.offset()
+            : ScrollPosition.offset(pageable.getOffset());
+        Window<T> janela = findBy(especificacao, consulta -> consulta.sortBy(pageable.getSort())
+            .limit(pageable.getPageSize())
+            .scroll(posicao));
+        return new SliceImpl<>(janela.getContent(), pageable, janela.hasNext());
+    }
+}
@@ -1,17 +1,19 @@
 package com.desafio.fullstack.repository;
 
+import com.desafio.fullstack.dto.EnderecoSugestaoDTO;
 import com.desafio.fullstack.entity.Fornecedor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FornecedorRepository extends JpaRepository<Fornecedor, Long> {
+public interface FornecedorRepository extends JpaRepository<Fornecedor, Long>, FatiaSpecificationExecutor<Fornecedor> {
 
     Optional<Fornecedor> findByCpfCnpj(String cpfCnpj);
 
@@ -19,12 +21,25 @@ public interface FornecedorRepository extends JpaRepository<Fornecedor, Long> {
 
     boolean existsByCpfCnpjAndIdNot(String cpfCnpj, Long id);
 
-    @Query("SELECT f FROM Fornecedor f WHERE " +
-           "(:nome IS NULL OR :nome = '' OR LOWER(f.nome) LIKE LOWER(CONCAT('%', :nome, '%'))) AND " +
-           "(:cpfCnpj IS NULL OR :cpfCnpj = '' OR f.cpfCnpj LIKE CONCAT('%', :cpfCnpj, '%'))")
-    Page<Fornecedor> findByFilters(
-        @Param("nome") String nome,
-        @Param("cpfCnpj") String cpfCnpj,
-        Pageable pageable
-    );
+    List<Fornecedor> findByCep(String cep);
+
+    List<Fornecedor> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT f.id AS id, f.nome AS nome FROM Fornecedor f WHERE f.id > :id ORDER BY f.id")
+    List<NomeCadastro> findNomesAposId(@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT DISTINCT new com.desafio.fullstack.dto.EnderecoSugestaoDTO(f.cep, f.logradouro, f.bairro, f.cidade, f.uf) " +
+           "FROM Fornecedor f WHERE f.uf IS NOT NULL")
+    List<EnderecoSugestaoDTO> findEnderecosDistintos();
+
+    // Atualiza de uma vez todos os cadastros do CEP cujo endereço mudou; pendentes ficam com o enriquecimento assíncrono
+    @Modifying
+    @Query("UPDATE Fornecedor f SET f.logradouro = :logradouro, f.bairro = :bairro, f.cidade = :cidade, f.uf = :uf, " +
+           "f.statusEnriquecimento = com.desafio.fullstack.enums.StatusEnriquecimento.CONCLUIDO, f.atualizadoEm = LOCAL DATETIME " +
+           "WHERE f.cep = :cep " +
+           "AND (f.statusEnriquecimento IS NULL OR f.statusEnriquecimento <> com.desafio.fullstack.enums.StatusEnriquecimento.PENDENTE) " +
+           "AND (COALESCE(f.logradouro, '') <> :logradouro OR COALESCE(f.bairro, '') <> :bairro " +
+           "OR COALESCE(f.cidade, '') <> :cidade OR COALESCE(f.uf, '') <> :uf)")
+    int atualizarEnderecoPorCep(@Param("cep") String cep, @Param("logradouro") String logradouro,
+                                @Param("bairro") String bairro, @Param("cidade") String cidade, @Param("uf") String uf);
 }
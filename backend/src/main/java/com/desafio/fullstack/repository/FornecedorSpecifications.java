@@ -0,0 +1,101 @@
+package com.desafio.fullstack.repository;
+
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.TipoPessoa;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros da listagem de fornecedores. Cada um só gera predicado quando informado (null = sem restrição), para o
+ * plano usar o índice do filtro em vez de um {@code :param = '' OR ...} genérico.
+ */
+public final class FornecedorSpecifications {
+
+    private FornecedorSpecifications() {
+    }
+
+    // nome normalizado e dígitos do CPF/CNPJ; no Postgres cada LIKE usa o índice de trigramas
+    public static Specification<Fornecedor> filtros(String nome, String cpfCnpj) {
+        return (root, query, cb) -> {
+            List<Predicate> condicoes = new ArrayList<>();
+            if (!nome.isEmpty()) {
+                condicoes.add(cb.like(root.get("nomeBusca"), "%" + nome + "%"));
+            }
+            if (!cpfCnpj.isEmpty()) {
+                condicoes.add(cb.like(root.get("cpfCnpj"), "%" + cpfCnpj + "%"));
+            }
+            return condicoes.isEmpty() ? null : cb.and(condicoes.toArray(Predicate[]::new));
+        };
+    }
+
+    // como EmpresaSpecifications.buscaPorRelevancia, com o CPF/CNPJ no lugar do CNPJ
+    public static Specification<Fornecedor> buscaPorRelevancia(String nome, String documento) {
+        Specification<Fornecedor> busca = alternativas(nome, documento);
+        return (root, query, cb) -> {
+            CriteriaBuilder.Case<Integer> faixa = cb.selectCase();
+            if (!documento.isEmpty()) {
+                faixa = faixa.when(cb.equal(root.get("cpfCnpj"), documento), 0)
+                    .when(cb.like(root.get("cpfCnpj"), documento + "%"), 1);
+            }
+            if (!nome.isEmpty()) {
+                faixa = faixa.when(cb.like(root.get("nomeBusca"), nome + "%"), 1);
+            }
+            query.orderBy(cb.asc(faixa.otherwise(2)), cb.asc(root.get("nomeBusca")), cb.asc(root.get("id")));
+            return busca.toPredicate(root, query, cb);
+        };
+    }
+
+    // nome ou documento, para a busca global em que o mesmo texto pode ser qualquer um dos dois
+    private static Specification<Fornecedor> alternativas(String nome, String documento) {
+        return (root, query, cb) -> {
+            List<Predicate> alternativas = new ArrayList<>();
+            if (!nome.isEmpty()) {
+                alternativas.add(cb.like(root.get("nomeBusca"), "%" + nome + "%"));
+            }
+            if (!documento.isEmpty()) {
+                alternativas.add(cb.like(root.get("cpfCnpj"), "%" + documento + "%"));
+            }
+            return alternativas.isEmpty() ? null : cb.or(alternativas.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Fornecedor> uf(String uf) {
+        return uf.isEmpty() ? null : (root, query, cb) -> cb.equal(root.get("uf"), uf);
+    }
+
+    public static Specification<Fornecedor> cidade(String cidade) {
+        return cidade.isEmpty() ? null : (root, query, cb) -> cb.equal(root.get("cidade"), cidade);
+    }
+
+    public static Specification<Fornecedor> tipoPessoa(TipoPessoa tipoPessoa) {
+        return tipoPessoa == null ? null : (root, query, cb) -> cb.equal(root.get("tipoPessoa"), tipoPessoa);
+    }
+
+    // datas inclusivas; o fim vira "antes do dia seguinte" para cobrir o dia inteiro
+    public static Specification<Fornecedor> criadoEntre(LocalDate de, LocalDate ate) {
+        if (de == null && ate == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            List<Predicate> limites = new ArrayList<>();
+            if (de != null) {
+                limites.add(cb.greaterThanOrEqualTo(root.get("criadoEm"), de.atStartOfDay()));
+            }
+            if (ate != null) {
+                limites.add(cb.lessThan(root.get("criadoEm"), ate.plusDays(1).atStartOfDay()));
+            }
+            return cb.and(limites.toArray(Predicate[]::new));
+        };
+    }
+
+    // pela chave primária de empresa_fornecedor (empresa_id, fornecedor_id); cada par aparece uma vez
+    public static Specification<Fornecedor> vinculadoA(Long empresaId) {
+        return empresaId == null ? null
+            : (root, query, cb) -> cb.equal(root.join("empresas").get("id"), empresaId);
+    }
+}
@@ -0,0 +1,9 @@
+package com.desafio.fullstack.repository;
+
+// projeção leve (id e nome) para carregar o índice de sugestões
+public interface NomeCadastro {
+
+    Long getId();
+
+    String getNome();
+}
@@ -0,0 +1,9 @@
+package com.desafio.fullstack.repository;
+
+import com.desafio.fullstack.entity.ReenriquecimentoExecucao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReenriquecimentoExecucaoRepository extends JpaRepository<ReenriquecimentoExecucao, String> {
+}
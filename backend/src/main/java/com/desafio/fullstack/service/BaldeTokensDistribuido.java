@@ -0,0 +1,77 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.entity.BaldeTokens;
+import com.desafio.fullstack.repository.BaldeTokensRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Balde de tokens na tabela {@code cep_baldes_tokens}, para que todas as réplicas juntas respeitem a cota do
+ * provedor. Cada nó retira um lote de tokens por vez, com a linha travada (SELECT ... FOR UPDATE), e os gasta
+ * localmente; a taxa e a capacidade configuradas valem para o cluster inteiro.
+ */
+@Slf4j
+@Component
+public class BaldeTokensDistribuido {
+
+    private final BaldeTokensRepository repository;
+    private final TransactionOperations transactionOperations;
+    private final LongSupplier relogioMs;
+
+    @Autowired
+    public BaldeTokensDistribuido(BaldeTokensRepository repository, TransactionOperations transactionOperations) {
+        this(repository, transactionOperations, System::currentTimeMillis);
+    }
+
+    BaldeTokensDistribuido(BaldeTokensRepository repository, TransactionOperations transactionOperations, LongSupplier relogioMs) {
+        this.repository = repository;
+        this.transactionOperations = transactionOperations;
+        this.relogioMs = relogioMs;
+    }
+
+    /** Retira até {@code desejado} tokens inteiros do balde {@code nome}; 0 se não houver ou se o banco falhar. */
+    public int reservar(String nome, int desejado, double porSegundo, double capacidade) {
+        try {
+            return retirar(nome, desejado, porSegundo, capacidade);
+        } catch (DataIntegrityViolationException e) {
+            // outra réplica criou a linha ao mesmo tempo; agora ela existe
+            return reservarSemFalhar(nome, desejado, porSegundo, capacidade);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao reservar tokens do balde {}: {}", nome, e.getMessage());
+            return 0;
+        }
+    }
+
+    private int reservarSemFalhar(String nome, int desejado, double porSegundo, double capacidade) {
+        try {
+            return retirar(nome, desejado, porSegundo, capacidade);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao reservar tokens do balde {}: {}", nome, e.getMessage());
+            return 0;
+        }
+    }
+
+    private int retirar(String nome, int desejado, double porSegundo, double capacidade) {
+        Integer concedidos = transactionOperations.execute(status -> {
+            long agora = relogioMs.getAsLong();
+            BaldeTokens balde = repository.findParaAtualizar(nome)
+                .orElseGet(() -> BaldeTokens.builder().nome(nome).tokens(capacidade).atualizadoEmMs(agora).build());
+
+            long decorrido = Math.max(0, agora - balde.getAtualizadoEmMs());
+            double tokens = Math.min(capacidade, balde.getTokens() + decorrido * porSegundo / 1000.0);
+            int retirados = (int) Math.min(desejado, Math.floor(tokens));
+
+            balde.setTokens(tokens - retirados);
+            balde.setAtualizadoEmMs(agora);
+            repository.saveAndFlush(balde);
+            return retirados;
+        });
+        return concedidos != null ? concedidos : 0;
+    }
+}
@@ -0,0 +1,128 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.BuscaDTO;
+import com.desafio.fullstack.entity.Empresa;
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.Correspondencia;
+import com.desafio.fullstack.enums.TipoCadastro;
+import com.desafio.fullstack.exception.BusinessException;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.EmpresaSpecifications;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.repository.FornecedorSpecifications;
+import com.desafio.fullstack.util.TextoNormalizador;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Busca global da caixa de pesquisa: o mesmo texto procura empresas e fornecedores ao mesmo tempo (empresas no
+ * {@code buscaExecutor}, fornecedores na thread da requisição) e as duas listas viram uma só, ordenada pela
+ * {@link Correspondencia} e depois pelo nome. Cada tipo traz no máximo {@code limitePorTipo} linhas, já as melhores,
+ * porque o banco ordena pela mesma faixa antes do limite.
+ */
+@Service
+public class BuscaUnificadaService {
+
+    private record Candidato(BuscaDTO.Item item, String nomeBusca) {
+    }
+
+    private static final Comparator<Candidato> RELEVANCIA = Comparator
+        .comparing((Candidato c) -> c.item().getCorrespondencia())
+        .thenComparing(Candidato::nomeBusca)
+        .thenComparing(c -> c.item().getTipo())
+        .thenComparing(c -> c.item().getId());
+
+    private final Executor executor;
+    private final EmpresaRepository empresaRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final int limiteMaximo;
+
+    public BuscaUnificadaService(@Qualifier("buscaExecutor") Executor executor,
+                                 EmpresaRepository empresaRepository,
+                                 FornecedorRepository fornecedorRepository,
+                                 @Value("${app.busca.unificada.limite-maximo:20}") int limiteMaximo) {
+        this.executor = executor;
+        this.empresaRepository = empresaRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.limiteMaximo = limiteMaximo;
+    }
+
+    public BuscaDTO.Response buscar(String q, int limitePorTipo) {
+        if (limitePorTipo < 1) {
+            throw new BusinessException("limitePorTipo deve ser maior que zero");
+        }
+        String nome = TextoNormalizador.normalizar(q);
+        String documento = TextoNormalizador.documento(q);
+        if (nome.isEmpty() && documento.isEmpty()) {
+            return new BuscaDTO.Response(List.of(), false, false);
+        }
+        Pageable pagina = PageRequest.of(0, Math.min(limitePorTipo, limiteMaximo));
+
+        CompletableFuture<Slice<Empresa>> buscaEmpresas = CompletableFuture.supplyAsync(
+            () -> empresaRepository.findSlice(EmpresaSpecifications.buscaPorRelevancia(nome, documento), pagina), executor);
+        Slice<Fornecedor> fornecedores = fornecedorRepository.findSlice(
+            FornecedorSpecifications.buscaPorRelevancia(nome, documento), pagina);
+        Slice<Empresa> empresas = aguardar(buscaEmpresas);
+
+        List<Candidato> candidatos = new ArrayList<>();
+        for (Empresa e : empresas) {
+            candidatos.add(new Candidato(BuscaDTO.Item.builder()
+                .tipo(TipoCadastro.EMPRESA)
+                .id(e.getId())
+                .nome(e.getNomeFantasia())
+                .documento(e.getCnpj())
+                .cidade(e.getCidade())
+                .uf(e.getUf())
+                .correspondencia(correspondencia(e.getNomeBusca(), e.getCnpj(), nome, documento))
+                .build(), e.getNomeBusca()));
+        }
+        for (Fornecedor f : fornecedores) {
+            candidatos.add(new Candidato(BuscaDTO.Item.builder()
+                .tipo(TipoCadastro.FORNECEDOR)
+                .id(f.getId())
+                .nome(f.getNome())
+                .documento(f.getCpfCnpj())
+                .cidade(f.getCidade())
+                .uf(f.getUf())
+                .correspondencia(correspondencia(f.getNomeBusca(), f.getCpfCnpj(), nome, documento))
+                .build(), f.getNomeBusca()));
+        }
+        candidatos.sort(RELEVANCIA);
+        return new BuscaDTO.Response(candidatos.stream().map(Candidato::item).toList(), empresas.hasNext(),
+            fornecedores.hasNext());
+    }
+
+    // mesmas faixas do CASE de buscaPorRelevancia
+    static Correspondencia correspondencia(String nomeBusca, String documentoCadastro, String nome, String documento) {
+        if (!documento.isEmpty() && documento.equals(documentoCadastro)) {
+            return Correspondencia.DOCUMENTO_EXATO;
+        }
+        if ((!documento.isEmpty() && documentoCadastro != null && documentoCadastro.startsWith(documento))
+                || (!nome.isEmpty() && nomeBusca != null && nomeBusca.startsWith(nome))) {
+            return Correspondencia.PREFIXO;
+        }
+        return Correspondencia.TRECHO;
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
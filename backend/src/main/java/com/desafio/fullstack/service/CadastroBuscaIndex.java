@@ -0,0 +1,461 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.ReconstrucaoIndiceDTO;
+import com.desafio.fullstack.entity.Empresa;
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.TipoCadastro;
+import com.desafio.fullstack.exception.BusinessException;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.util.TextoNormalizador;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.br.BrazilianAnalyzer;
+import org.apache.lucene.analysis.br.BrazilianStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Índice textual (Lucene) de empresas e fornecedores sobre nome, e-mail, cidade e CPF/CNPJ. O texto é indexado sem
+ * acento e reduzido ao radical do português, então "Sao Jose" acha "São José Comércio". Toda gravação que muda um
+ * campo indexado chama {@link #indexar} ou {@link #remover} na transação (cadastro, alteração, exclusão e
+ * enriquecimento do endereço) ou {@link #reindexarCep} depois do UPDATE em massa do reenriquecimento; vincular
+ * fornecedores não muda o documento. A escrita só é aplicada depois do commit e a leitura é reaberta a cada
+ * {@code refresh-ms}. A busca devolve só os ids, por relevância, e os serviços carregam a página do banco.
+ */
+@Slf4j
+@Component
+public class CadastroBuscaIndex {
+
+    static final String CHAVE = "chave";
+    static final String TIPO = "tipo";
+    static final String ID = "id";
+    static final String NOME = "nome";
+    static final String NOME_PREFIXO = "nome_prefixo";
+    static final String EMAIL = "email";
+    static final String CIDADE = "cidade";
+    static final String DOCUMENTO = "documento";
+    static final String ORDEM = "ordem";
+
+    private static final int LOTE_RECONSTRUCAO = 500;
+    private static final int MAXIMO_RESULTADOS = 10_000;
+    private static final Sort RELEVANCIA = new Sort(SortField.FIELD_SCORE, new SortField(ORDEM, SortField.Type.STRING));
+
+    // nome_prefixo fica sem radical, para o último termo digitado casar como prefixo ("Sao Jo" acha "São José")
+    static final Analyzer ANALISADOR = new PerFieldAnalyzerWrapper(analisador(true), Map.of(NOME_PREFIXO, analisador(false)));
+
+    public record Resultado(List<Long> ids, long total) {
+    }
+
+    private final EmpresaRepository empresaRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final boolean habilitado;
+    private final Directory diretorio;
+    // trocados só quando uma reconstrução falha e o writer é revertido ao último commit
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private final AtomicBoolean reconstruindo = new AtomicBoolean();
+    // gravações aplicadas durante a reconstrução, repetidas depois dos lotes
+    private final Queue<Escrita> escritasDuranteReconstrucao = new ConcurrentLinkedQueue<>();
+    private volatile boolean pronto;
+
+    @Autowired
+    public CadastroBuscaIndex(EmpresaRepository empresaRepository, FornecedorRepository fornecedorRepository,
+                              @Value("${app.busca.indice.habilitado:true}") boolean habilitado,
+                              @Value("${app.busca.indice.diretorio:}") String diretorio) throws IOException {
+        this(empresaRepository, fornecedorRepository, habilitado,
+            diretorio.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(diretorio)));
+    }
+
+    CadastroBuscaIndex(EmpresaRepository empresaRepository, FornecedorRepository fornecedorRepository,
+                       boolean habilitado, Directory diretorio) throws IOException {
+        this.empresaRepository = empresaRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.habilitado = habilitado;
+        this.diretorio = diretorio;
+        this.writer = abrirWriter(diretorio);
+        this.searcherManager = new SearcherManager(writer, null);
+        // índice em disco de uma execução anterior já atende; em memória começa vazio e é reconstruído
+        this.pronto = writer.getDocStats().numDocs > 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (habilitado && !pronto) {
+            try {
+                ReconstrucaoIndiceDTO resultado = reconstruir();
+                log.info("Índice de busca com {} empresa(s) e {} fornecedor(es) em {} ms", resultado.getEmpresas(),
+                    resultado.getFornecedores(), resultado.getDuracaoMs());
+            } catch (RuntimeException e) {
+                // já registrado na reconstrução; as buscas seguem pelo banco
+            }
+        }
+    }
+
+    public boolean isPronto() {
+        return habilitado && pronto;
+    }
+
+    public void indexar(Empresa empresa) {
+        Document doc = documento(TipoCadastro.EMPRESA, empresa.getId(), empresa.getNomeFantasia(), null,
+            empresa.getCidade(), empresa.getCnpj());
+        aposCommit(() -> writer.updateDocument(chave(TipoCadastro.EMPRESA, empresa.getId()), doc));
+    }
+
+    public void indexar(Fornecedor fornecedor) {
+        Document doc = documento(TipoCadastro.FORNECEDOR, fornecedor.getId(), fornecedor.getNome(), fornecedor.getEmail(),
+            fornecedor.getCidade(), fornecedor.getCpfCnpj());
+        aposCommit(() -> writer.updateDocument(chave(TipoCadastro.FORNECEDOR, fornecedor.getId()), doc));
+    }
+
+    public void remover(TipoCadastro tipo, Long id) {
+        aposCommit(() -> writer.deleteDocuments(chave(tipo, id)));
+    }
+
+    // UPDATE em massa do reenriquecimento: relê os cadastros do CEP
+    public void reindexarCep(String cep) {
+        if (!habilitado) {
+            return;
+        }
+        empresaRepository.findByCep(cep).forEach(this::indexar);
+        fornecedorRepository.findByCep(cep).forEach(this::indexar);
+    }
+
+    /**
+     * Busca por relevância (nome pesa mais que cidade e e-mail; empate pela ordem alfabética do nome). Um texto que
+     * só tem dígitos e máscara é tratado como CPF/CNPJ. {@code documento} filtra por trecho do CPF/CNPJ. Vazio
+     * enquanto o índice não está pronto: o chamador usa a consulta do banco.
+     */
+    public Optional<Resultado> buscar(TipoCadastro tipo, String texto, String documento, Pageable pageable) {
+        if (!isPronto()) {
+            return Optional.empty();
+        }
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder()
+            .add(new TermQuery(new Term(TIPO, tipo.name())), BooleanClause.Occur.FILTER);
+
+        String documentoTexto = TextoNormalizador.documento(texto);
+        if (!documentoTexto.isEmpty()) {
+            consulta.add(trechoDocumento(documentoTexto), BooleanClause.Occur.MUST);
+        } else if (!TextoNormalizador.normalizar(texto).isEmpty()) {
+            Optional<Query> porTexto = consultaTexto(texto);
+            if (porTexto.isEmpty()) {
+                return Optional.of(new Resultado(List.of(), 0));
+            }
+            consulta.add(porTexto.get(), BooleanClause.Occur.MUST);
+        }
+        if (documento != null && !documento.isEmpty()) {
+            consulta.add(trechoDocumento(documento), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            return Optional.of(pesquisar(consulta.build(), pageable));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Resultado pesquisar(Query consulta, Pageable pageable) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            int fim = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), MAXIMO_RESULTADOS);
+            if (pageable.getOffset() >= fim) {
+                return new Resultado(List.of(), searcher.count(consulta));
+            }
+            TopFieldDocs top = searcher.search(consulta, fim, RELEVANCIA);
+            long total = top.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                ? top.totalHits.value : searcher.count(consulta);
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = (int) pageable.getOffset(); i < top.scoreDocs.length; i++) {
+                ScoreDoc hit = top.scoreDocs[i];
+                ids.add(searcher.storedFields().document(hit.doc).getField(ID).numericValue().longValue());
+            }
+            return new Resultado(ids, total);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // cada termo precisa aparecer em algum campo; o último também vale como prefixo do nome
+    private Optional<Query> consultaTexto(String texto) {
+        List<String> termos = termos(NOME, texto);
+        List<String> prefixos = termos(NOME_PREFIXO, texto);
+        if (termos.isEmpty()) {
+            return Optional.empty();
+        }
+        BooleanQuery.Builder todos = new BooleanQuery.Builder();
+        for (int i = 0; i < termos.size(); i++) {
+            String termo = termos.get(i);
+            BooleanQuery.Builder campos = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(NOME, termo)), 3f), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(CIDADE, termo)), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(EMAIL, termo)), BooleanClause.Occur.SHOULD);
+            if (i == termos.size() - 1 && i < prefixos.size()) {
+                campos.add(new BoostQuery(new PrefixQuery(new Term(NOME_PREFIXO, prefixos.get(i))), 2f),
+                    BooleanClause.Occur.SHOULD);
+            }
+            todos.add(campos.build(), BooleanClause.Occur.MUST);
+        }
+        return Optional.of(todos.build());
+    }
+
+    private static Query trechoDocumento(String digitos) {
+        return new WildcardQuery(new Term(DOCUMENTO, "*" + digitos + "*"));
+    }
+
+    static List<String> termos(String campo, String texto) {
+        List<String> termos = new ArrayList<>();
+        try (TokenStream fluxo = ANALISADOR.tokenStream(campo, texto)) {
+            CharTermAttribute termo = fluxo.addAttribute(CharTermAttribute.class);
+            fluxo.reset();
+            while (fluxo.incrementToken()) {
+                termos.add(termo.toString());
+            }
+            fluxo.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return termos;
+    }
+
+    /**
+     * Recria o índice a partir do banco, em lotes por id. Durante a reconstrução as buscas vão para o banco.
+     * Gravações concorrentes continuam sendo aplicadas e também são repetidas depois do último lote: um lote lido
+     * antes de uma exclusão ou alteração não deixa o documento antigo de volta no índice. Se a reconstrução falhar,
+     * o índice volta ao último commit (mais as gravações feitas durante ela) e a falha é propagada.
+     */
+    public ReconstrucaoIndiceDTO reconstruir() {
+        if (!habilitado) {
+            throw new BusinessException("O índice de busca está desabilitado (app.busca.indice.habilitado=false)");
+        }
+        if (!reconstruindo.compareAndSet(false, true)) {
+            throw new BusinessException("A reconstrução do índice de busca já está em execução");
+        }
+        long inicio = System.nanoTime();
+        boolean estavaPronto = pronto;
+        try {
+            // o ponto de retorno em caso de falha inclui as gravações ainda não commitadas
+            writer.commit();
+            pronto = false;
+            escritasDuranteReconstrucao.clear();
+            writer.deleteAll();
+
+            long empresas = 0;
+            List<Empresa> loteEmpresas = empresaRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, LOTE_RECONSTRUCAO));
+            while (!loteEmpresas.isEmpty()) {
+                for (Empresa empresa : loteEmpresas) {
+                    writer.updateDocument(chave(TipoCadastro.EMPRESA, empresa.getId()), documento(TipoCadastro.EMPRESA,
+                        empresa.getId(), empresa.getNomeFantasia(), null, empresa.getCidade(), empresa.getCnpj()));
+                }
+                empresas += loteEmpresas.size();
+                loteEmpresas = empresaRepository.findByIdGreaterThanOrderByIdAsc(
+                    loteEmpresas.get(loteEmpresas.size() - 1).getId(), PageRequest.of(0, LOTE_RECONSTRUCAO));
+            }
+
+            long fornecedores = 0;
+            List<Fornecedor> loteFornecedores = fornecedorRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, LOTE_RECONSTRUCAO));
+            while (!loteFornecedores.isEmpty()) {
+                for (Fornecedor fornecedor : loteFornecedores) {
+                    writer.updateDocument(chave(TipoCadastro.FORNECEDOR, fornecedor.getId()), documento(TipoCadastro.FORNECEDOR,
+                        fornecedor.getId(), fornecedor.getNome(), fornecedor.getEmail(), fornecedor.getCidade(), fornecedor.getCpfCnpj()));
+                }
+                fornecedores += loteFornecedores.size();
+                loteFornecedores = fornecedorRepository.findByIdGreaterThanOrderByIdAsc(
+                    loteFornecedores.get(loteFornecedores.size() - 1).getId(), PageRequest.of(0, LOTE_RECONSTRUCAO));
+            }
+
+            Escrita repetida;
+            while ((repetida = escritasDuranteReconstrucao.poll()) != null) {
+                repetida.executar();
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            pronto = true;
+            return ReconstrucaoIndiceDTO.builder()
+                .empresas(empresas)
+                .fornecedores(fornecedores)
+                .duracaoMs((System.nanoTime() - inicio) / 1_000_000)
+                .build();
+        } catch (IOException e) {
+            restaurar(e, estavaPronto);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            restaurar(e, estavaPronto);
+            throw e;
+        } finally {
+            escritasDuranteReconstrucao.clear();
+            reconstruindo.set(false);
+        }
+    }
+
+    // rollback descarta o deleteAll e os lotes e fecha o writer; um novo writer reabre o último commit
+    private void restaurar(Exception falha, boolean estavaPronto) {
+        log.error("Falha na reconstrução do índice de busca; mantido o último commit: {}", falha.getMessage(), falha);
+        try {
+            writer.rollback();
+            SearcherManager anterior = searcherManager;
+            writer = abrirWriter(diretorio);
+            searcherManager = new SearcherManager(writer, null);
+            anterior.close();
+            Escrita repetida;
+            while ((repetida = escritasDuranteReconstrucao.poll()) != null) {
+                repetida.executar();
+            }
+            searcherManager.maybeRefreshBlocking();
+            pronto = estavaPronto;
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha ao restaurar o índice de busca; as buscas seguem pelo banco: {}", e.getMessage(), e);
+        }
+    }
+
+    private static IndexWriter abrirWriter(Directory diretorio) throws IOException {
+        return new IndexWriter(diretorio, new IndexWriterConfig(ANALISADOR)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+    }
+
+    @Scheduled(fixedDelayString = "${app.busca.indice.refresh-ms:500}")
+    public void atualizarLeitura() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.busca.indice.commit-ms:30000}")
+    public void gravar() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        searcherManager.close();
+        writer.close();
+        diretorio.close();
+    }
+
+    private interface Escrita {
+        void executar() throws IOException;
+    }
+
+    // o índice só vê o que foi commitado; sem transação ativa (reenriquecimento, testes) aplica na hora
+    private void aposCommit(Escrita escrita) {
+        if (!habilitado) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(escrita);
+                }
+            });
+        } else {
+            aplicar(escrita);
+        }
+    }
+
+    // enfileirada antes de aplicar: o que a reconstrução não repetir foi aplicado depois do último lote
+    private void aplicar(Escrita escrita) {
+        if (reconstruindo.get()) {
+            escritasDuranteReconstrucao.add(escrita);
+        }
+        try {
+            escrita.executar();
+        } catch (IOException | RuntimeException e) {
+            // o cadastro já foi gravado; o índice se corrige na próxima gravação ou reconstrução
+            log.error("Falha ao atualizar o índice de busca: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Term chave(TipoCadastro tipo, Long id) {
+        return new Term(CHAVE, tipo.name() + ":" + id);
+    }
+
+    private static Document documento(TipoCadastro tipo, Long id, String nome, String email, String cidade, String documento) {
+        Document doc = new Document();
+        doc.add(new StringField(CHAVE, tipo.name() + ":" + id, Field.Store.NO));
+        doc.add(new StringField(TIPO, tipo.name(), Field.Store.NO));
+        doc.add(new StoredField(ID, id));
+        doc.add(new TextField(NOME, valor(nome), Field.Store.NO));
+        doc.add(new TextField(NOME_PREFIXO, valor(nome), Field.Store.NO));
+        doc.add(new TextField(EMAIL, valor(email), Field.Store.NO));
+        doc.add(new TextField(CIDADE, valor(cidade), Field.Store.NO));
+        doc.add(new StringField(DOCUMENTO, valor(documento).replaceAll("\\D", ""), Field.Store.NO));
+        doc.add(new SortedDocValuesField(ORDEM, new BytesRef(TextoNormalizador.normalizar(nome))));
+        return doc;
+    }
+
+    private static String valor(String campo) {
+        return campo != null ? campo : "";
+    }
+
+    private static Analyzer analisador(boolean radical) {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String campo) {
+                Tokenizer tokenizer = new StandardTokenizer();
+                TokenStream fluxo = new LowerCaseFilter(tokenizer);
+                fluxo = new StopFilter(fluxo, BrazilianAnalyzer.getDefaultStopSet());
+                fluxo = new ASCIIFoldingFilter(fluxo);
+                if (radical) {
+                    fluxo = new BrazilianStemFilter(fluxo);
+                }
+                return new TokenStreamComponents(tokenizer, fluxo);
+            }
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória das consultas de CEP, indexado pelo CEP normalizado (8 dígitos) como int num {@link MapaIntLru},
+ * sem caixa de Integer por chave; cheio, remove a entrada usada há mais tempo.
+ * Respostas válidas ficam {@code ttl}, respostas "não encontrado" ficam {@code ttlNegativo};
+ * depois disso a entrada ainda é servida por {@code janelaObsoleta} enquanto é revalidada em segundo plano.
+ * O carregador devolve um {@link CompletableFuture}, então nem a falta nem a revalidação bloqueiam quem consulta.
+ */
+@Component
+public class CepCache {
+
+    private final long ttlNanos;
+    private final long ttlNegativoNanos;
+    private final long janelaObsoletaNanos;
+    private final int tamanhoMaximo;
+    private final LongSupplier relogio;
+
+    private final MapaIntLru<Entrada> entradas;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder acertosObsoletos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    @Autowired
+    public CepCache(
+            @Value("${app.cep.cache.ttl:24h}") Duration ttl,
+            @Value("${app.cep.cache.ttl-negativo:10m}") Duration ttlNegativo,
+            @Value("${app.cep.cache.janela-obsoleta:1h}") Duration janelaObsoleta,
+            @Value("${app.cep.cache.tamanho-maximo:10000}") int tamanhoMaximo) {
+        this(ttl, ttlNegativo, janelaObsoleta, tamanhoMaximo, System::nanoTime);
+    }
+
+    CepCache(Duration ttl, Duration ttlNegativo, Duration janelaObsoleta, int tamanhoMaximo, LongSupplier relogio) {
+        this.ttlNanos = ttl.toNanos();
+        this.ttlNegativoNanos = ttlNegativo.toNanos();
+        this.janelaObsoletaNanos = janelaObsoleta.toNanos();
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.relogio = relogio;
+        this.entradas = new MapaIntLru<>(tamanhoMaximo);
+    }
+
+    /**
+     * Retorna o CEP do cache ou executa {@code carregador}. O carregador deve completar com exceção em falhas
+     * transitórias (rede, HTTP 5xx) para que elas não sejam armazenadas.
+     */
+    public CompletableFuture<CepDTO> buscar(int cep, Supplier<CompletableFuture<CepDTO>> carregador) {
+        long agora = relogio.getAsLong();
+        Entrada entrada;
+        synchronized (entradas) {
+            entrada = entradas.get(cep);
+        }
+
+        if (entrada != null) {
+            if (agora < entrada.expiraEm) {
+                acertos.increment();
+                return CompletableFuture.completedFuture(entrada.valor);
+            }
+            if (agora < entrada.expiraEm + janelaObsoletaNanos) {
+                acertosObsoletos.increment();
+                revalidar(cep, entrada, carregador);
+                return CompletableFuture.completedFuture(entrada.valor);
+            }
+        }
+
+        faltas.increment();
+        return carregador.get().thenApply(valor -> {
+            armazenar(cep, valor);
+            return valor;
+        });
+    }
+
+    public void armazenar(int cep, CepDTO valor) {
+        long ttl = valor.isValido() ? ttlNanos : ttlNegativoNanos;
+        Entrada entrada = new Entrada(valor, relogio.getAsLong() + ttl);
+        synchronized (entradas) {
+            if (entradas.put(cep, entrada)) {
+                remocoes.increment();
+            }
+        }
+    }
+
+    public void invalidar(int cep) {
+        synchronized (entradas) {
+            entradas.remove(cep);
+        }
+    }
+
+    public Stats stats() {
+        int tamanho;
+        synchronized (entradas) {
+            tamanho = entradas.size();
+        }
+        return new Stats(acertos.sum(), acertosObsoletos.sum(), faltas.sum(), remocoes.sum(), tamanho, tamanhoMaximo);
+    }
+
+    private void revalidar(int cep, Entrada entrada, Supplier<CompletableFuture<CepDTO>> carregador) {
+        if (!entrada.revalidando.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture<CepDTO> recarga;
+        try {
+            recarga = carregador.get();
+        } catch (RuntimeException e) {
+            recarga = CompletableFuture.failedFuture(e);
+        }
+        recarga.whenComplete((valor, erro) -> {
+            if (erro == null) {
+                armazenar(cep, valor);
+            } else {
+                // mantém o valor obsoleto; a próxima consulta tenta de novo
+                entrada.revalidando.set(false);
+            }
+        });
+    }
+
+    public record Stats(long acertos, long acertosObsoletos, long faltas, long remocoes, int tamanho, int tamanhoMaximo) {}
+
+    private static final class Entrada {
+        private final CepDTO valor;
+        private final long expiraEm;
+        private final AtomicBoolean revalidando = new AtomicBoolean();
+
+        private Entrada(CepDTO valor, long expiraEm) {
+            this.valor = valor;
+            this.expiraEm = expiraEm;
+        }
+    }
+
+    static int chave(String cepLimpo) {
+        return Integer.parseInt(cepLimpo);
+    }
+}
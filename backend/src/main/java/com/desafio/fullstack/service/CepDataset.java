@@ -0,0 +1,123 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Base de CEPs offline mapeada em memória ({@link FileChannel#map}). O arquivo é gerado pelo
+ * {@link CepDatasetConverter} e tem o formato:
+ * <pre>
+ * cabeçalho (16 bytes): magic "CEPD" | versão | quantidade | offset do pool
+ * registros (20 bytes cada, ordenados por CEP): cep | logradouro | bairro | cidade | uf
+ * pool de strings deduplicadas: tamanho (u16) + bytes UTF-8
+ * </pre>
+ * Os campos de texto dos registros são offsets relativos ao início do pool.
+ */
+@Slf4j
+@Component
+public class CepDataset {
+
+    static final int MAGIC = 0x43455044;
+    static final int VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 16;
+    static final int TAMANHO_REGISTRO = 20;
+
+    private final ByteBuffer dados;
+    private final int quantidade;
+    private final int inicioPool;
+    private final boolean modoOffline;
+
+    public CepDataset(
+            @Value("${app.cep.offline.arquivo:}") String arquivo,
+            @Value("${app.cep.offline.modo:false}") boolean modoOffline) {
+        this.modoOffline = modoOffline;
+
+        if (arquivo == null || arquivo.isBlank()) {
+            if (modoOffline) {
+                throw new IllegalStateException("app.cep.offline.modo=true exige app.cep.offline.arquivo");
+            }
+            this.dados = null;
+            this.quantidade = 0;
+            this.inicioPool = 0;
+            return;
+        }
+
+        try (FileChannel canal = FileChannel.open(Path.of(arquivo), StandardOpenOption.READ)) {
+            this.dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir a base de CEPs " + arquivo, e);
+        }
+
+        if (dados.getInt(0) != MAGIC || dados.getInt(4) != VERSAO) {
+            throw new IllegalStateException("Arquivo de CEPs inválido ou de versão incompatível: " + arquivo);
+        }
+        this.quantidade = dados.getInt(8);
+        this.inicioPool = dados.getInt(12);
+        log.info("Base de CEPs offline carregada: {} CEP(s) de {}", quantidade, arquivo);
+    }
+
+    public boolean isCarregado() {
+        return dados != null;
+    }
+
+    /** Quando ativo, o {@link CepService} responde somente por esta base, sem acessar a rede. */
+    public boolean isModoOffline() {
+        return modoOffline;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public Optional<CepDTO> buscar(int cep) {
+        if (dados == null) {
+            return Optional.empty();
+        }
+
+        int baixo = 0;
+        int alto = quantidade - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int posicao = TAMANHO_CABECALHO + meio * TAMANHO_REGISTRO;
+            int atual = dados.getInt(posicao);
+            if (atual < cep) {
+                baixo = meio + 1;
+            } else if (atual > cep) {
+                alto = meio - 1;
+            } else {
+                return Optional.of(montar(cep, posicao));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private CepDTO montar(int cep, int posicao) {
+        return CepDTO.builder()
+            .cep(String.format("%08d", cep))
+            .logradouro(texto(dados.getInt(posicao + 4)))
+            .bairro(texto(dados.getInt(posicao + 8)))
+            .cidade(texto(dados.getInt(posicao + 12)))
+            .uf(texto(dados.getInt(posicao + 16)))
+            .valido(true)
+            .build();
+    }
+
+    private String texto(int offset) {
+        int posicao = inicioPool + offset;
+        int tamanho = Short.toUnsignedInt(dados.getShort(posicao));
+        byte[] bytes = new byte[tamanho];
+        dados.get(posicao + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
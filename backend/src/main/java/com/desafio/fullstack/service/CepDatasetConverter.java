@@ -0,0 +1,129 @@
+package com.desafio.fullstack.service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Converte um CSV de CEPs ({@code cep;logradouro;bairro;cidade;uf}) para o formato binário lido pelo
+ * {@link CepDataset}. Uso:
+ * <pre>
+ * java -cp target/classes com.desafio.fullstack.service.CepDatasetConverter ceps.csv ceps.bin [separador]
+ * </pre>
+ * Uma linha de cabeçalho é ignorada se o primeiro campo não for numérico. CEPs repetidos: vale a última linha.
+ */
+public final class CepDatasetConverter {
+
+    private CepDatasetConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CepDatasetConverter <entrada.csv> <saida.bin> [separador]");
+            System.exit(1);
+        }
+        char separador = args.length > 2 ? args[2].charAt(0) : ';';
+        int total = converter(Path.of(args[0]), Path.of(args[1]), separador);
+        System.out.println(total + " CEP(s) gravados em " + args[1]);
+    }
+
+    public static int converter(Path csv, Path destino, char separador) throws IOException {
+        TreeMap<Integer, String[]> registros = new TreeMap<>();
+
+        try (BufferedReader leitor = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                String[] campos = separar(linha, separador);
+                String cep = campos[0].replaceAll("\\D", "");
+                if (cep.length() != 8 || campos.length < 5) {
+                    continue;
+                }
+                registros.put(Integer.parseInt(cep), new String[] {campos[1], campos[2], campos[3], campos[4]});
+            }
+        }
+
+        Map<String, Integer> offsets = new HashMap<>();
+        List<byte[]> pool = new ArrayList<>();
+        int[] tamanhoPool = {0};
+        int[][] referencias = new int[registros.size()][];
+        int[] ceps = new int[registros.size()];
+
+        int i = 0;
+        for (Map.Entry<Integer, String[]> registro : registros.entrySet()) {
+            ceps[i] = registro.getKey();
+            String[] textos = registro.getValue();
+            int[] refs = new int[textos.length];
+            for (int j = 0; j < textos.length; j++) {
+                refs[j] = offsets.computeIfAbsent(textos[j].trim(), texto -> {
+                    byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+                    if (bytes.length > 0xFFFF) {
+                        throw new IllegalArgumentException("Texto muito longo na base de CEPs: " + texto.substring(0, 40));
+                    }
+                    int offset = tamanhoPool[0];
+                    pool.add(bytes);
+                    tamanhoPool[0] += 2 + bytes.length;
+                    return offset;
+                });
+            }
+            referencias[i++] = refs;
+        }
+
+        int inicioPool = CepDataset.TAMANHO_CABECALHO + ceps.length * CepDataset.TAMANHO_REGISTRO;
+        try (OutputStream arquivo = Files.newOutputStream(destino);
+             DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(arquivo, 1 << 16))) {
+            saida.writeInt(CepDataset.MAGIC);
+            saida.writeInt(CepDataset.VERSAO);
+            saida.writeInt(ceps.length);
+            saida.writeInt(inicioPool);
+            for (int k = 0; k < ceps.length; k++) {
+                saida.writeInt(ceps[k]);
+                for (int ref : referencias[k]) {
+                    saida.writeInt(ref);
+                }
+            }
+            for (byte[] bytes : pool) {
+                saida.writeShort(bytes.length);
+                saida.write(bytes);
+            }
+        }
+        return ceps.length;
+    }
+
+    // separa respeitando aspas duplas, sem suportar quebras de linha dentro de campos
+    static String[] separar(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (c == '"') {
+                if (aspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else {
+                    aspas = !aspas;
+                }
+            } else if (c == separador && !aspas) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos.toArray(new String[0]);
+    }
+}
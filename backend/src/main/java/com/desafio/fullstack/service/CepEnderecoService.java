@@ -0,0 +1,93 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.entity.CepEndereco;
+import com.desafio.fullstack.repository.CepEnderecoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Tabela de endereços por CEP compartilhada entre as réplicas. É consultada antes dos provedores
+ * externos e alimentada com as respostas válidas deles. Uma linha gravada há mais de {@code validade} volta
+ * marcada como vencida: quem consulta renova pelos provedores e só usa a cópia antiga se eles estiverem fora.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CepEnderecoService {
+
+    private final CepEnderecoRepository cepEnderecoRepository;
+    private final TransactionOperations transactionOperations;
+
+    @Value("${app.cep.persistencia.semear-na-inicializacao:true}")
+    private boolean semearNaInicializacao;
+
+    @Value("${app.cep.persistencia.validade:24h}")
+    private Duration validade;
+
+    public record Salvo(CepDTO endereco, boolean vencido) {
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Salvo> buscar(String cep) {
+        LocalDateTime limite = LocalDateTime.now().minus(validade);
+        return cepEnderecoRepository.findById(cep)
+            .map(e -> new Salvo(toDTO(e), e.getAtualizadoEm().isBefore(limite)));
+    }
+
+    // transação própria: uma falha aqui (ex.: outra réplica gravou o mesmo CEP) não pode derrubar a escrita do chamador
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void gravar(CepDTO cep) {
+        if (!cep.isValido() || cep.getUf() == null || cep.getUf().isBlank()) {
+            return;
+        }
+        cepEnderecoRepository.save(CepEndereco.builder()
+            .cep(cep.getCep())
+            .logradouro(cep.getLogradouro())
+            .bairro(cep.getBairro())
+            .cidade(cep.getCidade())
+            .uf(cep.getUf())
+            // endereço igual ao gravado também renova a data, senão a linha continuaria vencida
+            .atualizadoEm(LocalDateTime.now())
+            .build());
+    }
+
+    // a transação fica dentro do try: se o INSERT falhar (ex.: outra réplica semeando o mesmo CEP ao mesmo tempo),
+    // o rollback termina aqui e não derruba a inicialização
+    @EventListener(ApplicationReadyEvent.class)
+    public void semear() {
+        if (!semearNaInicializacao) {
+            return;
+        }
+        try {
+            Integer inseridos = transactionOperations.execute(status -> cepEnderecoRepository.semearDeEnderecosCadastrados());
+            log.info("Tabela cep_enderecos semeada com {} CEP(s) de empresas e fornecedores", inseridos);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Não foi possível semear cep_enderecos: {}", e.getMessage());
+        }
+    }
+
+    private CepDTO toDTO(CepEndereco e) {
+        return CepDTO.builder()
+            .cep(e.getCep())
+            .uf(e.getUf())
+            .cidade(e.getCidade())
+            .bairro(e.getBairro())
+            .logradouro(e.getLogradouro())
+            .valido(true)
+            .build();
+    }
+}
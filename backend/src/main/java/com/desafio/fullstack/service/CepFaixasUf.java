@@ -0,0 +1,77 @@
+package com.desafio.fullstack.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Faixas de CEP dos Correios por UF, como intervalos ordenados de int com busca binária. Serve para descartar
+ * CEPs que não existem sem ir à rede e para dar a UF provisória de um CEP quando os provedores estão fora.
+ */
+@Component
+public class CepFaixasUf {
+
+    // início, fim e UF, em ordem crescente e sem sobreposição
+    private static final Object[][] FAIXAS = {
+        {1000000, 19999999, "SP"},
+        {20000000, 28999999, "RJ"},
+        {29000000, 29999999, "ES"},
+        {30000000, 39999999, "MG"},
+        {40000000, 48999999, "BA"},
+        {49000000, 49999999, "SE"},
+        {50000000, 56999999, "PE"},
+        {57000000, 57999999, "AL"},
+        {58000000, 58999999, "PB"},
+        {59000000, 59999999, "RN"},
+        {60000000, 63999999, "CE"},
+        {64000000, 64999999, "PI"},
+        {65000000, 65999999, "MA"},
+        {66000000, 68899999, "PA"},
+        {68900000, 68999999, "AP"},
+        {69000000, 69299999, "AM"},
+        {69300000, 69399999, "RR"},
+        {69400000, 69899999, "AM"},
+        {69900000, 69999999, "AC"},
+        {70000000, 72799999, "DF"},
+        {72800000, 72999999, "GO"},
+        {73000000, 73699999, "DF"},
+        {73700000, 76799999, "GO"},
+        {76800000, 76999999, "RO"},
+        {77000000, 77999999, "TO"},
+        {78000000, 78899999, "MT"},
+        {78900000, 78999999, "RO"},
+        {79000000, 79999999, "MS"},
+        {80000000, 87999999, "PR"},
+        {88000000, 89999999, "SC"},
+        {90000000, 99999999, "RS"},
+    };
+
+    private final int[] inicios = new int[FAIXAS.length];
+    private final int[] fins = new int[FAIXAS.length];
+    private final String[] ufs = new String[FAIXAS.length];
+
+    public CepFaixasUf() {
+        for (int i = 0; i < FAIXAS.length; i++) {
+            inicios[i] = (int) FAIXAS[i][0];
+            fins[i] = (int) FAIXAS[i][1];
+            ufs[i] = (String) FAIXAS[i][2];
+        }
+    }
+
+    /** UF da faixa que contém o CEP (8 dígitos como int), ou vazio se nenhuma faixa contém. */
+    public Optional<String> uf(int cep) {
+        int i = Arrays.binarySearch(inicios, cep);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        if (i < 0 || cep > fins[i]) {
+            return Optional.empty();
+        }
+        return Optional.of(ufs[i]);
+    }
+
+    public boolean existe(int cep) {
+        return uf(cep).isPresent();
+    }
+}
@@ -0,0 +1,50 @@
+package com.desafio.fullstack.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Define quanto esperar pelo provedor primário antes de disparar o secundário em paralelo.
+ * Com {@code app.cep.hedge.atraso=auto} o atraso acompanha o p95 observado do primário,
+ * limitado a [{@code atraso-minimo}, {@code atraso-maximo}]; {@code 0} dispara os dois de imediato.
+ */
+@Component
+public class CepHedgePolicy {
+
+    private static final int AMOSTRAS_MINIMAS = 20;
+
+    private final Duration atrasoFixo;
+    private final Duration atrasoInicial;
+    private final Duration atrasoMinimo;
+    private final Duration atrasoMaximo;
+    private final double percentil;
+
+    @Autowired
+    public CepHedgePolicy(
+            @Value("${app.cep.hedge.atraso:auto}") String atraso,
+            @Value("${app.cep.hedge.atraso-inicial:300ms}") Duration atrasoInicial,
+            @Value("${app.cep.hedge.atraso-minimo:50ms}") Duration atrasoMinimo,
+            @Value("${app.cep.hedge.atraso-maximo:2s}") Duration atrasoMaximo,
+            @Value("${app.cep.hedge.percentil:0.95}") double percentil) {
+        this.atrasoFixo = "auto".equalsIgnoreCase(atraso.trim()) ? null : DurationStyle.detectAndParse(atraso.trim());
+        this.atrasoInicial = atrasoInicial;
+        this.atrasoMinimo = atrasoMinimo;
+        this.atrasoMaximo = atrasoMaximo;
+        this.percentil = percentil;
+    }
+
+    public Duration atraso(JanelaLatencia latenciaPrimario) {
+        if (atrasoFixo != null) {
+            return atrasoFixo;
+        }
+        if (latenciaPrimario.quantidade() < AMOSTRAS_MINIMAS) {
+            return atrasoInicial;
+        }
+        long observado = latenciaPrimario.percentil(percentil);
+        return Duration.ofMillis(Math.max(atrasoMinimo.toMillis(), Math.min(observado, atrasoMaximo.toMillis())));
+    }
+}
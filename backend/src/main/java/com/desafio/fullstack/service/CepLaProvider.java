@@ -0,0 +1,61 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@Component
+@Order(1)
+public class CepLaProvider extends HttpCepProvider {
+
+    public static final String NOME = "cep.la";
+
+    private final String url;
+
+    public CepLaProvider(@Qualifier("cepExecutor") Executor executor,
+                         @Value("${app.cep.provedores.cep-la.url:http://cep.la/}") String url) {
+        super(executor);
+        this.url = comBarra(url);
+    }
+
+    @Override
+    public String getNome() {
+        return NOME;
+    }
+
+    @Override
+    public CompletableFuture<CepDTO> consultar(String cep, Duration timeout) {
+        return enviar(HttpRequest.newBuilder()
+            .uri(URI.create(url + cep))
+            .header("Accept", "application/json")
+            .timeout(timeout)
+            .GET()
+            .build(), response -> interpretar(cep, response));
+    }
+
+    // 5xx e 429 são falha do provedor; os demais status sem corpo útil contam como "não encontrado"
+    private CepDTO interpretar(String cep, HttpResponse<CepRespostaParser.Campos> response) {
+        if (response.statusCode() == 429) {
+            throw limiteExcedido(NOME, response);
+        }
+        if (response.statusCode() >= 500) {
+            throw new CepIndisponivelException("Erro ao consultar cep.la: HTTP " + response.statusCode());
+        }
+        CepRespostaParser.Campos campos = response.body();
+        if (campos != null && campos.temUf()) {
+            return endereco(cep, campos);
+        }
+
+        return CepDTO.builder().cep(cep).valido(false).mensagem("CEP não encontrado na API cep.la").build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.desafio.fullstack.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Cria o {@link LimitadorTaxa} de cada provedor de CEP a partir de {@code app.cep.limite.*}. Com
+ * {@code distribuido=true} os tokens vêm do {@link BaldeTokensDistribuido}, em lotes de {@code lote-distribuido}
+ * reservados de forma assíncrona no {@code cepBancoExecutor} ({@link ReabastecimentoDistribuido}), e a taxa passa a
+ * valer para todas as réplicas juntas.
+ */
+@Component
+public class CepLimitadores {
+
+    private final double porSegundo;
+    private final double rajada;
+    private final int tamanhoFila;
+    private final Duration esperaMaxima;
+    private final boolean distribuido;
+    private final int loteDistribuido;
+    private final BaldeTokensDistribuido baldeDistribuido;
+    private final ScheduledExecutorService agendador;
+    private final Executor bancoExecutor;
+
+    public CepLimitadores(
+            @Value("${app.cep.limite.por-segundo:20}") double porSegundo,
+            @Value("${app.cep.limite.rajada:40}") double rajada,
+            @Value("${app.cep.limite.fila:200}") int tamanhoFila,
+            @Value("${app.cep.limite.espera-maxima:2s}") Duration esperaMaxima,
+            @Value("${app.cep.limite.distribuido:false}") boolean distribuido,
+            @Value("${app.cep.limite.lote-distribuido:5}") int loteDistribuido,
+            BaldeTokensDistribuido baldeDistribuido,
+            @Qualifier("cepLimiteAgendador") ScheduledExecutorService agendador,
+            @Qualifier("cepBancoExecutor") Executor bancoExecutor) {
+        this.porSegundo = porSegundo;
+        this.rajada = rajada;
+        this.tamanhoFila = tamanhoFila;
+        this.esperaMaxima = esperaMaxima;
+        this.distribuido = distribuido;
+        this.loteDistribuido = loteDistribuido;
+        this.baldeDistribuido = baldeDistribuido;
+        this.agendador = agendador;
+        this.bancoExecutor = bancoExecutor;
+    }
+
+    public LimitadorTaxa criar(String provedor) {
+        if (porSegundo <= 0) {
+            return LimitadorTaxa.semLimite(provedor);
+        }
+        if (!distribuido) {
+            return new LimitadorTaxa(provedor, porSegundo, rajada, tamanhoFila, esperaMaxima,
+                LimitadorTaxa.local(porSegundo, System::nanoTime), agendador, System::nanoTime);
+        }
+        // localmente só o lote retirado; a rajada configurada é a capacidade do balde compartilhado
+        ReabastecimentoDistribuido reabastecimento = new ReabastecimentoDistribuido(provedor, baldeDistribuido,
+            loteDistribuido, porSegundo, rajada, bancoExecutor);
+        LimitadorTaxa limitador = new LimitadorTaxa(provedor, porSegundo, loteDistribuido, tamanhoFila, esperaMaxima,
+            reabastecimento, agendador, System::nanoTime);
+        reabastecimento.aoReceber(() -> agendador.execute(limitador::drenar));
+        return limitador;
+    }
+}
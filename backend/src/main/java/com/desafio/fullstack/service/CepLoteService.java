@@ -0,0 +1,123 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.dto.CepLoteDTO;
+import com.desafio.fullstack.enums.StatusConsultaCep;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Resolve um lote de CEPs em paralelo e escreve uma linha NDJSON por CEP, na ordem em que as consultas terminam.
+ * As consultas usam {@link CepService#resolverAsync}, sem uma thread presa por CEP, e cada lote mantém no máximo
+ * {@code app.cep.lote.em-andamento} delas em aberto: o próximo CEP só sai quando um resultado é escrito, então um
+ * lote grande não toma a vez dos outros lotes nem das consultas avulsas.
+ */
+@Service
+public class CepLoteService {
+
+    private final CepService cepService;
+    private final ObjectMapper objectMapper;
+    private final int emAndamento;
+
+    public CepLoteService(CepService cepService, ObjectMapper objectMapper,
+                          @Value("${app.cep.lote.em-andamento:16}") int emAndamento) {
+        this.cepService = cepService;
+        this.objectMapper = objectMapper;
+        this.emAndamento = emAndamento;
+    }
+
+    public void resolver(List<String> ceps, OutputStream saida) throws IOException {
+        BlockingQueue<CepLoteDTO.Resultado> concluidos = new LinkedBlockingQueue<>();
+        List<CompletableFuture<?>> consultas = new ArrayList<>();
+        Set<String> unicos = new LinkedHashSet<>();
+        int abertas = 0;
+
+        try {
+            for (String cep : ceps) {
+                String cepLimpo = cep == null ? "" : cep.replaceAll("\\D", "");
+                if (cepLimpo.length() != 8) {
+                    escrever(saida, CepLoteDTO.Resultado.builder()
+                        .cep(cep)
+                        .status(StatusConsultaCep.INVALIDO)
+                        .mensagem("CEP deve conter 8 dígitos")
+                        .build());
+                } else if (unicos.add(cepLimpo)) {
+                    if (abertas == emAndamento) {
+                        saida.flush();
+                        escrever(saida, concluidos.take());
+                        abertas--;
+                    }
+                    abertas++;
+                    consultas.add(consultar(cepLimpo).thenAccept(concluidos::add));
+                }
+            }
+            saida.flush();
+
+            for (; abertas > 0; abertas--) {
+                escrever(saida, concluidos.take());
+                saida.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // cliente desconectou ou a thread foi interrompida: nenhum CEP novo é disparado e as respostas pendentes
+            // são descartadas
+            consultas.forEach(c -> c.cancel(true));
+        }
+    }
+
+    private CompletableFuture<CepLoteDTO.Resultado> consultar(String cepLimpo) {
+        CompletableFuture<CepDTO> consulta;
+        try {
+            consulta = cepService.resolverAsync(cepLimpo);
+        } catch (RuntimeException e) {
+            consulta = CompletableFuture.failedFuture(e);
+        }
+        return consulta.handle((endereco, erro) -> erro == null ? resultado(cepLimpo, endereco) : falha(cepLimpo, erro));
+    }
+
+    private static CepLoteDTO.Resultado resultado(String cepLimpo, CepDTO endereco) {
+        if (endereco.isValido()) {
+            return CepLoteDTO.Resultado.builder().cep(cepLimpo).status(StatusConsultaCep.OK).endereco(endereco).build();
+        }
+        return CepLoteDTO.Resultado.builder()
+            .cep(cepLimpo)
+            .status(StatusConsultaCep.NAO_ENCONTRADO)
+            .mensagem(endereco.getMensagem())
+            .build();
+    }
+
+    private static CepLoteDTO.Resultado falha(String cepLimpo, Throwable erro) {
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+        if (causa instanceof CepIndisponivelException) {
+            return CepLoteDTO.Resultado.builder()
+                .cep(cepLimpo)
+                .status(StatusConsultaCep.ERRO)
+                .mensagem("Não foi possível validar o CEP: " + causa.getMessage())
+                .build();
+        }
+        return CepLoteDTO.Resultado.builder()
+            .cep(cepLimpo)
+            .status(StatusConsultaCep.ERRO)
+            .mensagem("Erro inesperado ao consultar o CEP")
+            .build();
+    }
+
+    private void escrever(OutputStream saida, CepLoteDTO.Resultado resultado) throws IOException {
+        saida.write(objectMapper.writeValueAsBytes(resultado));
+        saida.write('\n');
+    }
+}
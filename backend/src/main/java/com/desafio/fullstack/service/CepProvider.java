@@ -0,0 +1,21 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Provedor externo de CEP. O {@link CepRoteador} decide a ordem em que os provedores são consultados;
+ * a preferência inicial, antes de haver medições, segue o {@link org.springframework.core.annotation.Order}.
+ */
+public interface CepProvider {
+
+    String getNome();
+
+    /**
+     * Consulta um CEP já normalizado (8 dígitos). "Não encontrado" completa com um {@link CepDTO} inválido;
+     * falhas de rede ou HTTP completam com exceção. Cancelar o futuro cancela a requisição em andamento.
+     */
+    CompletableFuture<CepDTO> consultar(String cep, Duration timeout);
+}
@@ -0,0 +1,222 @@
+package com.desafio.fullstack.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Lê as respostas do cep.la e do ViaCEP com o parser não bloqueante do Jackson, alimentado com os pedaços do corpo
+ * à medida que chegam, guardando só uf, cidade/localidade, bairro, logradouro e erro. Sem juntar o corpo num
+ * {@code byte[]} ou String e sem árvore de {@code JsonNode}. Se o corpo for um array (cep.la), vale o primeiro objeto.
+ */
+final class CepRespostaParser {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    static final Campos VAZIO = new Campos(null, null, null, null, false);
+
+    private CepRespostaParser() {
+    }
+
+    /**
+     * Corpo só é lido em HTTP 200; nos demais status ele é descartado e o corpo da resposta vem {@code null}.
+     */
+    static HttpResponse.BodyHandler<Campos> bodyHandler() {
+        return info -> info.statusCode() == 200
+            ? new Assinante()
+            : HttpResponse.BodySubscribers.replacing(null);
+    }
+
+    static Campos ler(byte[] corpo) throws IOException {
+        try (JsonParser parser = JSON.createNonBlockingByteBufferParser()) {
+            Leitura leitura = new Leitura(parser);
+            leitura.alimentar(ByteBuffer.wrap(corpo));
+            return leitura.concluir();
+        }
+    }
+
+    // o parser fica em NOT_AVAILABLE quando o pedaço acaba no meio de um token; o resto vem no próximo pedaço
+    private static final class Leitura {
+
+        private final JsonParser parser;
+        private int profundidade;
+        private int nivelObjeto = -1;
+        private boolean lido;
+        private String campo;
+
+        private String uf;
+        private String cidade;
+        private String bairro;
+        private String logradouro;
+        private boolean erro;
+
+        Leitura(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        void alimentar(ByteBuffer pedaco) throws IOException {
+            if (lido) {
+                return;
+            }
+            ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(pedaco);
+            drenar();
+        }
+
+        Campos concluir() throws IOException {
+            if (!lido) {
+                parser.getNonBlockingInputFeeder().endOfInput();
+                drenar();
+            }
+            if (nivelObjeto < 0) {
+                return VAZIO;
+            }
+            if (!lido) {
+                throw new JsonParseException(parser, "Fim inesperado do corpo da resposta do CEP");
+            }
+            return new Campos(uf, cidade, bairro, logradouro, erro);
+        }
+
+        private void drenar() throws IOException {
+            JsonToken token;
+            while (!lido && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                consumir(token);
+            }
+        }
+
+        private void consumir(JsonToken token) throws IOException {
+            if (nivelObjeto < 0) {
+                if (token == JsonToken.START_ARRAY && profundidade == 0) {
+                    profundidade = 1;
+                } else if (token == JsonToken.START_OBJECT) {
+                    nivelObjeto = ++profundidade;
+                } else {
+                    lido = true;
+                }
+                return;
+            }
+            switch (token) {
+                case FIELD_NAME -> {
+                    if (profundidade == nivelObjeto) {
+                        campo = parser.currentName();
+                    }
+                }
+                case START_OBJECT, START_ARRAY -> {
+                    if (profundidade++ == nivelObjeto) {
+                        atribuir(token, null);
+                    }
+                }
+                case END_OBJECT, END_ARRAY -> lido = profundidade-- == nivelObjeto;
+                default -> {
+                    if (profundidade == nivelObjeto) {
+                        atribuir(token, token == JsonToken.VALUE_NULL ? null : parser.getText());
+                    }
+                }
+            }
+        }
+
+        // valor que não é escalar conta como ausente
+        private void atribuir(JsonToken token, String texto) {
+            switch (campo) {
+                case "uf" -> uf = texto;
+                case "cidade", "localidade" -> cidade = texto;
+                case "bairro" -> bairro = texto;
+                case "logradouro" -> logradouro = texto;
+                case "erro" -> erro = token == JsonToken.VALUE_TRUE
+                    || (token == JsonToken.VALUE_STRING && "true".equalsIgnoreCase(texto));
+                default -> {
+                }
+            }
+        }
+    }
+
+    // o HttpClient entrega os pedaços no cepExecutor; o parse de cada um não bloqueia esperando o próximo
+    private static final class Assinante implements HttpResponse.BodySubscriber<Campos> {
+
+        private final CompletableFuture<Campos> resultado = new CompletableFuture<>();
+        private final JsonParser parser;
+        private final Leitura leitura;
+        private Flow.Subscription subscription;
+
+        Assinante() {
+            try {
+                this.parser = JSON.createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            this.leitura = new Leitura(parser);
+        }
+
+        @Override
+        public CompletionStage<Campos> getBody() {
+            return resultado;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        // depois do objeto lido o restante do corpo é só consumido, para a conexão voltar ao pool
+        @Override
+        public void onNext(List<ByteBuffer> pedacos) {
+            try {
+                for (ByteBuffer pedaco : pedacos) {
+                    leitura.alimentar(pedaco);
+                }
+            } catch (IOException e) {
+                subscription.cancel();
+                falhar(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable erro) {
+            falhar(erro);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                resultado.complete(leitura.concluir());
+            } catch (IOException e) {
+                falhar(e);
+                return;
+            }
+            fechar();
+        }
+
+        private void falhar(Throwable erro) {
+            resultado.completeExceptionally(erro);
+            fechar();
+        }
+
+        // parser não bloqueante não tem recurso externo; fechar só libera os buffers
+        private void fechar() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                resultado.completeExceptionally(e);
+            }
+        }
+    }
+
+    record Campos(String uf, String cidade, String bairro, String logradouro, boolean erro) {
+
+        boolean temUf() {
+            return uf != null && !uf.isBlank();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.desafio.fullstack.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decide a ordem dos provedores em cada consulta: primeiro o de menor custo esperado (EWMA da latência dividida
+ * pela EWMA da taxa de sucesso), circuitos abertos por último. Provedores ainda sem medição mantêm a ordem
+ * declarada, atrás dos já medidos. Em uma fração {@code app.cep.roteamento.exploracao} das consultas o segundo
+ * colocado vai na frente, para que um provedor recuperado volte a receber tráfego.
+ */
+@Component
+public class CepRoteador {
+
+    private final ProvedorCepMonitores monitores;
+    private final double exploracao;
+    private final DoubleSupplier sorteio;
+
+    @Autowired
+    public CepRoteador(ProvedorCepMonitores monitores,
+                       @Value("${app.cep.roteamento.exploracao:0.05}") double exploracao) {
+        this(monitores, exploracao, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    CepRoteador(ProvedorCepMonitores monitores, double exploracao, DoubleSupplier sorteio) {
+        this.monitores = monitores;
+        this.exploracao = exploracao;
+        this.sorteio = sorteio;
+    }
+
+    public List<ProvedorCepMonitor> rota() {
+        List<ProvedorCepMonitor> ordem = ordenados();
+        if (ordem.size() > 1 && exploracao > 0 && sorteio.getAsDouble() < exploracao && disponivel(ordem.get(1))) {
+            Collections.swap(ordem, 0, 1);
+        }
+        return ordem;
+    }
+
+    /** Ordem atual, sem exploração. */
+    public List<ProvedorCepMonitor> ordenados() {
+        // custo e estado mudam a cada chamada concluída: o sort usa uma foto deles
+        List<Candidato> candidatos = new ArrayList<>();
+        for (ProvedorCepMonitor monitor : monitores.todos()) {
+            candidatos.add(new Candidato(monitor, disponivel(monitor), monitor.custo()));
+        }
+        // sort é estável: empates, inclusive "sem medição", ficam na ordem declarada
+        candidatos.sort(Comparator.comparing((Candidato c) -> !c.disponivel()).thenComparingDouble(Candidato::custo));
+
+        List<ProvedorCepMonitor> ordem = new ArrayList<>(candidatos.size());
+        for (Candidato candidato : candidatos) {
+            ordem.add(candidato.monitor());
+        }
+        return ordem;
+    }
+
+    public List<ProvedorCepMonitor> todos() {
+        return monitores.todos();
+    }
+
+    private record Candidato(ProvedorCepMonitor monitor, boolean disponivel, double custo) {}
+
+    private static boolean disponivel(ProvedorCepMonitor monitor) {
+        return monitor.getCircuitBreaker().getEstado() != CircuitBreaker.Estado.ABERTO;
+    }
+}
@@ -1,125 +1,349 @@
 package com.desafio.fullstack.service;
 
 import com.desafio.fullstack.dto.CepDTO;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.desafio.fullstack.dto.CepProvedorDTO;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class CepService {
 
-    private static final String CEP_API_URL = "https://viacep.com.br/ws/%s/json/";
-    private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private final CepCache cepCache;
+    private final CepEnderecoService cepEnderecoService;
+    private final CepDataset cepDataset;
+    private final CepFaixasUf cepFaixasUf;
+    private final CepHedgePolicy cepHedgePolicy;
+    private final CepRoteador roteador;
+    private final CepSingleFlight cepSingleFlight;
+    private final Executor executor;
+    private final Executor bancoExecutor;
 
-    public CepService() {
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
-        this.objectMapper = new ObjectMapper();
+    public CepService(CepCache cepCache, CepEnderecoService cepEnderecoService, CepDataset cepDataset, CepFaixasUf cepFaixasUf,
+                      CepHedgePolicy cepHedgePolicy, CepRoteador roteador, CepSingleFlight cepSingleFlight,
+                      @Qualifier("cepExecutor") Executor executor, @Qualifier("cepBancoExecutor") Executor bancoExecutor) {
+        this.cepCache = cepCache;
+        this.cepEnderecoService = cepEnderecoService;
+        this.cepDataset = cepDataset;
+        this.cepFaixasUf = cepFaixasUf;
+        this.cepHedgePolicy = cepHedgePolicy;
+        this.roteador = roteador;
+        this.cepSingleFlight = cepSingleFlight;
+        this.executor = executor;
+        this.bancoExecutor = bancoExecutor;
     }
 
     public CepDTO consultarCep(String cep) {
+        return aguardar(consultarCepAsync(cep));
+    }
+
+    /**
+     * Versão não bloqueante de {@link #consultarCep}: nenhuma thread fica presa esperando os provedores.
+     */
+    public CompletableFuture<CepDTO> consultarCepAsync(String cep) {
         String cepLimpo = cep.replaceAll("\\D", "");
 
         if (cepLimpo.length() != 8) {
-            return CepDTO.builder()
+            return CompletableFuture.completedFuture(CepDTO.builder()
                 .cep(cep)
                 .valido(false)
                 .mensagem("CEP deve conter 8 dígitos")
-                .build();
+                .build());
         }
 
-        try {
-            CepDTO resultado = consultarCepLa(cepLimpo);
-            if (resultado.isValido()) {
-                return resultado;
-            }
-
-            return consultarViaCep(cepLimpo);
-        } catch (Exception e) {
-            try {
-                return consultarViaCep(cepLimpo);
-            } catch (Exception ex) {
+        // provedores fora: devolve a UF provisória da faixa do CEP, que a faixa já garante existir
+        return resolverAsync(cepLimpo).exceptionally(ex -> {
+            if (causa(ex) instanceof CepIndisponivelException e) {
                 return CepDTO.builder()
                     .cep(cepLimpo)
+                    .uf(cepFaixasUf.uf(CepCache.chave(cepLimpo)).orElse(null))
                     .valido(false)
-                    .mensagem("Não foi possível validar o CEP: " + ex.getMessage())
+                    .provisorio(true)
+                    .mensagem("Não foi possível validar o CEP: " + e.getMessage())
                     .build();
             }
-        }
+            throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
+        });
     }
 
-    private CepDTO consultarCepLa(String cep) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create("http://cep.la/" + cep))
-            .header("Accept", "application/json")
-            .timeout(Duration.ofSeconds(5))
-            .GET()
-            .build();
+    /**
+     * Resolve um CEP já normalizado (8 dígitos). Diferente de {@link #consultarCep}, falhas transitórias
+     * dos provedores são lançadas como {@link CepIndisponivelException} em vez de virarem CEP inválido.
+     */
+    public CepDTO resolver(String cepLimpo) {
+        return aguardar(resolverAsync(cepLimpo));
+    }
+
+    public CompletableFuture<CepDTO> resolverAsync(String cepLimpo) {
+        int chave = CepCache.chave(cepLimpo);
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (!cepFaixasUf.existe(chave)) {
+            return CompletableFuture.completedFuture(foraDasFaixas(cepLimpo));
+        }
 
-        if (response.statusCode() == 200 && !response.body().isBlank()) {
-            JsonNode node = objectMapper.readTree(response.body());
-            if (node.isArray() && node.size() > 0) {
-                node = node.get(0);
+        // base offline: resposta local, sem cache nem rede
+        if (cepDataset.isCarregado()) {
+            Optional<CepDTO> local = cepDataset.buscar(chave);
+            if (local.isPresent()) {
+                return CompletableFuture.completedFuture(local.get());
             }
-            if (node.has("uf") && !node.get("uf").asText().isBlank()) {
-                return CepDTO.builder()
-                    .cep(cep)
-                    .uf(node.path("uf").asText())
-                    .cidade(node.path("cidade").asText())
-                    .bairro(node.path("bairro").asText())
-                    .logradouro(node.path("logradouro").asText())
-                    .valido(true)
-                    .build();
+            if (cepDataset.isModoOffline()) {
+                return CompletableFuture.completedFuture(
+                    CepDTO.builder().cep(cepLimpo).valido(false).mensagem("CEP não encontrado na base offline").build());
             }
         }
 
-        return CepDTO.builder().cep(cep).valido(false).mensagem("CEP não encontrado na API cep.la").build();
+        return cepCache.buscar(chave, () -> cepSingleFlight.executar(chave, () -> carregar(cepLimpo)));
     }
 
-    private CepDTO consultarViaCep(String cep) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(String.format(CEP_API_URL, cep)))
-            .timeout(Duration.ofSeconds(5))
-            .GET()
+    /**
+     * Validação só local, sem rede: rejeita CEP mal formatado ou fora das faixas dos Correios e, nos demais,
+     * devolve a UF provisória. Usado quando o endereço completo vai ser preenchido depois.
+     */
+    public CepDTO consultarCepLocal(String cep) {
+        String cepLimpo = cep.replaceAll("\\D", "");
+        if (cepLimpo.length() != 8) {
+            return CepDTO.builder().cep(cep).valido(false).mensagem("CEP deve conter 8 dígitos").build();
+        }
+        Optional<String> uf = cepFaixasUf.uf(CepCache.chave(cepLimpo));
+        if (uf.isEmpty()) {
+            return foraDasFaixas(cepLimpo);
+        }
+        return CepDTO.builder()
+            .cep(cepLimpo)
+            .uf(uf.get())
+            .valido(false)
+            .provisorio(true)
+            .mensagem("Endereço pendente de validação")
             .build();
+    }
+
+    /**
+     * Consulta os provedores ignorando cache e cep_enderecos e atualiza os dois com a resposta. Usado para
+     * renovar endereços já gravados; renovações simultâneas do mesmo CEP compartilham a chamada, mas nunca
+     * aproveitam a de uma consulta comum, que pode responder do cache ou de cep_enderecos.
+     */
+    public CepDTO reconsultar(String cepLimpo) {
+        int chave = CepCache.chave(cepLimpo);
+        // chaves negativas no single-flight: as comuns vão de 0 a 99999999
+        CepDTO resultado = aguardar(cepSingleFlight.executar(-1 - chave,
+            () -> consultarProvedores(cepLimpo).thenApply(r -> gravarSeValido(cepLimpo, r))));
+        cepCache.armazenar(chave, resultado);
+        return resultado;
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    public CepCache.Stats estatisticasCache() {
+        return cepCache.stats();
+    }
 
-        if (response.statusCode() == 200) {
-            JsonNode node = objectMapper.readTree(response.body());
+    public List<CepProvedorDTO> statusProvedores() {
+        List<ProvedorCepMonitor> ordem = roteador.ordenados();
+        return roteador.todos().stream()
+            .map(m -> CepProvedorDTO.builder()
+                .nome(m.getNome())
+                .posicaoRota(ordem.indexOf(m) + 1)
+                .estado(m.getCircuitBreaker().getEstado().name())
+                .taxaFalha(m.getCircuitBreaker().getTaxaFalha())
+                .taxaLenta(m.getCircuitBreaker().getTaxaLenta())
+                .chamadasNaJanela(m.getCircuitBreaker().getChamadasNaJanela())
+                .timeoutMs(m.timeout().toMillis())
+                .latenciaP50Ms(m.getLatencia().percentil(0.50))
+                .latenciaP95Ms(m.getLatencia().percentil(0.95))
+                .latenciaP99Ms(m.getLatencia().percentil(0.99))
+                .latenciaEwmaMs(Math.round(m.getEwmaLatencia()))
+                .taxaSucessoEwma(m.getEwmaSucesso())
+                .histogramaLatenciaMs(m.getHistograma().faixas())
+                .chamadasNaFila(m.getLimitador().getNaFila())
+                .chamadasEnfileiradas(m.getLimitador().getEnfileiradas())
+                .chamadasRejeitadas(m.getLimitador().getRejeitadas())
+                .chamadasExpiradas(m.getLimitador().getExpiradas())
+                .build())
+            .collect(Collectors.toList());
+    }
 
-            if (node.has("erro") && node.get("erro").asBoolean()) {
-                return CepDTO.builder()
-                    .cep(cep)
-                    .valido(false)
-                    .mensagem("CEP não encontrado")
-                    .build();
+    // tabela compartilhada primeiro; provedores externos quando o CEP ainda não é conhecido ou a linha venceu
+    // (app.cep.persistencia.validade), e aí a cópia vencida só vale se os provedores estiverem fora.
+    // JDBC bloqueia, então a leitura roda no cepBancoExecutor, e não no cepExecutor que atende o HttpClient: banco
+    // lento não atrasa as respostas dos provedores
+    private CompletableFuture<CepDTO> carregar(String cep) {
+        return CompletableFuture.supplyAsync(() -> buscarSalvo(cep), bancoExecutor)
+            .thenCompose(salvo -> {
+                if (salvo.isPresent() && !salvo.get().vencido()) {
+                    return CompletableFuture.completedFuture(salvo.get().endereco());
+                }
+                CompletableFuture<CepDTO> consulta = consultarProvedores(cep)
+                    .thenApply(resultado -> gravarSeValido(cep, resultado));
+                if (salvo.isEmpty()) {
+                    return consulta;
+                }
+                return consulta.exceptionally(ex -> {
+                    if (causa(ex) instanceof CepIndisponivelException) {
+                        return salvo.get().endereco();
+                    }
+                    throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
+                });
+            });
+    }
+
+    // a gravação em cep_enderecos vai para o cepBancoExecutor e a resposta não espera por ela
+    private CepDTO gravarSeValido(String cep, CepDTO resultado) {
+        if (resultado.isValido()) {
+            try {
+                bancoExecutor.execute(() -> gravar(cep, resultado));
+            } catch (RejectedExecutionException e) {
+                log.warn("Gravação do CEP {} em cep_enderecos descartada: executor encerrado", cep);
             }
+        }
+        return resultado;
+    }
 
-            return CepDTO.builder()
-                .cep(cep)
-                .uf(node.path("uf").asText())
-                .cidade(node.path("localidade").asText())
-                .bairro(node.path("bairro").asText())
-                .logradouro(node.path("logradouro").asText())
-                .valido(true)
-                .build();
+    private void gravar(String cep, CepDTO resultado) {
+        try {
+            cepEnderecoService.gravar(resultado);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao gravar CEP {} em cep_enderecos: {}", cep, e.getMessage());
+        }
+    }
+
+    private Optional<CepEnderecoService.Salvo> buscarSalvo(String cep) {
+        try {
+            return cepEnderecoService.buscar(cep);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao ler cep_enderecos para {}: {}", cep, e.getMessage());
+            return Optional.empty();
         }
+    }
+
+    // respostas "não encontrado" são retornadas; falhas de rede/HTTP viram exceção e não entram no cache
+    private CompletableFuture<CepDTO> consultarProvedores(String cep) {
+        return new ConsultaHedge(cep).iniciar().handle((resultado, ex) -> {
+            if (ex == null) {
+                return resultado;
+            }
+            Throwable causa = causa(ex);
+            if (causa instanceof CepIndisponivelException indisponivel) {
+                throw indisponivel;
+            }
+            String mensagem = causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+            throw new CepIndisponivelException(mensagem, causa);
+        });
+    }
 
+    private static CepDTO foraDasFaixas(String cepLimpo) {
         return CepDTO.builder()
-            .cep(cep)
+            .cep(cepLimpo)
             .valido(false)
-            .mensagem("Erro ao consultar ViaCEP: HTTP " + response.statusCode())
+            .mensagem("CEP inexistente: fora das faixas de CEP dos Correios")
             .build();
     }
+
+    private static Throwable causa(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private static CepDTO aguardar(CompletableFuture<CepDTO> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (causa(e) instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Os provedores são consultados na ordem do {@link CepRoteador}. O segundo é disparado após o atraso de hedge
+     * ou assim que o primeiro falhar/não encontrar; os seguintes, quando o anterior falhar/não encontrar. Vale a
+     * primeira resposta válida e as demais requisições são canceladas. Se nenhuma for válida, prevalece a do
+     * provedor de menor preferência declarada (o ViaCEP), como na consulta sequencial.
+     */
+    private final class ConsultaHedge {
+
+        private final String cep;
+        private final List<ProvedorCepMonitor> rota;
+        private final List<CompletableFuture<CepDTO>> chamadas = new ArrayList<>();
+        private final CompletableFuture<CepDTO> resultado = new CompletableFuture<>();
+
+        private ConsultaHedge(String cep) {
+            this.cep = cep;
+            this.rota = roteador.rota();
+        }
+
+        synchronized CompletableFuture<CepDTO> iniciar() {
+            resultado.whenComplete((r, ex) -> cancelarPendentes());
+
+            disparar(0);
+
+            if (rota.size() > 1 && !resultado.isDone()) {
+                Duration atraso = cepHedgePolicy.atraso(rota.get(0).getLatencia());
+                if (atraso.isZero()) {
+                    disparar(1);
+                } else {
+                    CompletableFuture.delayedExecutor(atraso.toMillis(), TimeUnit.MILLISECONDS, executor)
+                        .execute(() -> disparar(1));
+                }
+            }
+            return resultado;
+        }
+
+        private synchronized void disparar(int indice) {
+            if (resultado.isDone() || indice != chamadas.size() || indice >= rota.size()) {
+                return;
+            }
+            CompletableFuture<CepDTO> chamada = rota.get(indice).consultar(cep);
+            chamadas.add(chamada);
+            chamada.whenComplete((resposta, erro) -> concluida(indice, resposta, erro));
+        }
+
+        private synchronized void concluida(int indice, CepDTO resposta, Throwable erro) {
+            if (resultado.isDone()) {
+                return;
+            }
+            if (erro == null && resposta.isValido()) {
+                resultado.complete(resposta);
+                return;
+            }
+            disparar(indice + 1);
+            if (chamadas.size() == rota.size() && chamadas.stream().allMatch(CompletableFuture::isDone)) {
+                concluirSemRespostaValida();
+            }
+        }
+
+        // rota está na ordem de custo; a resposta que prevalece é a do último provedor na ordem declarada
+        private void concluirSemRespostaValida() {
+            List<ProvedorCepMonitor> declarada = roteador.todos();
+            int escolhida = 0;
+            for (int i = 1; i < rota.size(); i++) {
+                if (declarada.indexOf(rota.get(i)) > declarada.indexOf(rota.get(escolhida))) {
+                    escolhida = i;
+                }
+            }
+            chamadas.get(escolhida).whenComplete((r, ex) -> {
+                if (ex != null) {
+                    resultado.completeExceptionally(causa(ex));
+                } else {
+                    resultado.complete(r);
+                }
+            });
+        }
+
+        private synchronized void cancelarPendentes() {
+            chamadas.forEach(chamada -> chamada.cancel(true));
+        }
+    }
 }
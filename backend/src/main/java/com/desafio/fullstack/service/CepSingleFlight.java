@@ -0,0 +1,80 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa consultas simultâneas do mesmo CEP: a primeira dispara o carregamento e as demais recebem o
+ * mesmo resultado, limitado por {@code app.cep.single-flight.timeout}. O futuro sai do mapa ao terminar, com
+ * sucesso ou erro, então uma falha só atinge quem já estava esperando por ela.
+ */
+@Component
+public class CepSingleFlight {
+
+    private final ConcurrentHashMap<Integer, CompletableFuture<CepDTO>> emAndamento = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    public CepSingleFlight(@Value("${app.cep.single-flight.timeout:8s}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public CompletableFuture<CepDTO> executar(int cep, Supplier<CompletableFuture<CepDTO>> carregador) {
+        CompletableFuture<CepDTO> novo = new CompletableFuture<>();
+        CompletableFuture<CepDTO> existente = emAndamento.putIfAbsent(cep, novo);
+
+        if (existente == null) {
+            novo.whenComplete((r, ex) -> emAndamento.remove(cep, novo));
+            try {
+                carregador.get().whenComplete((r, ex) -> {
+                    if (ex != null) {
+                        novo.completeExceptionally(causa(ex));
+                    } else {
+                        novo.complete(r);
+                    }
+                });
+            } catch (RuntimeException e) {
+                novo.completeExceptionally(e);
+            }
+            return novo;
+        }
+
+        return aguardar(existente);
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.size();
+    }
+
+    // cópia: o timeout de quem aguarda não pode completar o futuro compartilhado
+    private CompletableFuture<CepDTO> aguardar(CompletableFuture<CepDTO> futuro) {
+        CompletableFuture<CepDTO> espera = new CompletableFuture<>();
+        futuro.copy()
+            .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .whenComplete((r, ex) -> {
+                Throwable causa = ex == null ? null : causa(ex);
+                if (causa instanceof TimeoutException) {
+                    espera.completeExceptionally(
+                        new CepIndisponivelException("Tempo esgotado aguardando a consulta do CEP em andamento"));
+                } else if (causa != null) {
+                    espera.completeExceptionally(causa);
+                } else {
+                    espera.complete(r);
+                }
+            });
+        return espera;
+    }
+
+    private static Throwable causa(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+}
@@ -0,0 +1,159 @@
+package com.desafio.fullstack.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker com janela deslizante por contagem das últimas chamadas. Abre quando a taxa de falhas
+ * ou a taxa de chamadas lentas passa do limite; depois de {@code tempoAberto} libera algumas chamadas de
+ * teste (meio-aberto) e volta a fechar se elas forem bem-sucedidas.
+ */
+public class CircuitBreaker {
+
+    public enum Estado { FECHADO, ABERTO, MEIO_ABERTO }
+
+    private final int tamanhoJanela;
+    private final int chamadasMinimas;
+    private final double taxaFalhaLimite;
+    private final double taxaLentaLimite;
+    private final long chamadaLentaMillis;
+    private final long tempoAbertoNanos;
+    private final int chamadasMeioAberto;
+    private final LongSupplier relogio;
+
+    private final boolean[] falhas;
+    private final boolean[] lentas;
+    private int proxima;
+    private int registradas;
+    private int totalFalhas;
+    private int totalLentas;
+
+    private Estado estado = Estado.FECHADO;
+    private long abertoAte;
+    private int testesEmAndamento;
+    private int testesConcluidos;
+
+    public CircuitBreaker(int tamanhoJanela, int chamadasMinimas, double taxaFalhaLimite, double taxaLentaLimite,
+                          Duration chamadaLenta, Duration tempoAberto, int chamadasMeioAberto, LongSupplier relogio) {
+        this.tamanhoJanela = tamanhoJanela;
+        this.chamadasMinimas = chamadasMinimas;
+        this.taxaFalhaLimite = taxaFalhaLimite;
+        this.taxaLentaLimite = taxaLentaLimite;
+        this.chamadaLentaMillis = chamadaLenta.toMillis();
+        this.tempoAbertoNanos = tempoAberto.toNanos();
+        this.chamadasMeioAberto = chamadasMeioAberto;
+        this.relogio = relogio;
+        this.falhas = new boolean[tamanhoJanela];
+        this.lentas = new boolean[tamanhoJanela];
+    }
+
+    /** Reserva uma chamada; {@code false} quando o circuito está aberto e o provedor deve ser ignorado. */
+    public synchronized boolean permitir() {
+        if (estado == Estado.ABERTO) {
+            if (relogio.getAsLong() < abertoAte) {
+                return false;
+            }
+            transicionar(Estado.MEIO_ABERTO);
+        }
+        if (estado == Estado.MEIO_ABERTO) {
+            if (testesEmAndamento + testesConcluidos >= chamadasMeioAberto) {
+                return false;
+            }
+            testesEmAndamento++;
+        }
+        return true;
+    }
+
+    public synchronized void registrarSucesso(long millis) {
+        registrar(false, millis);
+    }
+
+    public synchronized void registrarFalha(long millis) {
+        registrar(true, millis);
+    }
+
+    /** Devolve uma reserva sem resultado (ex.: chamada cancelada pelo hedge). */
+    public synchronized void liberar() {
+        if (estado == Estado.MEIO_ABERTO && testesEmAndamento > 0) {
+            testesEmAndamento--;
+        }
+    }
+
+    public synchronized Estado getEstado() {
+        if (estado == Estado.ABERTO && relogio.getAsLong() >= abertoAte) {
+            return Estado.MEIO_ABERTO;
+        }
+        return estado;
+    }
+
+    public synchronized double getTaxaFalha() {
+        return registradas == 0 ? 0 : 100.0 * totalFalhas / registradas;
+    }
+
+    public synchronized double getTaxaLenta() {
+        return registradas == 0 ? 0 : 100.0 * totalLentas / registradas;
+    }
+
+    public synchronized int getChamadasNaJanela() {
+        return registradas;
+    }
+
+    private void registrar(boolean falha, long millis) {
+        boolean lenta = millis >= chamadaLentaMillis;
+
+        if (estado == Estado.MEIO_ABERTO) {
+            if (testesEmAndamento > 0) {
+                testesEmAndamento--;
+            }
+            testesConcluidos++;
+            adicionar(falha, lenta);
+            if (falha || lenta) {
+                transicionar(Estado.ABERTO);
+            } else if (testesConcluidos >= chamadasMeioAberto) {
+                transicionar(Estado.FECHADO);
+            }
+            return;
+        }
+
+        adicionar(falha, lenta);
+        if (estado == Estado.FECHADO && registradas >= chamadasMinimas
+                && (getTaxaFalha() >= taxaFalhaLimite || getTaxaLenta() >= taxaLentaLimite)) {
+            transicionar(Estado.ABERTO);
+        }
+    }
+
+    private void adicionar(boolean falha, boolean lenta) {
+        if (registradas == tamanhoJanela) {
+            totalFalhas -= falhas[proxima] ? 1 : 0;
+            totalLentas -= lentas[proxima] ? 1 : 0;
+        } else {
+            registradas++;
+        }
+        falhas[proxima] = falha;
+        lentas[proxima] = lenta;
+        totalFalhas += falha ? 1 : 0;
+        totalLentas += lenta ? 1 : 0;
+        proxima = (proxima + 1) % tamanhoJanela;
+    }
+
+    private void transicionar(Estado novo) {
+        estado = novo;
+        testesEmAndamento = 0;
+        testesConcluidos = 0;
+        if (novo == Estado.ABERTO) {
+            abertoAte = relogio.getAsLong() + tempoAbertoNanos;
+        } else if (novo == Estado.FECHADO) {
+            limparJanela();
+        }
+    }
+
+    private void limparJanela() {
+        Arrays.fill(falhas, false);
+        Arrays.fill(lentas, false);
+        proxima = 0;
+        registradas = 0;
+        totalFalhas = 0;
+        totalLentas = 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.desafio.fullstack.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Roda a consulta da página e a contagem ao mesmo tempo, em conexões separadas: a página na transação de quem
+ * chama, a contagem numa transação somente leitura em outra thread. No Postgres, com a transação da página em
+ * REPEATABLE READ, a contagem importa o snapshot exportado por ela (pg_export_snapshot / SET TRANSACTION SNAPSHOT)
+ * e as duas enxergam os mesmos dados; nos outros bancos cada uma lê o próprio snapshot. Sem thread livre, ou com
+ * menos de {@code conexoes-livres-minimas} conexões ociosas no pool, a contagem roda depois da página, na mesma
+ * transação.
+ */
+@Slf4j
+@Component
+public class ConsultaParalela {
+
+    public record Resultado<T>(Slice<T> pagina, long total) {
+    }
+
+    private final Executor executor;
+    private final TransactionOperations leitura;
+    private final JdbcTemplate jdbcTemplate;
+    private final IntSupplier conexoesLivres;
+    private final boolean habilitada;
+    private final Semaphore vagas;
+    private final int conexoesLivresMinimas;
+
+    private volatile Boolean postgres;
+
+    @Autowired
+    public ConsultaParalela(@Qualifier("listagemExecutor") Executor executor,
+                            PlatformTransactionManager transactionManager,
+                            JdbcTemplate jdbcTemplate,
+                            DataSource dataSource,
+                            @Value("${app.busca.paralela.habilitada:true}") boolean habilitada,
+                            @Value("${app.busca.paralela.threads:4}") int threads,
+                            @Value("${app.busca.paralela.conexoes-livres-minimas:2}") int conexoesLivresMinimas) {
+        this(executor, leitura(transactionManager), jdbcTemplate, conexoesLivres(dataSource), habilitada, threads,
+            conexoesLivresMinimas);
+    }
+
+    ConsultaParalela(Executor executor, TransactionOperations leitura, JdbcTemplate jdbcTemplate,
+                     IntSupplier conexoesLivres, boolean habilitada, int threads, int conexoesLivresMinimas) {
+        this.executor = executor;
+        this.leitura = leitura;
+        this.jdbcTemplate = jdbcTemplate;
+        this.conexoesLivres = conexoesLivres;
+        this.habilitada = habilitada;
+        this.vagas = new Semaphore(threads);
+        this.conexoesLivresMinimas = conexoesLivresMinimas;
+    }
+
+    public <T> Resultado<T> executar(Supplier<Slice<T>> conteudo, LongSupplier contagem) {
+        if (!habilitada || conexoesLivres.getAsInt() < conexoesLivresMinimas || !vagas.tryAcquire()) {
+            Slice<T> pagina = conteudo.get();
+            return new Resultado<>(pagina, contagem.getAsLong());
+        }
+
+        CompletableFuture<Long> total;
+        try {
+            String snapshot = exportarSnapshot();
+            total = CompletableFuture.supplyAsync(() -> leitura.execute(status -> {
+                if (snapshot != null) {
+                    jdbcTemplate.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'");
+                }
+                return contagem.getAsLong();
+            }), executor);
+        } catch (RejectedExecutionException e) {
+            vagas.release();
+            Slice<T> pagina = conteudo.get();
+            return new Resultado<>(pagina, contagem.getAsLong());
+        }
+        total.whenComplete((valor, erro) -> vagas.release());
+
+        // a transação da página só termina depois do join: o snapshot exportado continua válido para a contagem
+        Slice<T> pagina = conteudo.get();
+        try {
+            return new Resultado<>(pagina, total.join());
+        } catch (CompletionException e) {
+            log.warn("Contagem paralela falhou, contando na transação da página: {}", e.getCause().getMessage());
+            return new Resultado<>(pagina, contagem.getAsLong());
+        }
+    }
+
+    // null fora do Postgres ou sem transação REPEATABLE READ aberta (o snapshot não valeria para a página)
+    private String exportarSnapshot() {
+        Integer isolamento = TransactionSynchronizationManager.getCurrentTransactionIsolationLevel();
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || isolamento == null
+                || isolamento < TransactionDefinition.ISOLATION_REPEATABLE_READ || !postgres()) {
+            return null;
+        }
+        try {
+            return jdbcTemplate.queryForObject("SELECT pg_export_snapshot()", String.class);
+        } catch (DataAccessException e) {
+            log.debug("Snapshot não exportado: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean postgres() {
+        Boolean resultado = postgres;
+        if (resultado == null) {
+            String produto = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            resultado = produto != null && produto.toLowerCase().contains("postgres");
+            postgres = resultado;
+        }
+        return resultado;
+    }
+
+    private static TransactionOperations leitura(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    // conexões ociosas do Hikari; outros pools não limitam o paralelismo
+    private static IntSupplier conexoesLivres(DataSource dataSource) {
+        HikariDataSource hikari;
+        try {
+            hikari = dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            hikari = null;
+        }
+        if (hikari == null) {
+            return () -> Integer.MAX_VALUE;
+        }
+        HikariDataSource pool = hikari;
+        return () -> {
+            HikariPoolMXBean estado = pool.getHikariPoolMXBean();
+            return estado != null ? estado.getIdleConnections() : Integer.MAX_VALUE;
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package com.desafio.fullstack.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Total das listagens sem repetir o {@code COUNT(*)} a cada página. A contagem exata fica em cache por {@code ttl},
+ * pela tabela + filtro normalizado, e quando falta roda em paralelo com a página ({@link ConsultaParalela}). Sem
+ * filtro, tabelas acima de {@code limite-exato} linhas usam a estimativa do planejador (pg_class.reltuples no
+ * Postgres, ROW_COUNT_ESTIMATE no H2) e a resposta sai com {@code totalAproximado=true}. Na última página o total
+ * sai da própria página.
+ */
+@Slf4j
+@Component
+public class ContagemListagem {
+
+    public record Total(long valor, boolean aproximado) {
+    }
+
+    public record Pagina<T>(Slice<T> fatia, Total total) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConsultaParalela consultaParalela;
+    private final long ttlNanos;
+    private final int tamanhoMaximo;
+    private final long limiteExato;
+    private final LongSupplier relogio;
+
+    private final Map<String, Entrada> contagens;
+    private volatile String banco;
+
+    @Autowired
+    public ContagemListagem(JdbcTemplate jdbcTemplate,
+                            ConsultaParalela consultaParalela,
+                            @Value("${app.busca.contagem.ttl:30s}") Duration ttl,
+                            @Value("${app.busca.contagem.tamanho-maximo:1000}") int tamanhoMaximo,
+                            @Value("${app.busca.contagem.limite-exato:10000}") long limiteExato) {
+        this(jdbcTemplate, consultaParalela, ttl, tamanhoMaximo, limiteExato, System::nanoTime);
+    }
+
+    ContagemListagem(JdbcTemplate jdbcTemplate, ConsultaParalela consultaParalela, Duration ttl, int tamanhoMaximo,
+                     long limiteExato, LongSupplier relogio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.consultaParalela = consultaParalela;
+        this.ttlNanos = ttl.toNanos();
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.limiteExato = limiteExato;
+        this.relogio = relogio;
+        this.contagens = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > ContagemListagem.this.tamanhoMaximo;
+            }
+        };
+    }
+
+    /**
+     * Página e total da listagem de {@code tabela} com o {@code filtro} normalizado ("" = sem filtro). {@code exato}
+     * só é chamado quando o cache e a estimativa não bastam.
+     */
+    public <T> Pagina<T> ler(String tabela, String filtro, Supplier<Slice<T>> conteudo, LongSupplier exato) {
+        String chave = tabela + "|" + filtro;
+        long estimativa = filtro.isEmpty() ? estimativa(tabela) : -1;
+        Slice<T> fatia;
+        Total total;
+        if (estimativa >= limiteExato) {
+            fatia = conteudo.get();
+            // a página já mostrou que há pelo menos essas linhas
+            total = new Total(Math.max(estimativa, vistos(fatia) + (fatia.hasNext() ? 1 : 0)), true);
+        } else {
+            Long emCache = emCache(chave);
+            if (emCache != null) {
+                fatia = conteudo.get();
+                total = new Total(emCache, false);
+            } else {
+                ConsultaParalela.Resultado<T> resultado = consultaParalela.executar(conteudo, exato);
+                guardar(chave, resultado.total());
+                fatia = resultado.pagina();
+                total = new Total(resultado.total(), false);
+            }
+        }
+        return new Pagina<>(fatia, ultima(fatia) ? new Total(vistos(fatia), false) : total);
+    }
+
+    // página vazia além do fim não diz quantas linhas existem
+    private static boolean ultima(Slice<?> fatia) {
+        return !fatia.hasNext() && (fatia.hasContent() || !fatia.getPageable().isPaged()
+            || fatia.getPageable().getOffset() == 0);
+    }
+
+    private static long vistos(Slice<?> fatia) {
+        return fatia.getPageable().isPaged()
+            ? fatia.getPageable().getOffset() + fatia.getNumberOfElements()
+            : fatia.getNumberOfElements();
+    }
+
+    // gravações que mudam a quantidade de linhas descartam as contagens da tabela
+    public void invalidar(String tabela) {
+        synchronized (contagens) {
+            contagens.keySet().removeIf(chave -> chave.startsWith(tabela + "|"));
+        }
+    }
+
+    private Long emCache(String chave) {
+        synchronized (contagens) {
+            Entrada entrada = contagens.get(chave);
+            return entrada != null && relogio.getAsLong() - entrada.criadaEm < ttlNanos ? entrada.valor : null;
+        }
+    }
+
+    private void guardar(String chave, long valor) {
+        synchronized (contagens) {
+            contagens.put(chave, new Entrada(valor, relogio.getAsLong()));
+        }
+    }
+
+    // -1 quando o banco não tem estatística (Postgres antes do primeiro ANALYZE) ou não é suportado
+    long estimativa(String tabela) {
+        try {
+            String produto = banco();
+            if (produto.contains("postgres")) {
+                Long linhas = jdbcTemplate.queryForObject(
+                    "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, tabela);
+                return linhas != null ? linhas : -1;
+            }
+            if (produto.contains("h2")) {
+                Long linhas = jdbcTemplate.queryForObject("SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ?", Long.class, tabela.toUpperCase());
+                return linhas != null ? linhas : -1;
+            }
+        } catch (DataAccessException e) {
+            log.debug("Sem estimativa de linhas para {}: {}", tabela, e.getMessage());
+        }
+        return -1;
+    }
+
+    private String banco() {
+        String produto = banco;
+        if (produto == null) {
+            produto = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            produto = produto != null ? produto.toLowerCase() : "";
+            banco = produto;
+        }
+        return produto;
+    }
+
+    private record Entrada(long valor, long criadaEm) {
+    }
+}
@@ -6,33 +6,72 @@ import com.desafio.fullstack.dto.FornecedorDTO;
 import com.desafio.fullstack.dto.PageResponse;
 import com.desafio.fullstack.entity.Empresa;
 import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.StatusEnriquecimento;
+import com.desafio.fullstack.enums.TipoCadastro;
 import com.desafio.fullstack.enums.TipoPessoa;
 import com.desafio.fullstack.exception.BusinessException;
 import com.desafio.fullstack.exception.ResourceNotFoundException;
 import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.EmpresaSpecifications;
 import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.util.TextoNormalizador;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EmpresaService {
 
+    static final String TABELA = "empresas";
+    private static final Sort ORDEM_PADRAO = Sort.by("nomeFantasia");
+
     private final EmpresaRepository empresaRepository;
     private final FornecedorRepository fornecedorRepository;
     private final CepService cepService;
+    private final EnderecoAutocompleteIndex enderecoAutocompleteIndex;
+    private final TransactionOperations transactionOperations;
+    private final EnriquecimentoCepService enriquecimentoCepService;
+    private final CadastroBuscaIndex cadastroBuscaIndex;
+    private final NomeSugestaoIndex nomeSugestaoIndex;
+    private final ContagemListagem contagemListagem;
+
+    // ver ListagemCadastro. REPEATABLE READ para a contagem paralela ler o mesmo snapshot da página no Postgres
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public PageResponse<EmpresaDTO.Response> findAll(EmpresaDTO.Filtro filtro, boolean contar, Pageable pageable) {
+        Filtros filtros = Filtros.de(filtro);
+        Optional<ContagemListagem.Pagina<Empresa>> doIndice = filtros.somenteTexto()
+            ? ListagemCadastro.doIndice(cadastroBuscaIndex, TipoCadastro.EMPRESA, filtro.getSearch(), "", pageable, contar,
+                empresaRepository::findAllById, Empresa::getId)
+            : Optional.empty();
+        Specification<Empresa> especificacao = filtros.especificacao();
+        Pageable ordenado = ListagemCadastro.ordenado(pageable, ORDEM_PADRAO);
+        ContagemListagem.Pagina<Empresa> pagina = doIndice.orElseGet(() -> ListagemCadastro.doBanco(contagemListagem,
+            TABELA, filtros.assinatura(), () -> empresaRepository.findSlice(especificacao, ordenado), contar,
+            () -> empresaRepository.count(especificacao)));
+        return buildPageResponse(pagina.fatia(), pagina.total());
+    }
 
+    // por cursor a página vem sempre do banco, na ordenação pedida ou por nome: o ranking do índice não tem chave estável
     @Transactional(readOnly = true)
-    public PageResponse<EmpresaDTO.Response> findAll(String search, Pageable pageable) {
-        Page<Empresa> page = empresaRepository.findBySearch(search, pageable);
-        return buildPageResponse(page);
+    public PageResponse<EmpresaDTO.Response> findAllPorCursor(EmpresaDTO.Filtro filtro, String cursor, Pageable pageable) {
+        Filtros filtros = Filtros.de(filtro);
+        return PaginacaoCursor.rolar(empresaRepository, filtros.especificacao(), filtros.assinatura(),
+            PaginacaoCursor.CAMPOS_EMPRESA, cursor, ListagemCadastro.ordenado(pageable, ORDEM_PADRAO),
+            this::toResponse);
     }
 
     @Transactional(readOnly = true)
@@ -41,92 +80,155 @@ public class EmpresaService {
         return toResponse(empresa);
     }
 
-    @Transactional
+    // Escrita em duas fases: validações e consulta do CEP rodam fora de transação, para a chamada externa
+    // não segurar conexão do pool; a transação curta só confere a unicidade de novo e grava.
     public EmpresaDTO.Response create(EmpresaDTO.Request request) {
-        // cnpj validator
-        if (empresaRepository.existsByCnpj(request.getCnpj())) {
-            throw new BusinessException("CNPJ já cadastrado: " + request.getCnpj());
-        }
+        validarCnpjDisponivel(request.getCnpj(), null);
 
-        // cep validator
-        CepDTO cepInfo = cepService.consultarCep(request.getCep());
-        if (!cepInfo.isValido()) {
-            throw new BusinessException("CEP inválido: " + cepInfo.getMensagem());
-        }
+        // modo assíncrono, ou provedores fora: grava como PENDENTE com a UF da faixa do CEP e o endereço é
+        // preenchido pelo EnriquecimentoCepService
+        CepDTO cepInfo = consultarCepValido(request.getCep(), enriquecimentoCepService.isAssincrono());
+        boolean adiado = cepInfo.isProvisorio();
 
-        Empresa empresa = Empresa.builder()
-                .cnpj(request.getCnpj())
-                .nomeFantasia(request.getNomeFantasia())
-                .cep(request.getCep())
-                .logradouro(cepInfo.getLogradouro())
-                .bairro(cepInfo.getBairro())
-                .cidade(cepInfo.getCidade())
-                .uf(cepInfo.getUf())
-                .build();
+        EmpresaDTO.Response response = transactionOperations.execute(status -> {
+            // cnpj validator
+            validarCnpjDisponivel(request.getCnpj(), null);
 
-        empresa = empresaRepository.save(empresa);
-        return toResponse(empresa);
+            Empresa empresa = Empresa.builder()
+                    .cnpj(request.getCnpj())
+                    .nomeFantasia(request.getNomeFantasia())
+                    .cep(request.getCep())
+                    .logradouro(cepInfo.getLogradouro())
+                    .bairro(cepInfo.getBairro())
+                    .cidade(cepInfo.getCidade())
+                    .uf(cepInfo.getUf())
+                    .statusEnriquecimento(adiado ? StatusEnriquecimento.PENDENTE : StatusEnriquecimento.CONCLUIDO)
+                    .build();
+
+            empresa = empresaRepository.save(empresa);
+            if (adiado) {
+                enriquecimentoCepService.agendar(TipoCadastro.EMPRESA, empresa.getId());
+            }
+            cadastroBuscaIndex.indexar(empresa);
+            return toResponse(empresa);
+        });
+        if (!adiado) {
+            registrarEndereco(response);
+        }
+        nomeSugestaoIndex.registrar(TipoCadastro.EMPRESA, response.getId(), response.getNomeFantasia());
+        contagemListagem.invalidar(TABELA);
+        return response;
     }
 
-    @Transactional
     public EmpresaDTO.Response update(Long id, EmpresaDTO.Request request) {
-        Empresa empresa = getEmpresaOrThrow(id);
+        getEmpresaOrThrow(id);
+        validarCnpjDisponivel(request.getCnpj(), id);
+        CepDTO cepInfo = consultarCepValido(request.getCep(), false);
+        boolean adiado = cepInfo.isProvisorio();
 
-        // cnpj validator
-        if (empresaRepository.existsByCnpjAndIdNot(request.getCnpj(), id)) {
-            throw new BusinessException("CNPJ já cadastrado por outra empresa: " + request.getCnpj());
-        }
+        EmpresaDTO.Response response = transactionOperations.execute(status -> {
+            Empresa empresa = getEmpresaOrThrow(id);
 
-        // CEP validator
-        CepDTO cepInfo = cepService.consultarCep(request.getCep());
-        if (!cepInfo.isValido()) {
-            throw new BusinessException("CEP inválido: " + cepInfo.getMensagem());
-        }
+            // cnpj validator
+            validarCnpjDisponivel(request.getCnpj(), id);
 
-        empresa.setCnpj(request.getCnpj());
-        empresa.setNomeFantasia(request.getNomeFantasia());
-        empresa.setCep(request.getCep());
-        empresa.setLogradouro(cepInfo.getLogradouro());
-        empresa.setBairro(cepInfo.getBairro());
-        empresa.setCidade(cepInfo.getCidade());
-        empresa.setUf(cepInfo.getUf());
+            empresa.setCnpj(request.getCnpj());
+            empresa.setNomeFantasia(request.getNomeFantasia());
+            empresa.setCep(request.getCep());
+            empresa.setLogradouro(cepInfo.getLogradouro());
+            empresa.setBairro(cepInfo.getBairro());
+            empresa.setCidade(cepInfo.getCidade());
+            empresa.setUf(cepInfo.getUf());
+            empresa.setStatusEnriquecimento(adiado ? StatusEnriquecimento.PENDENTE : StatusEnriquecimento.CONCLUIDO);
 
-        empresa = empresaRepository.save(empresa);
-        return toResponse(empresa);
+            empresa = empresaRepository.save(empresa);
+            if (adiado) {
+                enriquecimentoCepService.agendar(TipoCadastro.EMPRESA, empresa.getId());
+            }
+            cadastroBuscaIndex.indexar(empresa);
+            return toResponse(empresa);
+        });
+        if (!adiado) {
+            registrarEndereco(response);
+        }
+        nomeSugestaoIndex.registrar(TipoCadastro.EMPRESA, response.getId(), response.getNomeFantasia());
+        contagemListagem.invalidar(TABELA);
+        return response;
     }
 
-    @Transactional
     public void delete(Long id) {
-        Empresa empresa = getEmpresaOrThrow(id);
-        empresa.getFornecedores().clear();
-        empresaRepository.delete(empresa);
+        transactionOperations.executeWithoutResult(status -> {
+            Empresa empresa = getEmpresaOrThrow(id);
+            empresa.getFornecedores().clear();
+            empresaRepository.delete(empresa);
+            cadastroBuscaIndex.remover(TipoCadastro.EMPRESA, id);
+        });
+        nomeSugestaoIndex.remover(TipoCadastro.EMPRESA, id);
+        contagemListagem.invalidar(TABELA);
+        // os vínculos somem junto: muda a listagem de fornecedores filtrada por empresaId
+        contagemListagem.invalidar(FornecedorService.TABELA);
     }
 
-    @Transactional
+    // o vínculo muda a listagem de fornecedores filtrada por empresaId: a contagem em cache é descartada depois do
+    // commit, como nas demais gravações
     public EmpresaDTO.Response vincularFornecedor(Long empresaId, Long fornecedorId) {
-        Empresa empresa = getEmpresaOrThrow(empresaId);
-        Fornecedor fornecedor = fornecedorRepository.findById(fornecedorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Fornecedor", fornecedorId));
+        EmpresaDTO.Response response = transactionOperations.execute(status -> {
+            Empresa empresa = getEmpresaOrThrow(empresaId);
+            Fornecedor fornecedor = fornecedorRepository.findById(fornecedorId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Fornecedor", fornecedorId));
 
-        validarRegraIdadePorEstado(empresa, fornecedor);
+            validarRegraIdadePorEstado(empresa, fornecedor);
 
-        empresa.getFornecedores().add(fornecedor);
-        empresa = empresaRepository.save(empresa);
-        return toResponse(empresa);
+            empresa.getFornecedores().add(fornecedor);
+            return toResponse(empresaRepository.save(empresa));
+        });
+        contagemListagem.invalidar(FornecedorService.TABELA);
+        return response;
     }
 
-    @Transactional
     public EmpresaDTO.Response desvincularFornecedor(Long empresaId, Long fornecedorId) {
-        Empresa empresa = getEmpresaOrThrow(empresaId);
-        Fornecedor fornecedor = fornecedorRepository.findById(fornecedorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Fornecedor", fornecedorId));
+        EmpresaDTO.Response response = transactionOperations.execute(status -> {
+            Empresa empresa = getEmpresaOrThrow(empresaId);
+            Fornecedor fornecedor = fornecedorRepository.findById(fornecedorId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Fornecedor", fornecedorId));
 
-        empresa.getFornecedores().remove(fornecedor);
-        empresa = empresaRepository.save(empresa);
-        return toResponse(empresa);
+            empresa.getFornecedores().remove(fornecedor);
+            return toResponse(empresaRepository.save(empresa));
+        });
+        contagemListagem.invalidar(FornecedorService.TABELA);
+        return response;
+    }
+
+    private void validarCnpjDisponivel(String cnpj, Long idAtual) {
+        if (idAtual == null && empresaRepository.existsByCnpj(cnpj)) {
+            throw new BusinessException("CNPJ já cadastrado: " + cnpj);
+        }
+        if (idAtual != null && empresaRepository.existsByCnpjAndIdNot(cnpj, idAtual)) {
+            throw new BusinessException("CNPJ já cadastrado por outra empresa: " + cnpj);
+        }
+    }
+
+    // somenteLocal: só confere a faixa do CEP, sem rede; CEP provisório é aceito e enriquecido depois
+    private CepDTO consultarCepValido(String cep, boolean somenteLocal) {
+        CepDTO cepInfo = somenteLocal ? cepService.consultarCepLocal(cep) : cepService.consultarCep(cep);
+        if (!cepInfo.isValido() && !cepInfo.isProvisorio()) {
+            throw new BusinessException("CEP inválido: " + cepInfo.getMensagem());
+        }
+        return cepInfo;
+    }
+
+    private void registrarEndereco(EmpresaDTO.Response empresa) {
+        enderecoAutocompleteIndex.registrar(empresa.getCep(), empresa.getLogradouro(), empresa.getBairro(), empresa.getCidade(), empresa.getUf());
     }
 
     private void validarRegraIdadePorEstado(Empresa empresa, Fornecedor fornecedor) {
+        // a UF provisória da faixa do CEP basta para a regra do Paraná; sem nenhuma UF ainda não dá para aplicá-la
+        if (empresa.getStatusEnriquecimento() == StatusEnriquecimento.PENDENTE
+                && (empresa.getUf() == null || empresa.getUf().isBlank())
+                && fornecedor.getTipoPessoa() == TipoPessoa.FISICA) {
+            throw new BusinessException("O endereço da empresa ainda está sendo validado. Tente vincular novamente em instantes");
+        }
+
         if ("PR".equalsIgnoreCase(empresa.getUf())
                 && fornecedor.getTipoPessoa() == TipoPessoa.FISICA
                 && fornecedor.getDataNascimento() != null) {
@@ -154,6 +256,7 @@ public class EmpresaService {
                 .bairro(empresa.getBairro())
                 .cidade(empresa.getCidade())
                 .uf(empresa.getUf())
+                .statusEnriquecimento(empresa.getStatusEnriquecimento() != null ? empresa.getStatusEnriquecimento() : StatusEnriquecimento.CONCLUIDO)
                 .criadoEm(empresa.getCriadoEm())
                 .atualizadoEm(empresa.getAtualizadoEm())
                 .fornecedores(
@@ -170,15 +273,58 @@ public class EmpresaService {
                 .build();
     }
 
-    private PageResponse<EmpresaDTO.Response> buildPageResponse(Page<Empresa> page) {
+    private PageResponse<EmpresaDTO.Response> buildPageResponse(Slice<Empresa> slice, ContagemListagem.Total total) {
         return PageResponse.<EmpresaDTO.Response>builder()
-                .content(page.getContent().stream().map(this::toResponse).collect(Collectors.toList()))
-                .pageNumber(page.getNumber())
-                .pageSize(page.getSize())
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
-                .first(page.isFirst())
-                .last(page.isLast())
+                .content(slice.getContent().stream().map(this::toResponse).collect(Collectors.toList()))
+                .pageNumber(slice.getNumber())
+                .pageSize(slice.getSize())
+                .totalElements(total != null ? total.valor() : -1)
+                .totalPages(total != null ? paginas(total.valor(), slice.getSize()) : -1)
+                .totalAproximado(total != null && total.aproximado())
+                .first(slice.isFirst())
+                .last(slice.isLast())
                 .build();
     }
-}
\ No newline at end of file
+
+    private static int paginas(long total, int tamanho) {
+        return tamanho == 0 ? 1 : (int) Math.ceil((double) total / tamanho);
+    }
+
+    // filtros normalizados da listagem; a assinatura identifica a busca no cache de contagens e nos cursores
+    private record Filtros(String nome, String documento, String uf, String cidade, LocalDate criadoDe,
+                           LocalDate criadoAte) {
+
+        static Filtros de(EmpresaDTO.Filtro filtro) {
+            if (filtro.getCriadoDe() != null && filtro.getCriadoAte() != null
+                    && filtro.getCriadoDe().isAfter(filtro.getCriadoAte())) {
+                throw new BusinessException("Período de criação inválido: criadoDe depois de criadoAte");
+            }
+            return new Filtros(
+                TextoNormalizador.normalizar(filtro.getSearch()),
+                TextoNormalizador.documento(filtro.getSearch()),
+                filtro.getUf() != null ? filtro.getUf().trim().toUpperCase(Locale.ROOT) : "",
+                filtro.getCidade() != null ? filtro.getCidade().trim() : "",
+                filtro.getCriadoDe(),
+                filtro.getCriadoAte());
+        }
+
+        boolean somenteTexto() {
+            return (!nome.isEmpty() || !documento.isEmpty()) && uf.isEmpty() && cidade.isEmpty()
+                && criadoDe == null && criadoAte == null;
+        }
+
+        Specification<Empresa> especificacao() {
+            return Specification.where(EmpresaSpecifications.busca(nome, documento))
+                .and(EmpresaSpecifications.uf(uf))
+                .and(EmpresaSpecifications.cidade(cidade))
+                .and(EmpresaSpecifications.criadoEntre(criadoDe, criadoAte));
+        }
+
+        // "" sem nenhum filtro: a contagem pode vir da estimativa do banco
+        String assinatura() {
+            String assinatura = String.join("|", nome, documento, uf, cidade, Objects.toString(criadoDe, ""),
+                Objects.toString(criadoAte, ""));
+            return assinatura.replace("|", "").isEmpty() ? "" : assinatura;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.EnderecoSugestaoDTO;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.util.TextoNormalizador;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória para sugerir endereços enquanto o usuário digita. Prefixos numéricos percorrem uma
+ * trie de dígitos do CEP; texto percorre uma trie de tokens normalizados (sem acento) de logradouro,
+ * bairro e cidade. Cada nó guarda até {@code candidatosPorNo} endereços, então a consulta custa O(tamanho da busca).
+ */
+@Slf4j
+@Component
+public class EnderecoAutocompleteIndex {
+
+    private final EmpresaRepository empresaRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final int candidatosPorNo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Registro> registros = new ArrayList<>();
+    private final Map<Integer, Integer> porCep = new HashMap<>();
+    private final NoDigito raizCep = new NoDigito();
+    private final NoTexto raizTexto = new NoTexto();
+
+    public EnderecoAutocompleteIndex(EmpresaRepository empresaRepository, FornecedorRepository fornecedorRepository,
+                                     @Value("${app.cep.autocomplete.candidatos-por-no:64}") int candidatosPorNo) {
+        this.empresaRepository = empresaRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.candidatosPorNo = candidatosPorNo;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        empresaRepository.findEnderecosDistintos().forEach(this::registrar);
+        fornecedorRepository.findEnderecosDistintos().forEach(this::registrar);
+        log.info("Índice de autocomplete de endereços com {} CEP(s)", tamanho());
+    }
+
+    public void registrar(String cep, String logradouro, String bairro, String cidade, String uf) {
+        registrar(new EnderecoSugestaoDTO(cep, logradouro, bairro, cidade, uf));
+    }
+
+    public void registrar(EnderecoSugestaoDTO endereco) {
+        String cep = endereco.getCep() == null ? "" : endereco.getCep().replaceAll("\\D", "");
+        if (cep.length() != 8) {
+            return;
+        }
+        endereco = new EnderecoSugestaoDTO(cep, endereco.getLogradouro(), endereco.getBairro(),
+            endereco.getCidade(), endereco.getUf());
+        Registro novo = new Registro(endereco);
+
+        lock.writeLock().lock();
+        try {
+            int chave = Integer.parseInt(cep);
+            Integer existente = porCep.get(chave);
+            if (existente != null) {
+                if (registros.get(existente).tokens.equals(novo.tokens)) {
+                    return;
+                }
+                // referências antigas na trie de texto são descartadas na verificação da consulta
+                registros.set(existente, novo);
+                indexarTexto(existente, novo);
+                return;
+            }
+
+            int id = registros.size();
+            registros.add(novo);
+            porCep.put(chave, id);
+            indexarCep(id, cep);
+            indexarTexto(id, novo);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<EnderecoSugestaoDTO> sugerir(String consulta, int limite) {
+        if (consulta == null || consulta.isBlank() || limite <= 0) {
+            return List.of();
+        }
+
+        String digitos = consulta.replaceAll("[\\s.-]", "");
+        lock.readLock().lock();
+        try {
+            if (!digitos.isEmpty() && digitos.chars().allMatch(Character::isDigit)) {
+                return sugerirPorCep(digitos, limite);
+            }
+            return sugerirPorTexto(TextoNormalizador.tokens(consulta), limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return registros.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<EnderecoSugestaoDTO> sugerirPorCep(String prefixo, int limite) {
+        NoDigito no = raizCep;
+        for (int i = 0; i < prefixo.length() && no != null; i++) {
+            no = no.filhos[prefixo.charAt(i) - '0'];
+        }
+        List<EnderecoSugestaoDTO> resultado = new ArrayList<>();
+        if (no != null) {
+            for (int i = 0; i < no.quantidade && resultado.size() < limite; i++) {
+                resultado.add(registros.get(no.ids[i]).endereco);
+            }
+        }
+        return resultado;
+    }
+
+    private List<EnderecoSugestaoDTO> sugerirPorTexto(List<String> tokens, int limite) {
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        // candidatos pelo token mais longo (mais seletivo); os demais são conferidos no registro
+        String guia = tokens.stream().max((a, b) -> Integer.compare(a.length(), b.length())).orElseThrow();
+        NoTexto no = raizTexto;
+        for (int i = 0; i < guia.length() && no != null; i++) {
+            no = no.filhos.get(guia.charAt(i));
+        }
+        if (no == null) {
+            return List.of();
+        }
+
+        List<EnderecoSugestaoDTO> resultado = new ArrayList<>();
+        Set<Integer> vistos = new LinkedHashSet<>();
+        for (int i = 0; i < no.quantidade && resultado.size() < limite; i++) {
+            int id = no.ids[i];
+            if (vistos.add(id) && registros.get(id).contemPrefixos(tokens)) {
+                resultado.add(registros.get(id).endereco);
+            }
+        }
+        return resultado;
+    }
+
+    private void indexarCep(int id, String cep) {
+        NoDigito no = raizCep;
+        for (int i = 0; i < cep.length(); i++) {
+            int digito = cep.charAt(i) - '0';
+            if (no.filhos[digito] == null) {
+                no.filhos[digito] = new NoDigito();
+            }
+            no = no.filhos[digito];
+            no.adicionar(id, candidatosPorNo);
+        }
+    }
+
+    private void indexarTexto(int id, Registro registro) {
+        for (String token : registro.tokens) {
+            NoTexto no = raizTexto;
+            for (int i = 0; i < token.length(); i++) {
+                no = no.filhos.computeIfAbsent(token.charAt(i), c -> new NoTexto());
+                no.adicionar(id, candidatosPorNo);
+            }
+        }
+    }
+
+    private static final class Registro {
+        private final EnderecoSugestaoDTO endereco;
+        private final Set<String> tokens = new LinkedHashSet<>();
+
+        private Registro(EnderecoSugestaoDTO endereco) {
+            this.endereco = endereco;
+            tokens.addAll(TextoNormalizador.tokens(endereco.getLogradouro()));
+            tokens.addAll(TextoNormalizador.tokens(endereco.getBairro()));
+            tokens.addAll(TextoNormalizador.tokens(endereco.getCidade()));
+            tokens.addAll(TextoNormalizador.tokens(endereco.getUf()));
+        }
+
+        private boolean contemPrefixos(List<String> consulta) {
+            for (String prefixo : consulta) {
+                boolean encontrado = false;
+                for (String token : tokens) {
+                    if (token.startsWith(prefixo)) {
+                        encontrado = true;
+                        break;
+                    }
+                }
+                if (!encontrado) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class No {
+        int[] ids = new int[4];
+        int quantidade;
+
+        void adicionar(int id, int maximo) {
+            if (quantidade >= maximo || (quantidade > 0 && ids[quantidade - 1] == id)) {
+                return;
+            }
+            if (quantidade == ids.length) {
+                ids = Arrays.copyOf(ids, Math.min(ids.length * 2, maximo));
+            }
+            ids[quantidade++] = id;
+        }
+    }
+
+    private static final class NoDigito extends No {
+        private final NoDigito[] filhos = new NoDigito[10];
+    }
+
+    private static final class NoTexto extends No {
+        private final Map<Character, NoTexto> filhos = new HashMap<>(4);
+    }
+}
@@ -0,0 +1,235 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.entity.Empresa;
+import com.desafio.fullstack.entity.EnriquecimentoPendente;
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.StatusEnriquecimento;
+import com.desafio.fullstack.enums.TipoCadastro;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.EnriquecimentoPendenteRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Enriquecimento de endereço adiado: com {@code app.cep.enriquecimento.assincrono=true} os cadastros são gravados
+ * como {@link StatusEnriquecimento#PENDENTE} junto com uma linha em {@code enriquecimentos_pendentes}, e esta fila
+ * é drenada em lotes. Falhas transitórias dos provedores são reagendadas com backoff exponencial; CEP inexistente
+ * é definitivo. Cada réplica reserva o próprio lote antes de consultar os provedores (ver {@link #reservar()}), então
+ * um item não é processado duas vezes ao mesmo tempo.
+ */
+@Slf4j
+@Service
+public class EnriquecimentoCepService {
+
+    private final EnriquecimentoPendenteRepository filaRepository;
+    private final EmpresaRepository empresaRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final CepService cepService;
+    private final EnderecoAutocompleteIndex enderecoAutocompleteIndex;
+    private final CadastroBuscaIndex cadastroBuscaIndex;
+    private final ContagemListagem contagemListagem;
+    private final TransactionOperations transactionOperations;
+    private final boolean assincrono;
+    private final int lote;
+    private final int tentativasMaximas;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+    private final Duration reserva;
+
+    public EnriquecimentoCepService(
+            EnriquecimentoPendenteRepository filaRepository,
+            EmpresaRepository empresaRepository,
+            FornecedorRepository fornecedorRepository,
+            CepService cepService,
+            EnderecoAutocompleteIndex enderecoAutocompleteIndex,
+            CadastroBuscaIndex cadastroBuscaIndex,
+            ContagemListagem contagemListagem,
+            TransactionOperations transactionOperations,
+            @Value("${app.cep.enriquecimento.assincrono:false}") boolean assincrono,
+            @Value("${app.cep.enriquecimento.lote:50}") int lote,
+            @Value("${app.cep.enriquecimento.tentativas-maximas:8}") int tentativasMaximas,
+            @Value("${app.cep.enriquecimento.backoff-inicial:10s}") Duration backoffInicial,
+            @Value("${app.cep.enriquecimento.backoff-maximo:30m}") Duration backoffMaximo,
+            @Value("${app.cep.enriquecimento.reserva:10m}") Duration reserva) {
+        this.filaRepository = filaRepository;
+        this.empresaRepository = empresaRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.cepService = cepService;
+        this.enderecoAutocompleteIndex = enderecoAutocompleteIndex;
+        this.cadastroBuscaIndex = cadastroBuscaIndex;
+        this.contagemListagem = contagemListagem;
+        this.transactionOperations = transactionOperations;
+        this.assincrono = assincrono;
+        this.lote = lote;
+        this.tentativasMaximas = tentativasMaximas;
+        this.backoffInicial = backoffInicial;
+        this.backoffMaximo = backoffMaximo;
+        this.reserva = reserva;
+    }
+
+    public boolean isAssincrono() {
+        return assincrono;
+    }
+
+    // deve ser chamado na transação que grava o cadastro, para cadastro e fila serem gravados juntos
+    public void agendar(TipoCadastro tipo, Long cadastroId) {
+        filaRepository.save(EnriquecimentoPendente.builder()
+            .tipo(tipo)
+            .cadastroId(cadastroId)
+            .proximaTentativa(LocalDateTime.now())
+            .build());
+    }
+
+    @Scheduled(fixedDelayString = "${app.cep.enriquecimento.intervalo-ms:5000}")
+    public void processarPendentes() {
+        for (EnriquecimentoPendente item : reservar()) {
+            try {
+                processar(item);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao enriquecer {} {}: {}", item.getTipo(), item.getCadastroId(), e.getMessage());
+                reagendar(item, e.getMessage());
+            }
+        }
+    }
+
+    // trava os itens vencidos (pulando os travados por outra réplica) e empurra a próxima tentativa para depois da
+    // reserva: depois do commit as outras réplicas também não os enxergam mais. Se esta réplica cair no meio do
+    // lote, os itens voltam a vencer quando a reserva acabar
+    List<EnriquecimentoPendente> reservar() {
+        return transactionOperations.execute(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            List<EnriquecimentoPendente> vencidos = filaRepository.travarVencidos(agora, PageRequest.of(0, lote));
+            vencidos.forEach(item -> item.setProximaTentativa(agora.plus(reserva)));
+            filaRepository.saveAll(vencidos);
+            return vencidos;
+        });
+    }
+
+    // consulta do CEP fora de transação, como na gravação síncrona; cada item é aplicado numa transação curta
+    void processar(EnriquecimentoPendente item) {
+        Optional<String> cep = cepPendente(item);
+        if (cep.isEmpty()) {
+            // cadastro excluído ou atualizado de forma síncrona nesse meio tempo
+            filaRepository.delete(item);
+            return;
+        }
+
+        CepDTO resultado;
+        try {
+            resultado = cepService.resolver(cep.get().replaceAll("\\D", ""));
+        } catch (CepIndisponivelException e) {
+            reagendar(item, e.getMessage());
+            return;
+        }
+
+        transactionOperations.executeWithoutResult(status -> {
+            aplicar(item, resultado);
+            filaRepository.delete(item);
+        });
+        // cidade e UF entram nos filtros das listagens
+        contagemListagem.invalidar(
+            item.getTipo() == TipoCadastro.EMPRESA ? EmpresaService.TABELA : FornecedorService.TABELA);
+        if (resultado.isValido()) {
+            enderecoAutocompleteIndex.registrar(resultado.getCep(), resultado.getLogradouro(), resultado.getBairro(),
+                resultado.getCidade(), resultado.getUf());
+        }
+    }
+
+    private Optional<String> cepPendente(EnriquecimentoPendente item) {
+        if (item.getTipo() == TipoCadastro.EMPRESA) {
+            return empresaRepository.findById(item.getCadastroId())
+                .filter(e -> e.getStatusEnriquecimento() == StatusEnriquecimento.PENDENTE)
+                .map(Empresa::getCep);
+        }
+        return fornecedorRepository.findById(item.getCadastroId())
+            .filter(f -> f.getStatusEnriquecimento() == StatusEnriquecimento.PENDENTE)
+            .map(Fornecedor::getCep);
+    }
+
+    private void aplicar(EnriquecimentoPendente item, CepDTO resultado) {
+        StatusEnriquecimento novoStatus = resultado.isValido() ? StatusEnriquecimento.CONCLUIDO : StatusEnriquecimento.CEP_INVALIDO;
+
+        if (item.getTipo() == TipoCadastro.EMPRESA) {
+            empresaRepository.findById(item.getCadastroId())
+                .filter(e -> e.getStatusEnriquecimento() == StatusEnriquecimento.PENDENTE)
+                .ifPresent(empresa -> {
+                    if (resultado.isValido()) {
+                        empresa.setLogradouro(resultado.getLogradouro());
+                        empresa.setBairro(resultado.getBairro());
+                        empresa.setCidade(resultado.getCidade());
+                        empresa.setUf(resultado.getUf());
+                    }
+                    empresa.setStatusEnriquecimento(novoStatus);
+                    empresaRepository.save(empresa);
+                    cadastroBuscaIndex.indexar(empresa);
+                });
+        } else {
+            fornecedorRepository.findById(item.getCadastroId())
+                .filter(f -> f.getStatusEnriquecimento() == StatusEnriquecimento.PENDENTE)
+                .ifPresent(fornecedor -> {
+                    if (resultado.isValido()) {
+                        fornecedor.setLogradouro(resultado.getLogradouro());
+                        fornecedor.setBairro(resultado.getBairro());
+                        fornecedor.setCidade(resultado.getCidade());
+                        fornecedor.setUf(resultado.getUf());
+                    }
+                    fornecedor.setStatusEnriquecimento(novoStatus);
+                    fornecedorRepository.save(fornecedor);
+                    cadastroBuscaIndex.indexar(fornecedor);
+                });
+        }
+    }
+
+    private void reagendar(EnriquecimentoPendente item, String erro) {
+        int tentativas = item.getTentativas() + 1;
+
+        if (tentativas >= tentativasMaximas) {
+            log.warn("Enriquecimento de {} {} desistiu após {} tentativas: {}", item.getTipo(), item.getCadastroId(), tentativas, erro);
+            transactionOperations.executeWithoutResult(status -> {
+                marcarFalha(item);
+                filaRepository.delete(item);
+            });
+            return;
+        }
+
+        item.setTentativas(tentativas);
+        item.setProximaTentativa(LocalDateTime.now().plus(backoff(tentativas)));
+        item.setUltimoErro(erro != null && erro.length() > 500 ? erro.substring(0, 500) : erro);
+        filaRepository.save(item);
+    }
+
+    Duration backoff(int tentativas) {
+        Duration atraso = backoffInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return atraso.compareTo(backoffMaximo) > 0 ? backoffMaximo : atraso;
+    }
+
+    private void marcarFalha(EnriquecimentoPendente item) {
+        if (item.getTipo() == TipoCadastro.EMPRESA) {
+            empresaRepository.findById(item.getCadastroId())
+                .filter(e -> e.getStatusEnriquecimento() == StatusEnriquecimento.PENDENTE)
+                .ifPresent(empresa -> {
+                    empresa.setStatusEnriquecimento(StatusEnriquecimento.FALHOU);
+                    empresaRepository.save(empresa);
+                });
+        } else {
+            fornecedorRepository.findById(item.getCadastroId())
+                .filter(f -> f.getStatusEnriquecimento() == StatusEnriquecimento.PENDENTE)
+                .ifPresent(fornecedor -> {
+                    fornecedor.setStatusEnriquecimento(StatusEnriquecimento.FALHOU);
+                    fornecedorRepository.save(fornecedor);
+                });
+        }
+    }
+}
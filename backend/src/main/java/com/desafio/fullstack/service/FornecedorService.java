@@ -5,29 +5,69 @@ import com.desafio.fullstack.dto.EmpresaDTO;
 import com.desafio.fullstack.dto.FornecedorDTO;
 import com.desafio.fullstack.dto.PageResponse;
 import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.StatusEnriquecimento;
+import com.desafio.fullstack.enums.TipoCadastro;
 import com.desafio.fullstack.enums.TipoPessoa;
 import com.desafio.fullstack.exception.BusinessException;
 import com.desafio.fullstack.exception.ResourceNotFoundException;
 import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.repository.FornecedorSpecifications;
+import com.desafio.fullstack.util.TextoNormalizador;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FornecedorService {
 
+    static final String TABELA = "fornecedores";
+    private static final Sort ORDEM_PADRAO = Sort.by("nome");
+
     private final FornecedorRepository fornecedorRepository;
     private final CepService cepService;
+    private final EnderecoAutocompleteIndex enderecoAutocompleteIndex;
+    private final TransactionOperations transactionOperations;
+    private final EnriquecimentoCepService enriquecimentoCepService;
+    private final CadastroBuscaIndex cadastroBuscaIndex;
+    private final NomeSugestaoIndex nomeSugestaoIndex;
+    private final ContagemListagem contagemListagem;
+
+    // ver ListagemCadastro. REPEATABLE READ para a contagem paralela ler o mesmo snapshot da página no Postgres
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public PageResponse<FornecedorDTO.Response> findAll(FornecedorDTO.Filtro filtro, boolean contar, Pageable pageable) {
+        Filtros filtros = Filtros.de(filtro);
+        Optional<ContagemListagem.Pagina<Fornecedor>> doIndice = filtros.somenteTexto()
+            ? ListagemCadastro.doIndice(cadastroBuscaIndex, TipoCadastro.FORNECEDOR, filtro.getNome(), filtros.documento(),
+                pageable, contar, fornecedorRepository::findAllById, Fornecedor::getId)
+            : Optional.empty();
+        Specification<Fornecedor> especificacao = filtros.especificacao();
+        Pageable ordenado = ListagemCadastro.ordenado(pageable, ORDEM_PADRAO);
+        ContagemListagem.Pagina<Fornecedor> pagina = doIndice.orElseGet(() -> ListagemCadastro.doBanco(contagemListagem,
+            TABELA, filtros.assinatura(), () -> fornecedorRepository.findSlice(especificacao, ordenado), contar,
+            () -> fornecedorRepository.count(especificacao)));
+        return buildPageResponse(pagina.fatia(), pagina.total());
+    }
 
+    // por cursor a página vem sempre do banco, na ordenação pedida ou por nome: o ranking do índice não tem chave estável
     @Transactional(readOnly = true)
-    public PageResponse<FornecedorDTO.Response> findAll(String nome, String cpfCnpj, Pageable pageable) {
-        Page<Fornecedor> page = fornecedorRepository.findByFilters(nome, cpfCnpj, pageable);
-        return buildPageResponse(page);
+    public PageResponse<FornecedorDTO.Response> findAllPorCursor(FornecedorDTO.Filtro filtro, String cursor, Pageable pageable) {
+        Filtros filtros = Filtros.de(filtro);
+        return PaginacaoCursor.rolar(fornecedorRepository, filtros.especificacao(), filtros.assinatura(),
+            PaginacaoCursor.CAMPOS_FORNECEDOR, cursor, ListagemCadastro.ordenado(pageable, ORDEM_PADRAO),
+            this::toResponse);
     }
 
     @Transactional(readOnly = true)
@@ -36,73 +76,100 @@ public class FornecedorService {
         return toResponse(fornecedor);
     }
 
-    @Transactional
+    // Escrita em duas fases: validações e consulta do CEP rodam fora de transação, para a chamada externa
+    // não segurar conexão do pool; a transação curta só confere a unicidade de novo e grava.
     public FornecedorDTO.Response create(FornecedorDTO.Request request) {
         validarRequest(request, null);
 
-        CepDTO cepInfo = cepService.consultarCep(request.getCep());
-        if (!cepInfo.isValido()) {
-            throw new BusinessException("CEP inválido: " + cepInfo.getMensagem());
-        }
+        // modo assíncrono, ou provedores fora: grava como PENDENTE com a UF da faixa do CEP e o endereço é
+        // preenchido pelo EnriquecimentoCepService
+        CepDTO cepInfo = consultarCepValido(request.getCep(), enriquecimentoCepService.isAssincrono());
+        boolean adiado = cepInfo.isProvisorio();
 
-        Fornecedor fornecedor = Fornecedor.builder()
-            .cpfCnpj(request.getCpfCnpj())
-            .tipoPessoa(request.getTipoPessoa())
-            .nome(request.getNome())
-            .email(request.getEmail())
-            .cep(request.getCep())
-            .rg(request.getRg())
-            .dataNascimento(request.getDataNascimento())
-            .logradouro(cepInfo.getLogradouro())
-            .bairro(cepInfo.getBairro())
-            .cidade(cepInfo.getCidade())
-            .uf(cepInfo.getUf())
-            .build();
+        FornecedorDTO.Response response = transactionOperations.execute(status -> {
+            validarDocumentoDisponivel(request.getCpfCnpj(), null);
 
-        fornecedor = fornecedorRepository.save(fornecedor);
-        return toResponse(fornecedor);
+            Fornecedor fornecedor = Fornecedor.builder()
+                .cpfCnpj(request.getCpfCnpj())
+                .tipoPessoa(request.getTipoPessoa())
+                .nome(request.getNome())
+                .email(request.getEmail())
+                .cep(request.getCep())
+                .rg(request.getRg())
+                .dataNascimento(request.getDataNascimento())
+                .logradouro(cepInfo.getLogradouro())
+                .bairro(cepInfo.getBairro())
+                .cidade(cepInfo.getCidade())
+                .uf(cepInfo.getUf())
+                .statusEnriquecimento(adiado ? StatusEnriquecimento.PENDENTE : StatusEnriquecimento.CONCLUIDO)
+                .build();
+
+            fornecedor = fornecedorRepository.save(fornecedor);
+            if (adiado) {
+                enriquecimentoCepService.agendar(TipoCadastro.FORNECEDOR, fornecedor.getId());
+            }
+            cadastroBuscaIndex.indexar(fornecedor);
+            return toResponse(fornecedor);
+        });
+        if (!adiado) {
+            registrarEndereco(response);
+        }
+        nomeSugestaoIndex.registrar(TipoCadastro.FORNECEDOR, response.getId(), response.getNome());
+        contagemListagem.invalidar(TABELA);
+        return response;
     }
 
-    @Transactional
     public FornecedorDTO.Response update(Long id, FornecedorDTO.Request request) {
-        Fornecedor fornecedor = getFornecedorOrThrow(id);
+        getFornecedorOrThrow(id);
         validarRequest(request, id);
+        CepDTO cepInfo = consultarCepValido(request.getCep(), false);
+        boolean adiado = cepInfo.isProvisorio();
 
-        CepDTO cepInfo = cepService.consultarCep(request.getCep());
-        if (!cepInfo.isValido()) {
-            throw new BusinessException("CEP inválido: " + cepInfo.getMensagem());
-        }
+        FornecedorDTO.Response response = transactionOperations.execute(status -> {
+            Fornecedor fornecedor = getFornecedorOrThrow(id);
+            validarDocumentoDisponivel(request.getCpfCnpj(), id);
 
-        fornecedor.setCpfCnpj(request.getCpfCnpj());
-        fornecedor.setTipoPessoa(request.getTipoPessoa());
-        fornecedor.setNome(request.getNome());
-        fornecedor.setEmail(request.getEmail());
-        fornecedor.setCep(request.getCep());
-        fornecedor.setRg(request.getRg());
-        fornecedor.setDataNascimento(request.getDataNascimento());
-        fornecedor.setLogradouro(cepInfo.getLogradouro());
-        fornecedor.setBairro(cepInfo.getBairro());
-        fornecedor.setCidade(cepInfo.getCidade());
-        fornecedor.setUf(cepInfo.getUf());
-
-        fornecedor = fornecedorRepository.save(fornecedor);
-        return toResponse(fornecedor);
+            fornecedor.setCpfCnpj(request.getCpfCnpj());
+            fornecedor.setTipoPessoa(request.getTipoPessoa());
+            fornecedor.setNome(request.getNome());
+            fornecedor.setEmail(request.getEmail());
+            fornecedor.setCep(request.getCep());
+            fornecedor.setRg(request.getRg());
+            fornecedor.setDataNascimento(request.getDataNascimento());
+            fornecedor.setLogradouro(cepInfo.getLogradouro());
+            fornecedor.setBairro(cepInfo.getBairro());
+            fornecedor.setCidade(cepInfo.getCidade());
+            fornecedor.setUf(cepInfo.getUf());
+            fornecedor.setStatusEnriquecimento(adiado ? StatusEnriquecimento.PENDENTE : StatusEnriquecimento.CONCLUIDO);
+
+            fornecedor = fornecedorRepository.save(fornecedor);
+            if (adiado) {
+                enriquecimentoCepService.agendar(TipoCadastro.FORNECEDOR, fornecedor.getId());
+            }
+            cadastroBuscaIndex.indexar(fornecedor);
+            return toResponse(fornecedor);
+        });
+        if (!adiado) {
+            registrarEndereco(response);
+        }
+        nomeSugestaoIndex.registrar(TipoCadastro.FORNECEDOR, response.getId(), response.getNome());
+        contagemListagem.invalidar(TABELA);
+        return response;
     }
 
-    @Transactional
     public void delete(Long id) {
-        Fornecedor fornecedor = getFornecedorOrThrow(id);
-        fornecedor.getEmpresas().forEach(e -> e.getFornecedores().remove(fornecedor));
-        fornecedorRepository.delete(fornecedor);
+        transactionOperations.executeWithoutResult(status -> {
+            Fornecedor fornecedor = getFornecedorOrThrow(id);
+            fornecedor.getEmpresas().forEach(e -> e.getFornecedores().remove(fornecedor));
+            fornecedorRepository.delete(fornecedor);
+            cadastroBuscaIndex.remover(TipoCadastro.FORNECEDOR, id);
+        });
+        nomeSugestaoIndex.remover(TipoCadastro.FORNECEDOR, id);
+        contagemListagem.invalidar(TABELA);
     }
 
     private void validarRequest(FornecedorDTO.Request request, Long idAtual) {
-        if (idAtual == null && fornecedorRepository.existsByCpfCnpj(request.getCpfCnpj())) {
-            throw new BusinessException("CPF/CNPJ já cadastrado: " + request.getCpfCnpj());
-        }
-        if (idAtual != null && fornecedorRepository.existsByCpfCnpjAndIdNot(request.getCpfCnpj(), idAtual)) {
-            throw new BusinessException("CPF/CNPJ já cadastrado por outro fornecedor: " + request.getCpfCnpj());
-        }
+        validarDocumentoDisponivel(request.getCpfCnpj(), idAtual);
 
         if (request.getTipoPessoa() == TipoPessoa.FISICA) {
             if (request.getCpfCnpj().length() != 11) {
@@ -122,6 +189,27 @@ public class FornecedorService {
         }
     }
 
+    private void validarDocumentoDisponivel(String cpfCnpj, Long idAtual) {
+        if (idAtual == null && fornecedorRepository.existsByCpfCnpj(cpfCnpj)) {
+            throw new BusinessException("CPF/CNPJ já cadastrado: " + cpfCnpj);
+        }
+        if (idAtual != null && fornecedorRepository.existsByCpfCnpjAndIdNot(cpfCnpj, idAtual)) {
+            throw new BusinessException("CPF/CNPJ já cadastrado por outro fornecedor: " + cpfCnpj);
+        }
+    }
+
+    // somenteLocal: só confere a faixa do CEP, sem rede; CEP provisório é aceito e enriquecido depois
+    private CepDTO consultarCepValido(String cep, boolean somenteLocal) {
+        CepDTO cepInfo = somenteLocal ? cepService.consultarCepLocal(cep) : cepService.consultarCep(cep);
+        if (!cepInfo.isValido() && !cepInfo.isProvisorio()) {
+            throw new BusinessException("CEP inválido: " + cepInfo.getMensagem());
+        }
+        return cepInfo;
+    }
+
+    private void registrarEndereco(FornecedorDTO.Response fornecedor) {
+        enderecoAutocompleteIndex.registrar(fornecedor.getCep(), fornecedor.getLogradouro(), fornecedor.getBairro(), fornecedor.getCidade(), fornecedor.getUf());
+    }
 
     private Fornecedor getFornecedorOrThrow(Long id) {
         return fornecedorRepository.findById(id)
@@ -142,6 +230,7 @@ public class FornecedorService {
             .bairro(f.getBairro())
             .cidade(f.getCidade())
             .uf(f.getUf())
+            .statusEnriquecimento(f.getStatusEnriquecimento() != null ? f.getStatusEnriquecimento() : StatusEnriquecimento.CONCLUIDO)
             .criadoEm(f.getCriadoEm())
             .atualizadoEm(f.getAtualizadoEm())
             .empresas(
@@ -159,15 +248,62 @@ public class FornecedorService {
             .build();
     }
 
-    private PageResponse<FornecedorDTO.Response> buildPageResponse(Page<Fornecedor> page) {
+    private PageResponse<FornecedorDTO.Response> buildPageResponse(Slice<Fornecedor> slice, ContagemListagem.Total total) {
         return PageResponse.<FornecedorDTO.Response>builder()
-            .content(page.getContent().stream().map(this::toResponse).collect(Collectors.toList()))
-            .pageNumber(page.getNumber())
-            .pageSize(page.getSize())
-            .totalElements(page.getTotalElements())
-            .totalPages(page.getTotalPages())
-            .first(page.isFirst())
-            .last(page.isLast())
+            .content(slice.getContent().stream().map(this::toResponse).collect(Collectors.toList()))
+            .pageNumber(slice.getNumber())
+            .pageSize(slice.getSize())
+            .totalElements(total != null ? total.valor() : -1)
+            .totalPages(total != null ? paginas(total.valor(), slice.getSize()) : -1)
+            .totalAproximado(total != null && total.aproximado())
+            .first(slice.isFirst())
+            .last(slice.isLast())
             .build();
     }
+
+    private static int paginas(long total, int tamanho) {
+        return tamanho == 0 ? 1 : (int) Math.ceil((double) total / tamanho);
+    }
+
+    // filtros normalizados da listagem; a assinatura identifica a busca no cache de contagens e nos cursores
+    private record Filtros(String nome, String documento, String uf, String cidade, TipoPessoa tipoPessoa,
+                           LocalDate criadoDe, LocalDate criadoAte, Long empresaId) {
+
+        static Filtros de(FornecedorDTO.Filtro filtro) {
+            if (filtro.getCriadoDe() != null && filtro.getCriadoAte() != null
+                    && filtro.getCriadoDe().isAfter(filtro.getCriadoAte())) {
+                throw new BusinessException("Período de criação inválido: criadoDe depois de criadoAte");
+            }
+            return new Filtros(
+                TextoNormalizador.normalizar(filtro.getNome()),
+                TextoNormalizador.documento(filtro.getCpfCnpj()),
+                filtro.getUf() != null ? filtro.getUf().trim().toUpperCase(Locale.ROOT) : "",
+                filtro.getCidade() != null ? filtro.getCidade().trim() : "",
+                filtro.getTipoPessoa(),
+                filtro.getCriadoDe(),
+                filtro.getCriadoAte(),
+                filtro.getEmpresaId());
+        }
+
+        boolean somenteTexto() {
+            return (!nome.isEmpty() || !documento.isEmpty()) && uf.isEmpty() && cidade.isEmpty() && tipoPessoa == null
+                && criadoDe == null && criadoAte == null && empresaId == null;
+        }
+
+        Specification<Fornecedor> especificacao() {
+            return Specification.where(FornecedorSpecifications.filtros(nome, documento))
+                .and(FornecedorSpecifications.uf(uf))
+                .and(FornecedorSpecifications.cidade(cidade))
+                .and(FornecedorSpecifications.tipoPessoa(tipoPessoa))
+                .and(FornecedorSpecifications.criadoEntre(criadoDe, criadoAte))
+                .and(FornecedorSpecifications.vinculadoA(empresaId));
+        }
+
+        // "" sem nenhum filtro: a contagem pode vir da estimativa do banco
+        String assinatura() {
+            String assinatura = String.join("|", nome, documento, uf, cidade, Objects.toString(tipoPessoa, ""),
+                Objects.toString(criadoDe, ""), Objects.toString(criadoAte, ""), Objects.toString(empresaId, ""));
+            return assinatura.replace("|", "").isEmpty() ? "" : assinatura;
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.desafio.fullstack.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem acumulada de latências (em milissegundos) em faixas fixas, no formato "le" do Prometheus:
+ * cada faixa conta as chamadas com latência menor ou igual ao limite, e {@code +Inf} conta todas.
+ */
+public class HistogramaLatencia {
+
+    static final long[] LIMITES = {25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+
+    private final LongAdder[] faixas = new LongAdder[LIMITES.length + 1];
+    private final LongAdder soma = new LongAdder();
+
+    public HistogramaLatencia() {
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = new LongAdder();
+        }
+    }
+
+    public void registrar(long millis) {
+        int i = 0;
+        while (i < LIMITES.length && millis > LIMITES[i]) {
+            i++;
+        }
+        faixas[i].increment();
+        soma.add(millis);
+    }
+
+    public long getSomaMs() {
+        return soma.sum();
+    }
+
+    public Map<String, Long> faixas() {
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        long acumulado = 0;
+        for (int i = 0; i < LIMITES.length; i++) {
+            acumulado += faixas[i].sum();
+            resultado.put(String.valueOf(LIMITES[i]), acumulado);
+        }
+        resultado.put("+Inf", acumulado + faixas[LIMITES.length].sum());
+        return resultado;
+    }
+}
@@ -0,0 +1,80 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.exception.CepLimiteExcedidoException;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Base dos provedores HTTP: cliente compartilhado pelo provedor e leitura do corpo com o {@link CepRespostaParser}.
+ */
+abstract class HttpCepProvider implements CepProvider {
+
+    private final HttpClient httpClient;
+
+    protected HttpCepProvider(Executor executor) {
+        // HTTP/2 multiplexa as consultas na mesma conexão; sem h2 o cliente mantém o pool de conexões HTTP/1.1
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .executor(executor)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    // cancelar o futuro retornado também cancela a requisição HTTP em andamento
+    protected CompletableFuture<CepDTO> enviar(HttpRequest request, Interpretador interpretador) {
+        CompletableFuture<HttpResponse<CepRespostaParser.Campos>> envio =
+            httpClient.sendAsync(request, CepRespostaParser.bodyHandler());
+        CompletableFuture<CepDTO> resultado = envio.thenApply(interpretador::interpretar);
+        resultado.whenComplete((r, ex) -> {
+            if (resultado.isCancelled()) {
+                envio.cancel(true);
+            }
+        });
+        return resultado;
+    }
+
+    protected static CepDTO endereco(String cep, CepRespostaParser.Campos campos) {
+        return CepDTO.builder()
+            .cep(cep)
+            .uf(valor(campos.uf()))
+            .cidade(valor(campos.cidade()))
+            .bairro(valor(campos.bairro()))
+            .logradouro(valor(campos.logradouro()))
+            .valido(true)
+            .build();
+    }
+
+    // HTTP 429: o limitador do provedor pausa pelo Retry-After (segundos), 1s se o cabeçalho não vier
+    protected static CepLimiteExcedidoException limiteExcedido(String provedor, HttpResponse<?> response) {
+        long segundos = response.headers().firstValue("Retry-After")
+            .map(valor -> {
+                try {
+                    return Long.parseLong(valor.trim());
+                } catch (NumberFormatException e) {
+                    return 1L;
+                }
+            })
+            .orElse(1L);
+        return new CepLimiteExcedidoException("Limite de requisições do " + provedor + " excedido: HTTP 429",
+            Duration.ofSeconds(Math.max(1, segundos)));
+    }
+
+    protected static String comBarra(String url) {
+        return url.endsWith("/") ? url : url + "/";
+    }
+
+    private static String valor(String campo) {
+        return campo != null ? campo : "";
+    }
+
+    @FunctionalInterface
+    protected interface Interpretador {
+        CepDTO interpretar(HttpResponse<CepRespostaParser.Campos> response);
+    }
+}
@@ -0,0 +1,43 @@
+package com.desafio.fullstack.service;
+
+import java.util.Arrays;
+
+/**
+ * Janela circular com as últimas latências observadas (em milissegundos), usada para derivar percentis.
+ */
+public class JanelaLatencia {
+
+    private final long[] amostras;
+    private int proxima;
+    private int quantidade;
+
+    public JanelaLatencia(int capacidade) {
+        this.amostras = new long[capacidade];
+    }
+
+    public synchronized void registrar(long millis) {
+        amostras[proxima] = millis;
+        proxima = (proxima + 1) % amostras.length;
+        if (quantidade < amostras.length) {
+            quantidade++;
+        }
+    }
+
+    public synchronized int quantidade() {
+        return quantidade;
+    }
+
+    /** Percentil {@code p} (0 a 1) das amostras atuais, ou -1 se a janela estiver vazia. */
+    public long percentil(double p) {
+        long[] copia;
+        synchronized (this) {
+            if (quantidade == 0) {
+                return -1;
+            }
+            copia = Arrays.copyOf(amostras, quantidade);
+        }
+        Arrays.sort(copia);
+        int indice = (int) Math.ceil(p * copia.length) - 1;
+        return copia[Math.max(0, Math.min(indice, copia.length - 1))];
+    }
+}
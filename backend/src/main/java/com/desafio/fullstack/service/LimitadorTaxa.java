@@ -0,0 +1,236 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.exception.CepLimiteExcedidoException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket das chamadas a um provedor de CEP, com fila de espera limitada e FIFO: quem chega com fila não
+ * vazia entra no fim dela, mesmo que haja token, para ninguém furar a vez. A espera não bloqueia thread — o
+ * futuro de {@link #adquirir()} completa quando a vez chega, ou falha com {@link CepLimiteExcedidoException}
+ * se a fila estiver cheia ou a espera passar de {@code esperaMaxima}. {@code porSegundo <= 0} desliga o limite.
+ */
+public class LimitadorTaxa {
+
+    /** De onde vêm os tokens: do relógio local ou de um balde compartilhado entre as réplicas. */
+    @FunctionalInterface
+    public interface Reabastecimento {
+        /**
+         * Novo saldo de tokens, partindo de {@code atuais}; em geral sem passar de {@code capacidade}. Roda com o
+         * monitor do limitador, na thread de quem chama e no agendador: não pode fazer I/O.
+         */
+        double repor(double atuais, double capacidade);
+    }
+
+    private final String nome;
+    private final double porSegundo;
+    private final double capacidade;
+    private final int tamanhoFila;
+    private final long esperaMaximaNanos;
+    private final Reabastecimento reabastecimento;
+    private final ScheduledExecutorService agendador;
+    private final LongSupplier relogio;
+
+    private final ArrayDeque<Espera> fila = new ArrayDeque<>();
+    private double tokens;
+    private long pausadoAte;
+    private boolean retomarVazio;
+    private boolean drenagemAgendada;
+
+    private final LongAdder imediatas = new LongAdder();
+    private final LongAdder enfileiradas = new LongAdder();
+    private final LongAdder rejeitadas = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+
+    public LimitadorTaxa(String nome, double porSegundo, double capacidade, int tamanhoFila, Duration esperaMaxima,
+                         Reabastecimento reabastecimento, ScheduledExecutorService agendador, LongSupplier relogio) {
+        this.nome = nome;
+        this.porSegundo = porSegundo;
+        this.capacidade = Math.max(1, capacidade);
+        this.tamanhoFila = tamanhoFila;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.reabastecimento = reabastecimento;
+        this.agendador = agendador;
+        this.relogio = relogio;
+        this.tokens = this.capacidade;
+        this.pausadoAte = relogio.getAsLong();
+    }
+
+    /** Reabastecimento pelo relógio local: {@code porSegundo} tokens por segundo decorrido. */
+    public static Reabastecimento local(double porSegundo, LongSupplier relogio) {
+        long[] ultimo = {relogio.getAsLong()};
+        return (atuais, capacidade) -> {
+            long agora = relogio.getAsLong();
+            double novos = (agora - ultimo[0]) * porSegundo / 1_000_000_000.0;
+            ultimo[0] = agora;
+            return Math.min(capacidade, atuais + novos);
+        };
+    }
+
+    /** Sem limite: toda chamada passa na hora. */
+    public static LimitadorTaxa semLimite(String nome) {
+        return new LimitadorTaxa(nome, 0, 1, 0, Duration.ZERO, (atuais, capacidade) -> capacidade, null, System::nanoTime);
+    }
+
+    public CompletableFuture<Void> adquirir() {
+        if (porSegundo <= 0) {
+            imediatas.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+        synchronized (this) {
+            long agora = relogio.getAsLong();
+            if (fila.isEmpty() && !pausado(agora)) {
+                tokens = reabastecimento.repor(tokens, capacidade);
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    imediatas.increment();
+                    return CompletableFuture.completedFuture(null);
+                }
+            }
+            if (fila.size() >= tamanhoFila) {
+                rejeitadas.increment();
+                return CompletableFuture.failedFuture(new CepLimiteExcedidoException(
+                    "Fila de chamadas ao provedor " + nome + " cheia", Duration.ofNanos(nanosAteProximoToken(agora))));
+            }
+            Espera espera = new Espera(agora + esperaMaximaNanos);
+            fila.addLast(espera);
+            enfileiradas.increment();
+            agendarDrenagem(agora);
+            return espera.futuro;
+        }
+    }
+
+    /** Suspende as chamadas até {@code duracao} a partir de agora (ex.: Retry-After de um HTTP 429). */
+    public void pausar(Duration duracao) {
+        if (porSegundo <= 0) {
+            return;
+        }
+        synchronized (this) {
+            long agora = relogio.getAsLong();
+            pausadoAte = Math.max(pausadoAte, agora + duracao.toNanos());
+            tokens = 0;
+            retomarVazio = true;
+            if (!fila.isEmpty()) {
+                agendarDrenagem(agora);
+            }
+        }
+    }
+
+    public synchronized int getNaFila() {
+        return fila.size();
+    }
+
+    public long getImediatas() {
+        return imediatas.sum();
+    }
+
+    public long getEnfileiradas() {
+        return enfileiradas.sum();
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas.sum();
+    }
+
+    public long getExpiradas() {
+        return expiradas.sum();
+    }
+
+    void drenar() {
+        List<Espera> liberadas = new ArrayList<>();
+        List<Espera> vencidas = new ArrayList<>();
+        synchronized (this) {
+            drenagemAgendada = false;
+            long agora = relogio.getAsLong();
+            while (!fila.isEmpty()) {
+                Espera espera = fila.peekFirst();
+                if (espera.futuro.isDone()) {
+                    // cancelada por quem esperava (ex.: o hedge já tem resposta)
+                    fila.pollFirst();
+                    continue;
+                }
+                // FIFO com espera máxima fixa: os prazos vencem na ordem da fila
+                if (agora >= espera.prazo) {
+                    vencidas.add(fila.pollFirst());
+                    continue;
+                }
+                if (pausado(agora)) {
+                    break;
+                }
+                tokens = reabastecimento.repor(tokens, capacidade);
+                if (tokens < 1) {
+                    break;
+                }
+                tokens -= 1;
+                liberadas.add(fila.pollFirst());
+            }
+            if (!fila.isEmpty()) {
+                agendarDrenagem(agora);
+            }
+        }
+
+        for (Espera espera : liberadas) {
+            if (!espera.futuro.complete(null)) {
+                devolverToken();
+            }
+        }
+        for (Espera espera : vencidas) {
+            expiradas.increment();
+            espera.futuro.completeExceptionally(new CepLimiteExcedidoException(
+                "Tempo de espera na fila do provedor " + nome + " esgotado", Duration.ofNanos(esperaMaximaNanos)));
+        }
+    }
+
+    // ao fim da pausa o balde recomeça vazio: o tempo pausado não vira rajada contra quem acabou de responder 429
+    private boolean pausado(long agora) {
+        if (agora < pausadoAte) {
+            return true;
+        }
+        if (retomarVazio) {
+            reabastecimento.repor(capacidade, capacidade);
+            tokens = 0;
+            retomarVazio = false;
+        }
+        return false;
+    }
+
+    private synchronized void devolverToken() {
+        tokens = Math.min(capacidade, tokens + 1);
+    }
+
+    // acorda no que vier primeiro: próximo token, fim da pausa ou prazo da primeira da fila
+    private void agendarDrenagem(long agora) {
+        if (drenagemAgendada) {
+            return;
+        }
+        long atraso = Math.max(pausadoAte - agora, nanosAteProximoToken(agora));
+        Espera primeira = fila.peekFirst();
+        if (primeira != null) {
+            atraso = Math.min(atraso, primeira.prazo - agora);
+        }
+        drenagemAgendada = true;
+        agendador.schedule(this::drenar, Math.max(atraso, TimeUnit.MILLISECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+    }
+
+    private long nanosAteProximoToken(long agora) {
+        double faltam = Math.max(0, 1 - tokens);
+        return (long) (faltam / porSegundo * 1_000_000_000L) + Math.max(0, pausadoAte - agora);
+    }
+
+    private static final class Espera {
+        private final CompletableFuture<Void> futuro = new CompletableFuture<>();
+        private final long prazo;
+
+        private Espera(long prazo) {
+            this.prazo = prazo;
+        }
+    }
+}
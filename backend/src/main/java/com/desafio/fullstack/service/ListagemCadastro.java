@@ -0,0 +1,60 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.enums.TipoCadastro;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Listagem por page/size de empresas e fornecedores. A busca só com texto e sem {@code sort} vem do
+ * {@link CadastroBuscaIndex}, por relevância e com o total do próprio índice. Com {@code sort}, com outros filtros
+ * ou com o índice ainda não pronto, vem do banco na ordem pedida (ou na padrão, por nome): a fatia é lida sem COUNT
+ * e o total vem do {@link ContagemListagem}. Com {@code contar=false} nenhum total é calculado.
+ */
+final class ListagemCadastro {
+
+    private ListagemCadastro() {
+    }
+
+    static <T> Optional<ContagemListagem.Pagina<T>> doIndice(CadastroBuscaIndex indice, TipoCadastro tipo, String texto,
+                                                             String documento, Pageable pageable, boolean contar,
+                                                             Function<List<Long>, List<T>> carregar,
+                                                             Function<T, Long> id) {
+        if (pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+        return indice.buscar(tipo, texto, documento, pageable).map(resultado -> {
+            Map<Long, T> porId = carregar.apply(resultado.ids()).stream()
+                .collect(Collectors.toMap(id, Function.identity()));
+            // excluído depois da busca no índice: some da página
+            List<T> ordenados = resultado.ids().stream().map(porId::get).filter(Objects::nonNull).toList();
+            PageImpl<T> pagina = new PageImpl<>(ordenados, pageable, resultado.total());
+            return new ContagemListagem.Pagina<>(pagina,
+                contar ? new ContagemListagem.Total(pagina.getTotalElements(), false) : null);
+        });
+    }
+
+    static Pageable ordenado(Pageable pageable, Sort padrao) {
+        return pageable.getSort().isSorted() ? pageable
+            : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), padrao);
+    }
+
+    static <T> ContagemListagem.Pagina<T> doBanco(ContagemListagem contagemListagem, String tabela, String filtro,
+                                                  Supplier<Slice<T>> consulta, boolean contar, LongSupplier exato) {
+        if (!contar) {
+            return new ContagemListagem.Pagina<>(consulta.get(), null);
+        }
+        return contagemListagem.ler(tabela, filtro, consulta, exato);
+    }
+}
@@ -0,0 +1,212 @@
+package com.desafio.fullstack.service;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de chave int com tamanho máximo que, cheio, remove a entrada usada há mais tempo. Sem caixa de Integer e sem
+ * nó por entrada: endereçamento aberto com sondagem linear em {@code tabela}, que guarda a posição + 1 da entrada em
+ * {@code chaves}/{@code valores} (0 = vazio), e a ordem de uso é uma lista duplamente ligada pelos arrays
+ * {@code anterior}/{@code proximo}. Os arrays crescem dobrando até {@code tamanhoMaximo}. Não é thread-safe.
+ */
+final class MapaIntLru<V> {
+
+    private static final int NENHUMA = -1;
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    private final int tamanhoMaximo;
+
+    private int[] tabela;
+    private int mascara;
+    private int[] chaves;
+    private Object[] valores;
+    private int[] anterior;
+    private int[] proximo;
+
+    private int tamanho;
+    // posições 0..usadas-1 já passaram por uma entrada; as liberadas ficam na lista livre, ligada por proximo
+    private int usadas;
+    private int livre = NENHUMA;
+    private int maisRecente = NENHUMA;
+    private int menosRecente = NENHUMA;
+
+    MapaIntLru(int tamanhoMaximo) {
+        this.tamanhoMaximo = Math.max(tamanhoMaximo, 0);
+        alocar(Math.max(1, Math.min(this.tamanhoMaximo, CAPACIDADE_INICIAL)));
+    }
+
+    /** Valor da chave, que passa a ser a mais recente; {@code null} se ausente. */
+    V get(int chave) {
+        int posicao = posicao(chave);
+        if (posicao == NENHUMA) {
+            return null;
+        }
+        promover(posicao);
+        return valor(posicao);
+    }
+
+    /** Grava a chave como a mais recente; devolve {@code true} se outra entrada foi removida para abrir espaço. */
+    boolean put(int chave, V valor) {
+        int posicao = posicao(chave);
+        if (posicao != NENHUMA) {
+            valores[posicao] = valor;
+            promover(posicao);
+            return false;
+        }
+        if (tamanhoMaximo == 0) {
+            return true;
+        }
+        boolean removeu = false;
+        if (tamanho == tamanhoMaximo) {
+            liberar(menosRecente);
+            removeu = true;
+        } else if (livre == NENHUMA && usadas == chaves.length) {
+            crescer();
+        }
+        if (livre != NENHUMA) {
+            posicao = livre;
+            livre = proximo[posicao];
+        } else {
+            posicao = usadas++;
+        }
+        chaves[posicao] = chave;
+        valores[posicao] = valor;
+        indexar(posicao);
+        ligarNoInicio(posicao);
+        tamanho++;
+        return removeu;
+    }
+
+    V remove(int chave) {
+        int posicao = posicao(chave);
+        if (posicao == NENHUMA) {
+            return null;
+        }
+        V valor = valor(posicao);
+        liberar(posicao);
+        return valor;
+    }
+
+    int size() {
+        return tamanho;
+    }
+
+    private int posicao(int chave) {
+        for (int i = espalhar(chave) & mascara; ; i = (i + 1) & mascara) {
+            int ocupante = tabela[i];
+            if (ocupante == 0) {
+                return NENHUMA;
+            }
+            if (chaves[ocupante - 1] == chave) {
+                return ocupante - 1;
+            }
+        }
+    }
+
+    private void indexar(int posicao) {
+        int i = espalhar(chaves[posicao]) & mascara;
+        while (tabela[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        tabela[i] = posicao + 1;
+    }
+
+    private void liberar(int posicao) {
+        desligar(posicao);
+        desindexar(posicao);
+        valores[posicao] = null;
+        proximo[posicao] = livre;
+        livre = posicao;
+        tamanho--;
+    }
+
+    // sem lápide: as entradas seguintes do mesmo trecho voltam para o buraco se ele estiver no caminho da sondagem delas
+    private void desindexar(int posicao) {
+        int buraco = espalhar(chaves[posicao]) & mascara;
+        while (tabela[buraco] != posicao + 1) {
+            buraco = (buraco + 1) & mascara;
+        }
+        for (int i = (buraco + 1) & mascara; tabela[i] != 0; i = (i + 1) & mascara) {
+            int ideal = espalhar(chaves[tabela[i] - 1]) & mascara;
+            boolean ficaOndeEsta = buraco <= i ? buraco < ideal && ideal <= i : buraco < ideal || ideal <= i;
+            if (!ficaOndeEsta) {
+                tabela[buraco] = tabela[i];
+                buraco = i;
+            }
+        }
+        tabela[buraco] = 0;
+    }
+
+    private void promover(int posicao) {
+        if (posicao != maisRecente) {
+            desligar(posicao);
+            ligarNoInicio(posicao);
+        }
+    }
+
+    private void desligar(int posicao) {
+        int antes = anterior[posicao];
+        int depois = proximo[posicao];
+        if (antes != NENHUMA) {
+            proximo[antes] = depois;
+        } else {
+            maisRecente = depois;
+        }
+        if (depois != NENHUMA) {
+            anterior[depois] = antes;
+        } else {
+            menosRecente = antes;
+        }
+    }
+
+    private void ligarNoInicio(int posicao) {
+        anterior[posicao] = NENHUMA;
+        proximo[posicao] = maisRecente;
+        if (maisRecente != NENHUMA) {
+            anterior[maisRecente] = posicao;
+        } else {
+            menosRecente = posicao;
+        }
+        maisRecente = posicao;
+    }
+
+    // só cresce com todas as posições ocupadas, então todas voltam para a tabela nova
+    private void crescer() {
+        int capacidade = (int) Math.min((long) chaves.length * 2, tamanhoMaximo);
+        int[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+        int[] anteriorAntigo = anterior;
+        int[] proximoAntigo = proximo;
+        alocar(capacidade);
+        System.arraycopy(chavesAntigas, 0, chaves, 0, usadas);
+        System.arraycopy(valoresAntigos, 0, valores, 0, usadas);
+        System.arraycopy(anteriorAntigo, 0, anterior, 0, usadas);
+        System.arraycopy(proximoAntigo, 0, proximo, 0, usadas);
+        for (int posicao = 0; posicao < usadas; posicao++) {
+            indexar(posicao);
+        }
+    }
+
+    // tabela com pelo menos o dobro da capacidade: ocupação máxima de 50%, sondagens curtas
+    private void alocar(int capacidade) {
+        int tamanhoTabela = Integer.highestOneBit(Math.max(2, capacidade * 2 - 1)) << 1;
+        tabela = new int[tamanhoTabela];
+        mascara = tamanhoTabela - 1;
+        chaves = new int[capacidade];
+        valores = new Object[capacidade];
+        anterior = new int[capacidade];
+        proximo = new int[capacidade];
+        Arrays.fill(anterior, NENHUMA);
+        Arrays.fill(proximo, NENHUMA);
+    }
+
+    // CEPs vizinhos são inteiros consecutivos; o espalhamento evita trechos longos de sondagem
+    private static int espalhar(int chave) {
+        int h = chave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valor(int posicao) {
+        return (V) valores[posicao];
+    }
+}
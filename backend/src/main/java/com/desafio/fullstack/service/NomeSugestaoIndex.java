@@ -0,0 +1,319 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.SugestaoNomeDTO;
+import com.desafio.fullstack.enums.TipoCadastro;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.repository.NomeCadastro;
+import com.desafio.fullstack.util.TextoNormalizador;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória de nomes de empresas e fornecedores para sugestões a cada tecla, sem ir ao banco. Cada nome
+ * normalizado é quebrado em trigramas (com um espaço antes de cada palavra, para "sa" casar com o começo de
+ * "sao"); cada trigrama aponta para uma lista ordenada de chaves {@code long} (id e tipo). Buscas de 1 ou 2
+ * caracteres usam o início das palavras; a partir de 3, a interseção das listas e a conferência do trecho.
+ * {@code maximo-nomes} e {@code maximo-caracteres} limitam a memória.
+ */
+@Slf4j
+@Component
+public class NomeSugestaoIndex {
+
+    private static final int LOTE_CARGA = 1_000;
+    private static final int BASE = 37;
+
+    private final EmpresaRepository empresaRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final int maximoNomes;
+    private final int maximoCaracteres;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Registro> registros = new HashMap<>();
+    private final Map<Integer, Postings> porGrama = new HashMap<>();
+    private long descartados;
+
+    public NomeSugestaoIndex(EmpresaRepository empresaRepository, FornecedorRepository fornecedorRepository,
+                             @Value("${app.busca.sugestoes.maximo-nomes:500000}") int maximoNomes,
+                             @Value("${app.busca.sugestoes.maximo-caracteres:60}") int maximoCaracteres) {
+        this.empresaRepository = empresaRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.maximoNomes = maximoNomes;
+        this.maximoCaracteres = maximoCaracteres;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        List<NomeCadastro> lote = empresaRepository.findNomesAposId(0L, PageRequest.of(0, LOTE_CARGA));
+        while (!lote.isEmpty()) {
+            lote.forEach(n -> registrar(TipoCadastro.EMPRESA, n.getId(), n.getNome()));
+            lote = empresaRepository.findNomesAposId(lote.get(lote.size() - 1).getId(), PageRequest.of(0, LOTE_CARGA));
+        }
+        lote = fornecedorRepository.findNomesAposId(0L, PageRequest.of(0, LOTE_CARGA));
+        while (!lote.isEmpty()) {
+            lote.forEach(n -> registrar(TipoCadastro.FORNECEDOR, n.getId(), n.getNome()));
+            lote = fornecedorRepository.findNomesAposId(lote.get(lote.size() - 1).getId(), PageRequest.of(0, LOTE_CARGA));
+        }
+        log.info("Índice de sugestões com {} nome(s) e {} trigrama(s)", tamanho(), gramas());
+    }
+
+    // chamado depois do commit da gravação; substitui o nome anterior do mesmo cadastro
+    public void registrar(TipoCadastro tipo, Long id, String nome) {
+        long chave = chave(tipo, id);
+        String normalizado = TextoNormalizador.normalizar(nome);
+        if (normalizado.length() > maximoCaracteres) {
+            normalizado = normalizado.substring(0, maximoCaracteres).trim();
+        }
+
+        lock.writeLock().lock();
+        try {
+            Registro anterior = registros.get(chave);
+            if (anterior != null) {
+                if (anterior.normalizado.equals(normalizado)) {
+                    registros.put(chave, new Registro(nome, normalizado));
+                    return;
+                }
+                desindexar(chave, anterior);
+            } else if (registros.size() >= maximoNomes) {
+                if (descartados++ == 0) {
+                    log.warn("Índice de sugestões cheio ({} nomes); novos cadastros ficam fora das sugestões", maximoNomes);
+                }
+                return;
+            }
+            Registro novo = new Registro(nome, normalizado);
+            registros.put(chave, novo);
+            for (int grama : gramas(normalizado)) {
+                porGrama.computeIfAbsent(grama, g -> new Postings()).adicionar(chave);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(TipoCadastro tipo, Long id) {
+        long chave = chave(tipo, id);
+        lock.writeLock().lock();
+        try {
+            Registro anterior = registros.remove(chave);
+            if (anterior != null) {
+                desindexar(chave, anterior);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void desindexar(long chave, Registro registro) {
+        for (int grama : gramas(registro.normalizado)) {
+            Postings postings = porGrama.get(grama);
+            if (postings != null && postings.remover(chave) && postings.tamanho == 0) {
+                porGrama.remove(grama);
+            }
+        }
+    }
+
+    /**
+     * Nomes que contêm o texto (ou, com 1 e 2 caracteres, que têm palavra começando por ele). Primeiro os que
+     * começam pelo texto, depois os que têm palavra começando por ele, depois o resto; empate pelo nome mais curto.
+     * {@code tipo} nulo traz empresas e fornecedores.
+     */
+    public List<SugestaoNomeDTO> sugerir(String texto, TipoCadastro tipo, int limite) {
+        String busca = TextoNormalizador.normalizar(texto);
+        if (busca.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        if (busca.length() > maximoCaracteres) {
+            busca = busca.substring(0, maximoCaracteres).trim();
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] candidatos = candidatos(busca);
+            List<Candidato> encontrados = new ArrayList<>();
+            for (long chave : candidatos) {
+                if (tipo != null && tipo(chave) != tipo) {
+                    continue;
+                }
+                Registro registro = registros.get(chave);
+                int posicao = registro.normalizado.indexOf(busca);
+                if (posicao < 0) {
+                    continue;
+                }
+                int classe = posicao == 0 ? 0 : registro.normalizado.contains(" " + busca) ? 1 : 2;
+                encontrados.add(new Candidato(chave, registro, classe));
+            }
+            return encontrados.stream()
+                .sorted(Comparator.comparingInt(Candidato::classe)
+                    .thenComparingInt(c -> c.registro().normalizado.length())
+                    .thenComparing(c -> c.registro().normalizado))
+                .limit(limite)
+                .map(c -> new SugestaoNomeDTO(tipo(c.chave()), id(c.chave()), c.registro().nome))
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // lista de chaves que têm todos os trigramas da busca, começando pela menor lista
+    private long[] candidatos(String busca) {
+        if (busca.length() < 3) {
+            Postings postings = porGrama.get(codificar(" " + busca));
+            return postings != null ? postings.copia() : new long[0];
+        }
+        List<Postings> listas = new ArrayList<>();
+        for (int grama : gramasBusca(busca)) {
+            Postings postings = porGrama.get(grama);
+            if (postings == null) {
+                return new long[0];
+            }
+            listas.add(postings);
+        }
+        listas.sort(Comparator.comparingInt(p -> p.tamanho));
+        long[] resultado = listas.get(0).copia();
+        int tamanho = resultado.length;
+        for (int i = 1; i < listas.size() && tamanho > 0; i++) {
+            tamanho = intersectar(resultado, tamanho, listas.get(i));
+        }
+        return Arrays.copyOf(resultado, tamanho);
+    }
+
+    // mantém em resultado[0..tamanho) só as chaves presentes nas postings; as duas listas estão ordenadas
+    private static int intersectar(long[] resultado, int tamanho, Postings postings) {
+        int escrito = 0;
+        int inicio = 0;
+        for (int i = 0; i < tamanho; i++) {
+            int pos = Arrays.binarySearch(postings.chaves, inicio, postings.tamanho, resultado[i]);
+            if (pos >= 0) {
+                resultado[escrito++] = resultado[i];
+                inicio = pos + 1;
+            } else {
+                inicio = -pos - 1;
+            }
+        }
+        return escrito;
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return registros.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int gramas() {
+        lock.readLock().lock();
+        try {
+            return porGrama.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // trigramas de " nome normalizado" mais o bigrama " x" do início de cada palavra
+    private static int[] gramas(String normalizado) {
+        String texto = " " + normalizado;
+        int[] gramas = new int[Math.max(texto.length() - 2, 0) + palavras(normalizado)];
+        int n = 0;
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            gramas[n++] = codificar(texto.substring(i, i + 3));
+        }
+        for (int i = 0; i < texto.length() - 1; i++) {
+            if (texto.charAt(i) == ' ') {
+                gramas[n++] = codificar(texto.substring(i, i + 2));
+            }
+        }
+        return Arrays.stream(gramas, 0, n).distinct().toArray();
+    }
+
+    private static int[] gramasBusca(String busca) {
+        int[] gramas = new int[busca.length() - 2];
+        for (int i = 0; i < gramas.length; i++) {
+            gramas[i] = codificar(busca.substring(i, i + 3));
+        }
+        return Arrays.stream(gramas).distinct().toArray();
+    }
+
+    private static int palavras(String normalizado) {
+        return normalizado.isEmpty() ? 0 : normalizado.split(" ").length;
+    }
+
+    // [a-z0-9 ] em base 37; bigramas e trigramas não colidem porque o primeiro símbolo nunca é zero
+    private static int codificar(String grama) {
+        int codigo = 0;
+        for (int i = 0; i < grama.length(); i++) {
+            char c = grama.charAt(i);
+            int simbolo = c == ' ' ? 1 : c <= '9' ? 2 + (c - '0') : 12 + (c - 'a');
+            codigo = codigo * BASE + simbolo;
+        }
+        return codigo;
+    }
+
+    private static long chave(TipoCadastro tipo, Long id) {
+        return (id << 1) | (tipo == TipoCadastro.FORNECEDOR ? 1 : 0);
+    }
+
+    private static TipoCadastro tipo(long chave) {
+        return (chave & 1) == 1 ? TipoCadastro.FORNECEDOR : TipoCadastro.EMPRESA;
+    }
+
+    private static long id(long chave) {
+        return chave >>> 1;
+    }
+
+    private record Registro(String nome, String normalizado) {
+    }
+
+    private record Candidato(long chave, Registro registro, int classe) {
+    }
+
+    /** Lista ordenada de chaves em um {@code long[]} que cresce por dobra. */
+    private static final class Postings {
+        private long[] chaves = new long[4];
+        private int tamanho;
+
+        void adicionar(long chave) {
+            int pos = Arrays.binarySearch(chaves, 0, tamanho, chave);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (tamanho == chaves.length) {
+                chaves = Arrays.copyOf(chaves, tamanho * 2);
+            }
+            System.arraycopy(chaves, pos, chaves, pos + 1, tamanho - pos);
+            chaves[pos] = chave;
+            tamanho++;
+        }
+
+        boolean remover(long chave) {
+            int pos = Arrays.binarySearch(chaves, 0, tamanho, chave);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(chaves, pos + 1, chaves, pos, tamanho - pos - 1);
+            tamanho--;
+            if (tamanho > 4 && tamanho < chaves.length / 4) {
+                chaves = Arrays.copyOf(chaves, chaves.length / 2);
+            }
+            return true;
+        }
+
+        long[] copia() {
+            return Arrays.copyOf(chaves, tamanho);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.PageResponse;
+import com.desafio.fullstack.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Paginação por cursor (keyset) das listagens. A página seguinte começa depois da chave de ordenação + id do
+ * último item, então o custo não cresce com a profundidade e inserções concorrentes não deslocam linhas entre
+ * páginas. Os tokens {@code next}/{@code prev} são opacos para o cliente: Base64 (URL) de um JSON com direção,
+ * ordenação, chaves e a assinatura dos filtros, que precisam ser os mesmos da primeira página.
+ */
+final class PaginacaoCursor {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // campos ordenáveis de cada listagem e como o valor da chave volta do token
+    static final Map<String, Function<String, Object>> CAMPOS_EMPRESA = Map.of(
+        "nomeFantasia", v -> v, "cnpj", v -> v, "criadoEm", LocalDateTime::parse, "id", Long::valueOf);
+    static final Map<String, Function<String, Object>> CAMPOS_FORNECEDOR = Map.of(
+        "nome", v -> v, "cpfCnpj", v -> v, "criadoEm", LocalDateTime::parse, "id", Long::valueOf);
+
+    record Cursor(boolean avancar, List<String> ordem, Map<String, String> chaves, String filtro) {
+    }
+
+    private PaginacaoCursor() {
+    }
+
+    /**
+     * Lê uma página a partir do {@code token} (vazio = primeira página, com a ordenação do {@code pageable}). O
+     * tamanho vem do {@code pageable}; número da página e totais não são calculados e voltam como -1.
+     */
+    static <T, R> PageResponse<R> rolar(JpaSpecificationExecutor<T> repository, Specification<T> especificacao,
+                                        String filtro, Map<String, Function<String, Object>> campos, String token,
+                                        Pageable pageable, Function<T, R> conversor) {
+        Sort ordem;
+        KeysetScrollPosition posicao;
+        if (token.isBlank()) {
+            ordem = ordenacao(pageable.getSort(), campos);
+            posicao = ScrollPosition.keyset();
+        } else {
+            Cursor cursor = decodificar(token);
+            if (!cursor.filtro().equals(filtro)) {
+                throw new BusinessException("O cursor não corresponde aos filtros da busca");
+            }
+            ordem = ordenacao(Sort.by(cursor.ordem().stream().map(PaginacaoCursor::ordemDoToken).toList()), campos);
+            Map<String, Object> chaves = new LinkedHashMap<>();
+            cursor.chaves().forEach((campo, valor) -> chaves.put(campo, converter(campos, campo, valor)));
+            posicao = cursor.avancar() ? ScrollPosition.forward(chaves) : ScrollPosition.backward(chaves);
+        }
+
+        int tamanho = pageable.getPageSize();
+        Window<T> janela = repository.findBy(especificacao, consulta -> consulta.sortBy(ordem).limit(tamanho).scroll(posicao));
+
+        String anterior = null;
+        String proximo = null;
+        if (!janela.isEmpty()) {
+            KeysetScrollPosition primeiro = (KeysetScrollPosition) janela.positionAt(0);
+            KeysetScrollPosition ultimo = (KeysetScrollPosition) janela.positionAt(janela.size() - 1);
+            // para trás, hasNext indica que ainda há itens antes desta página
+            boolean haAntes = posicao.scrollsBackward() ? janela.hasNext() : !posicao.isInitial();
+            boolean haDepois = posicao.scrollsBackward() || janela.hasNext();
+            anterior = haAntes ? codificar(new Cursor(false, tokens(ordem), texto(primeiro.getKeys()), filtro)) : null;
+            proximo = haDepois ? codificar(new Cursor(true, tokens(ordem), texto(ultimo.getKeys()), filtro)) : null;
+        }
+
+        return PageResponse.<R>builder()
+            .content(janela.getContent().stream().map(conversor).toList())
+            .pageNumber(-1)
+            .pageSize(tamanho)
+            .totalElements(-1)
+            .totalPages(-1)
+            .first(anterior == null)
+            .last(proximo == null)
+            .next(proximo)
+            .prev(anterior)
+            .build();
+    }
+
+    // só campos com índice (campo, id); o id entra por último, na direção do último critério, para a chave ser única
+    static Sort ordenacao(Sort pedida, Map<String, Function<String, Object>> campos) {
+        List<Sort.Order> ordens = new ArrayList<>();
+        Sort.Direction direcao = Sort.Direction.ASC;
+        for (Sort.Order ordem : pedida) {
+            if (!campos.containsKey(ordem.getProperty())) {
+                throw new BusinessException("Ordenação não suportada na paginação por cursor: " + ordem.getProperty());
+            }
+            if (!ordem.getProperty().equals("id")) {
+                ordens.add(new Sort.Order(ordem.getDirection(), ordem.getProperty()));
+            }
+            direcao = ordem.getDirection();
+        }
+        ordens.add(new Sort.Order(direcao, "id"));
+        return Sort.by(ordens);
+    }
+
+    static String codificar(Cursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(JSON.writeValueAsBytes(cursor));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Cursor decodificar(String token) {
+        try {
+            Cursor cursor = JSON.readValue(Base64.getUrlDecoder().decode(token), Cursor.class);
+            if (cursor.ordem() == null || cursor.chaves() == null || cursor.filtro() == null) {
+                throw new BusinessException("Cursor de paginação inválido");
+            }
+            return cursor;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+    }
+
+    private static Object converter(Map<String, Function<String, Object>> campos, String campo, String valor) {
+        Function<String, Object> conversor = campos.get(campo);
+        if (conversor == null) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+        try {
+            return conversor.apply(valor);
+        } catch (RuntimeException e) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+    }
+
+    private static List<String> tokens(Sort ordem) {
+        return ordem.stream().map(o -> o.getProperty() + ":" + o.getDirection()).toList();
+    }
+
+    private static Sort.Order ordemDoToken(String token) {
+        int separador = token.lastIndexOf(':');
+        if (separador < 0) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+        try {
+            return new Sort.Order(Sort.Direction.valueOf(token.substring(separador + 1)), token.substring(0, separador));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+    }
+
+    private static Map<String, String> texto(Map<String, ?> chaves) {
+        Map<String, String> texto = new LinkedHashMap<>();
+        chaves.forEach((campo, valor) -> texto.put(campo, String.valueOf(valor)));
+        return texto;
+    }
+}
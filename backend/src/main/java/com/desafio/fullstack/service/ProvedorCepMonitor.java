@@ -0,0 +1,195 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import com.desafio.fullstack.exception.CepLimiteExcedidoException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estado de saúde de um provedor de CEP: circuit breaker, latências recentes e o timeout derivado delas,
+ * além das médias móveis exponenciais (EWMA) de latência e de taxa de sucesso usadas pelo {@link CepRoteador}.
+ */
+public class ProvedorCepMonitor {
+
+    private static final int AMOSTRAS_MINIMAS = 20;
+    private static final double SUCESSO_MINIMO = 0.01;
+
+    private final CepProvider provedor;
+    private final CircuitBreaker circuitBreaker;
+    private final LimitadorTaxa limitador;
+    private final JanelaLatencia latencia = new JanelaLatencia(256);
+    private final HistogramaLatencia histograma = new HistogramaLatencia();
+    private final Duration timeoutMinimo;
+    private final Duration timeoutMaximo;
+    private final double fatorTimeout;
+    private final double alfa;
+
+    private double ewmaLatencia = -1;
+    private double ewmaSucesso = 1.0;
+
+    public ProvedorCepMonitor(CepProvider provedor, CircuitBreaker circuitBreaker, LimitadorTaxa limitador,
+                              Duration timeoutMinimo, Duration timeoutMaximo, double fatorTimeout, double alfa) {
+        this.provedor = provedor;
+        this.circuitBreaker = circuitBreaker;
+        this.limitador = limitador;
+        this.timeoutMinimo = timeoutMinimo;
+        this.timeoutMaximo = timeoutMaximo;
+        this.fatorTimeout = fatorTimeout;
+        this.alfa = alfa;
+    }
+
+    public String getNome() {
+        return provedor.getNome();
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public LimitadorTaxa getLimitador() {
+        return limitador;
+    }
+
+    public JanelaLatencia getLatencia() {
+        return latencia;
+    }
+
+    public HistogramaLatencia getHistograma() {
+        return histograma;
+    }
+
+    /** p99 recente multiplicado por {@code fatorTimeout}; o máximo enquanto não há amostras suficientes. */
+    public Duration timeout() {
+        if (latencia.quantidade() < AMOSTRAS_MINIMAS) {
+            return timeoutMaximo;
+        }
+        long calculado = (long) (latencia.percentil(0.99) * fatorTimeout);
+        return Duration.ofMillis(Math.max(timeoutMinimo.toMillis(), Math.min(calculado, timeoutMaximo.toMillis())));
+    }
+
+    public boolean permitir() {
+        return circuitBreaker.permitir();
+    }
+
+    public void registrarSucesso(long millis) {
+        latencia.registrar(millis);
+        histograma.registrar(millis);
+        circuitBreaker.registrarSucesso(millis);
+        atualizarEwma(millis, 1.0);
+    }
+
+    public void registrarFalha(long millis) {
+        histograma.registrar(millis);
+        circuitBreaker.registrarFalha(millis);
+        atualizarEwma(millis, 0.0);
+    }
+
+    /**
+     * Chamada cancelada porque outro provedor respondeu antes. Não conta para o circuit breaker, mas o tempo
+     * decorrido é um limite inferior da latência e entra na EWMA: sem isso um provedor lento, sempre vencido
+     * pelo hedge, nunca pareceria lento.
+     */
+    public void liberar(long millis) {
+        circuitBreaker.liberar();
+        synchronized (this) {
+            if (millis > ewmaLatencia) {
+                ewmaLatencia = ewmaLatencia < 0 ? millis : alfa * millis + (1 - alfa) * ewmaLatencia;
+            }
+        }
+    }
+
+    public synchronized double getEwmaLatencia() {
+        return ewmaLatencia;
+    }
+
+    public synchronized double getEwmaSucesso() {
+        return ewmaSucesso;
+    }
+
+    /**
+     * Tempo esperado, em milissegundos, para obter uma resposta deste provedor: latência média dividida pela
+     * taxa de sucesso. {@link Double#POSITIVE_INFINITY} enquanto não há medição.
+     */
+    public synchronized double custo() {
+        if (ewmaLatencia < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.max(ewmaLatencia, 1) / Math.max(ewmaSucesso, SUCESSO_MINIMO);
+    }
+
+    /**
+     * Consulta o provedor com o timeout atual, registrando o resultado. Circuito aberto falha na hora; depois a
+     * chamada aguarda a vez no {@link LimitadorTaxa}, e a latência só é medida a partir do envio.
+     */
+    CompletableFuture<CepDTO> consultar(String cep) {
+        if (!permitir()) {
+            return CompletableFuture.failedFuture(
+                new CepIndisponivelException("Circuito aberto para o provedor " + getNome()));
+        }
+
+        CompletableFuture<CepDTO> chamada = new CompletableFuture<>();
+        CompletableFuture<Void> vez = limitador.adquirir();
+        chamada.whenComplete((r, ex) -> {
+            if (chamada.isCancelled()) {
+                vez.cancel(false);
+            }
+        });
+        vez.whenComplete((v, erro) -> {
+            if (erro != null || chamada.isDone()) {
+                // recusada pelo limitador ou cancelada na fila: não é resultado do provedor
+                circuitBreaker.liberar();
+                if (erro != null) {
+                    chamada.completeExceptionally(erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro);
+                }
+                return;
+            }
+            enviar(cep, chamada);
+        });
+        return chamada;
+    }
+
+    private void enviar(String cep, CompletableFuture<CepDTO> chamada) {
+        long inicio = System.nanoTime();
+        CompletableFuture<CepDTO> envio;
+        try {
+            envio = provedor.consultar(cep, timeout());
+        } catch (RuntimeException e) {
+            envio = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<CepDTO> requisicao = envio;
+        // cancelar a chamada cancela a requisição HTTP em andamento
+        chamada.whenComplete((r, ex) -> {
+            if (chamada.isCancelled()) {
+                requisicao.cancel(true);
+            }
+        });
+        requisicao.whenComplete((r, ex) -> {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            // "não encontrado" conta como sucesso, cancelamento não conta
+            if (requisicao.isCancelled()) {
+                liberar(millis);
+                return;
+            }
+            if (ex != null) {
+                Throwable causa = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                registrarFalha(millis);
+                if (causa instanceof CepLimiteExcedidoException limite) {
+                    limitador.pausar(limite.getRetryAfter());
+                }
+                chamada.completeExceptionally(causa);
+            } else {
+                registrarSucesso(millis);
+                chamada.complete(r);
+            }
+        });
+    }
+
+    private synchronized void atualizarEwma(long millis, double sucesso) {
+        ewmaLatencia = ewmaLatencia < 0 ? millis : alfa * millis + (1 - alfa) * ewmaLatencia;
+        ewmaSucesso = alfa * sucesso + (1 - alfa) * ewmaSucesso;
+    }
+}
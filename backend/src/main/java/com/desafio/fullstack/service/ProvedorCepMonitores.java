@@ -0,0 +1,42 @@
+package com.desafio.fullstack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Um {@link ProvedorCepMonitor} por {@link CepProvider} registrado, na ordem de preferência declarada.
+ */
+@Component
+public class ProvedorCepMonitores {
+
+    private final List<ProvedorCepMonitor> monitores;
+
+    public ProvedorCepMonitores(
+            List<CepProvider> provedores,
+            CepLimitadores limitadores,
+            @Value("${app.cep.circuit-breaker.janela:20}") int janela,
+            @Value("${app.cep.circuit-breaker.chamadas-minimas:10}") int chamadasMinimas,
+            @Value("${app.cep.circuit-breaker.taxa-falha:50}") double taxaFalha,
+            @Value("${app.cep.circuit-breaker.taxa-lenta:80}") double taxaLenta,
+            @Value("${app.cep.circuit-breaker.chamada-lenta:2s}") Duration chamadaLenta,
+            @Value("${app.cep.circuit-breaker.tempo-aberto:30s}") Duration tempoAberto,
+            @Value("${app.cep.circuit-breaker.chamadas-meio-aberto:3}") int chamadasMeioAberto,
+            @Value("${app.cep.timeout.minimo:500ms}") Duration timeoutMinimo,
+            @Value("${app.cep.timeout.maximo:5s}") Duration timeoutMaximo,
+            @Value("${app.cep.timeout.fator:1.5}") double fatorTimeout,
+            @Value("${app.cep.roteamento.alfa:0.2}") double alfa) {
+        this.monitores = provedores.stream()
+            .map(provedor -> new ProvedorCepMonitor(provedor,
+                new CircuitBreaker(janela, chamadasMinimas, taxaFalha, taxaLenta, chamadaLenta, tempoAberto, chamadasMeioAberto, System::nanoTime),
+                limitadores.criar(provedor.getNome()),
+                timeoutMinimo, timeoutMaximo, fatorTimeout, alfa))
+            .toList();
+    }
+
+    public List<ProvedorCepMonitor> todos() {
+        return monitores;
+    }
+}
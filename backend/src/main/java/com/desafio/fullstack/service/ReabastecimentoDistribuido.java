@@ -0,0 +1,75 @@
+package com.desafio.fullstack.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reabastecimento do {@link LimitadorTaxa} pelo {@link BaldeTokensDistribuido} sem I/O dentro do monitor do
+ * limitador: {@link #repor} só soma os tokens que já chegaram e, quando o saldo local cai para metade do lote,
+ * dispara a reserva do próximo lote no {@code executor}. Quando a reserva traz tokens, {@code aoReceber} acorda a
+ * fila do limitador.
+ */
+@Slf4j
+class ReabastecimentoDistribuido implements LimitadorTaxa.Reabastecimento {
+
+    private final String provedor;
+    private final BaldeTokensDistribuido balde;
+    private final int lote;
+    private final double porSegundo;
+    private final double rajada;
+    private final Executor executor;
+
+    private final AtomicInteger recebidos = new AtomicInteger();
+    private final AtomicBoolean reservando = new AtomicBoolean();
+    private volatile Runnable aoReceber = () -> { };
+
+    ReabastecimentoDistribuido(String provedor, BaldeTokensDistribuido balde, int lote, double porSegundo, double rajada,
+                               Executor executor) {
+        this.provedor = provedor;
+        this.balde = balde;
+        this.lote = lote;
+        this.porSegundo = porSegundo;
+        this.rajada = rajada;
+        this.executor = executor;
+    }
+
+    void aoReceber(Runnable aoReceber) {
+        this.aoReceber = aoReceber;
+    }
+
+    // tokens já reservados não são descartados pelo teto local: valem para o cluster e já saíram do balde
+    @Override
+    public double repor(double atuais, double capacidade) {
+        double saldo = atuais + recebidos.getAndSet(0);
+        if (saldo <= lote / 2.0 && reservando.compareAndSet(false, true)) {
+            reservar();
+        }
+        return saldo;
+    }
+
+    private void reservar() {
+        CompletableFuture<Integer> reserva;
+        try {
+            reserva = CompletableFuture.supplyAsync(() -> balde.reservar(provedor, lote, porSegundo, rajada), executor);
+        } catch (RejectedExecutionException e) {
+            reservando.set(false);
+            return;
+        }
+        reserva.whenComplete((tokens, erro) -> {
+            if (erro != null) {
+                log.warn("Falha ao reservar tokens do balde {}: {}", provedor, erro.getMessage());
+            } else if (tokens > 0) {
+                recebidos.addAndGet(tokens);
+            }
+            reservando.set(false);
+            if (erro == null && tokens > 0) {
+                aoReceber.run();
+            }
+        });
+    }
+}
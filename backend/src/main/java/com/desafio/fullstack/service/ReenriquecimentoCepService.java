@@ -0,0 +1,234 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.dto.ReenriquecimentoDTO;
+import com.desafio.fullstack.entity.ReenriquecimentoExecucao;
+import com.desafio.fullstack.exception.BusinessException;
+import com.desafio.fullstack.repository.CepEnderecoRepository;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.repository.ReenriquecimentoExecucaoRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Renova o endereço dos cadastros consultando cada CEP distinto em uso uma única vez e atualizando em massa
+ * todas as empresas e fornecedores daquele CEP. Percorre os CEPs em ordem, em lotes de {@code app.cep.reenriquecimento.lote},
+ * e grava um checkpoint ao fim de cada lote: se a aplicação parar no meio, a próxima execução continua dali.
+ */
+@Slf4j
+@Service
+public class ReenriquecimentoCepService {
+
+    static final String JOB = "enderecos-por-cep";
+
+    private final CepEnderecoRepository cepEnderecoRepository;
+    private final EmpresaRepository empresaRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final ReenriquecimentoExecucaoRepository execucaoRepository;
+    private final CepService cepService;
+    private final EnderecoAutocompleteIndex enderecoAutocompleteIndex;
+    private final CadastroBuscaIndex cadastroBuscaIndex;
+    private final ContagemListagem contagemListagem;
+    private final TransactionOperations transactionOperations;
+    private final Executor consultas;
+    private final Executor coordenador;
+    private final int lote;
+
+    private final AtomicBoolean executando = new AtomicBoolean();
+
+    @Autowired
+    public ReenriquecimentoCepService(
+            CepEnderecoRepository cepEnderecoRepository,
+            EmpresaRepository empresaRepository,
+            FornecedorRepository fornecedorRepository,
+            ReenriquecimentoExecucaoRepository execucaoRepository,
+            CepService cepService,
+            EnderecoAutocompleteIndex enderecoAutocompleteIndex,
+            CadastroBuscaIndex cadastroBuscaIndex,
+            ContagemListagem contagemListagem,
+            TransactionOperations transactionOperations,
+            @Qualifier("cepReenriquecimentoExecutor") Executor consultas,
+            @Value("${app.cep.reenriquecimento.lote:200}") int lote) {
+        this(cepEnderecoRepository, empresaRepository, fornecedorRepository, execucaoRepository, cepService,
+            enderecoAutocompleteIndex, cadastroBuscaIndex, contagemListagem, transactionOperations, consultas, Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "cep-reenriquecimento-job");
+                t.setDaemon(true);
+                return t;
+            }), lote);
+    }
+
+    ReenriquecimentoCepService(CepEnderecoRepository cepEnderecoRepository, EmpresaRepository empresaRepository,
+                               FornecedorRepository fornecedorRepository, ReenriquecimentoExecucaoRepository execucaoRepository,
+                               CepService cepService, EnderecoAutocompleteIndex enderecoAutocompleteIndex,
+                               CadastroBuscaIndex cadastroBuscaIndex, ContagemListagem contagemListagem,
+                               TransactionOperations transactionOperations, Executor consultas, Executor coordenador, int lote) {
+        this.cepEnderecoRepository = cepEnderecoRepository;
+        this.empresaRepository = empresaRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.execucaoRepository = execucaoRepository;
+        this.cepService = cepService;
+        this.enderecoAutocompleteIndex = enderecoAutocompleteIndex;
+        this.cadastroBuscaIndex = cadastroBuscaIndex;
+        this.contagemListagem = contagemListagem;
+        this.transactionOperations = transactionOperations;
+        this.consultas = consultas;
+        this.coordenador = coordenador;
+        this.lote = lote;
+    }
+
+    /**
+     * Dispara o job em segundo plano. Continua do checkpoint se a última execução não terminou, a menos que
+     * {@code recomecar} seja verdadeiro.
+     */
+    public ReenriquecimentoDTO iniciar(boolean recomecar) {
+        if (!executando.compareAndSet(false, true)) {
+            throw new BusinessException("O reenriquecimento de endereços já está em execução");
+        }
+        try {
+            coordenador.execute(() -> {
+                try {
+                    executar(recomecar);
+                } catch (RuntimeException e) {
+                    log.error("Reenriquecimento de endereços interrompido: {}", e.getMessage(), e);
+                } finally {
+                    executando.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            executando.set(false);
+            throw e;
+        }
+        return status();
+    }
+
+    // "-" (padrão) desliga o agendamento; o job continua disponível sob demanda
+    @Scheduled(cron = "${app.cep.reenriquecimento.cron:-}")
+    public void agendado() {
+        try {
+            iniciar(false);
+        } catch (BusinessException e) {
+            log.info("Reenriquecimento agendado ignorado: execução anterior ainda em andamento");
+        }
+    }
+
+    public ReenriquecimentoDTO status() {
+        return execucaoRepository.findById(JOB)
+            .map(e -> ReenriquecimentoDTO.builder()
+                .executando(executando.get())
+                .concluido(e.isConcluido())
+                .ultimoCep(e.getUltimoCep())
+                .totalCeps(e.getTotalCeps())
+                .cepsProcessados(e.getCepsProcessados())
+                .registrosAtualizados(e.getRegistrosAtualizados())
+                .cepsNaoEncontrados(e.getCepsNaoEncontrados())
+                .falhas(e.getFalhas())
+                .percentual(e.isConcluido() || e.getTotalCeps() == 0 ? 100.0
+                    : Math.min(100.0, 100.0 * e.getCepsProcessados() / e.getTotalCeps()))
+                .iniciadoEm(e.getIniciadoEm())
+                .atualizadoEm(e.getAtualizadoEm())
+                .concluidoEm(e.getConcluidoEm())
+                .build())
+            .orElseGet(() -> ReenriquecimentoDTO.builder().executando(executando.get()).build());
+    }
+
+    void executar(boolean recomecar) {
+        ReenriquecimentoExecucao execucao = execucaoRepository.findById(JOB)
+            .filter(e -> !e.isConcluido() && !recomecar)
+            .orElseGet(this::novaExecucao);
+        log.info("Reenriquecimento de endereços a partir do CEP '{}' ({} de {} processados)",
+            execucao.getUltimoCep(), execucao.getCepsProcessados(), execucao.getTotalCeps());
+
+        List<String> ceps;
+        while (!(ceps = cepEnderecoRepository.findCepsEmUsoApos(execucao.getUltimoCep(), lote)).isEmpty()) {
+            processarLote(execucao, ceps);
+            execucao = execucaoRepository.save(execucao);
+            log.info("Reenriquecimento: {}/{} CEPs, {} cadastro(s) atualizado(s), {} falha(s)",
+                execucao.getCepsProcessados(), execucao.getTotalCeps(), execucao.getRegistrosAtualizados(), execucao.getFalhas());
+        }
+
+        execucao.setConcluido(true);
+        execucao.setConcluidoEm(LocalDateTime.now());
+        execucaoRepository.save(execucao);
+    }
+
+    private ReenriquecimentoExecucao novaExecucao() {
+        return ReenriquecimentoExecucao.builder()
+            .nome(JOB)
+            .ultimoCep("")
+            .totalCeps(cepEnderecoRepository.countCepsEmUso())
+            .iniciadoEm(LocalDateTime.now())
+            .build();
+    }
+
+    // o lote inteiro é consultado em paralelo (limitado pelo executor) e o checkpoint só avança depois de todos
+    private void processarLote(ReenriquecimentoExecucao execucao, List<String> ceps) {
+        List<CompletableFuture<CepDTO>> resultados = new ArrayList<>(ceps.size());
+        for (String cep : ceps) {
+            resultados.add(CompletableFuture.supplyAsync(() -> cepService.reconsultar(cep), consultas));
+        }
+
+        for (int i = 0; i < ceps.size(); i++) {
+            String cep = ceps.get(i);
+            try {
+                CepDTO endereco = resultados.get(i).join();
+                if (endereco.isValido()) {
+                    execucao.setRegistrosAtualizados(execucao.getRegistrosAtualizados() + atualizar(cep, endereco));
+                } else {
+                    execucao.setCepsNaoEncontrados(execucao.getCepsNaoEncontrados() + 1);
+                }
+            } catch (CompletionException e) {
+                log.debug("Reenriquecimento do CEP {} falhou: {}", cep, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                execucao.setFalhas(execucao.getFalhas() + 1);
+            }
+            execucao.setCepsProcessados(execucao.getCepsProcessados() + 1);
+        }
+        execucao.setUltimoCep(ceps.get(ceps.size() - 1));
+    }
+
+    private int atualizar(String cep, CepDTO endereco) {
+        String logradouro = valor(endereco.getLogradouro());
+        String bairro = valor(endereco.getBairro());
+        String cidade = valor(endereco.getCidade());
+        String uf = valor(endereco.getUf());
+
+        Integer atualizados = transactionOperations.execute(status ->
+            empresaRepository.atualizarEnderecoPorCep(cep, logradouro, bairro, cidade, uf)
+                + fornecedorRepository.atualizarEnderecoPorCep(cep, logradouro, bairro, cidade, uf));
+        if (atualizados != null && atualizados > 0) {
+            enderecoAutocompleteIndex.registrar(cep, logradouro, bairro, cidade, uf);
+            cadastroBuscaIndex.reindexarCep(cep);
+            // cidade e UF entram nos filtros das listagens
+            contagemListagem.invalidar(EmpresaService.TABELA);
+            contagemListagem.invalidar(FornecedorService.TABELA);
+        }
+        return atualizados != null ? atualizados : 0;
+    }
+
+    private static String valor(String campo) {
+        return campo != null ? campo : "";
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (coordenador instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+}
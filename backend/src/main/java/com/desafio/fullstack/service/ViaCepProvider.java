@@ -0,0 +1,65 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@Component
+@Order(2)
+public class ViaCepProvider extends HttpCepProvider {
+
+    public static final String NOME = "viacep";
+
+    private final String url;
+
+    public ViaCepProvider(@Qualifier("cepExecutor") Executor executor,
+                          @Value("${app.cep.provedores.viacep.url:https://viacep.com.br/ws/}") String url) {
+        super(executor);
+        this.url = comBarra(url);
+    }
+
+    @Override
+    public String getNome() {
+        return NOME;
+    }
+
+    @Override
+    public CompletableFuture<CepDTO> consultar(String cep, Duration timeout) {
+        return enviar(HttpRequest.newBuilder()
+            .uri(URI.create(url + cep + "/json/"))
+            .timeout(timeout)
+            .GET()
+            .build(), response -> interpretar(cep, response));
+    }
+
+    private CepDTO interpretar(String cep, HttpResponse<CepRespostaParser.Campos> response) {
+        if (response.statusCode() == 200) {
+            CepRespostaParser.Campos campos = response.body();
+
+            if (campos.erro()) {
+                return CepDTO.builder()
+                    .cep(cep)
+                    .valido(false)
+                    .mensagem("CEP não encontrado")
+                    .build();
+            }
+
+            return endereco(cep, campos);
+        }
+
+        if (response.statusCode() == 429) {
+            throw limiteExcedido("ViaCEP", response);
+        }
+        throw new CepIndisponivelException("Erro ao consultar ViaCEP: HTTP " + response.statusCode());
+    }
+}
@@ -0,0 +1,48 @@
+package com.desafio.fullstack.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização usada nas buscas: sem acentos, minúsculas e apenas letras/dígitos separados por um espaço.
+ * "São José - Comércio" vira "sao jose comercio".
+ */
+public final class TextoNormalizador {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern DOCUMENTO = Pattern.compile("[\\d.\\-/\\s]*\\d[\\d.\\-/\\s]*");
+    private static final Pattern NAO_DIGITOS = Pattern.compile("\\D+");
+
+    private TextoNormalizador() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return "";
+        }
+        String semAcento = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcento.toLowerCase()).replaceAll(" ").trim();
+    }
+
+    // CPF/CNPJ digitado com ou sem máscara vira só dígitos; qualquer outro texto não é documento e vira ""
+    public static String documento(String texto) {
+        if (texto == null || !DOCUMENTO.matcher(texto).matches()) {
+            return "";
+        }
+        return NAO_DIGITOS.matcher(texto).replaceAll("");
+    }
+
+    public static List<String> tokens(String texto) {
+        String normalizado = normalizar(texto);
+        List<String> tokens = new ArrayList<>();
+        if (!normalizado.isEmpty()) {
+            for (String token : normalizado.split(" ")) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,5 @@
+-- Roda depois do ddl-auto (spring.jpa.defer-datasource-initialization); tudo idempotente.
+-- O H2 não tem trigramas: LIKE '%termo%' continua varrendo a tabela, o que basta para o banco em memória do dev.
+-- Estes índices atendem buscas por prefixo e a ordenação por nome.
+CREATE INDEX IF NOT EXISTS idx_empresas_nome_busca ON empresas (nome_busca);
+CREATE INDEX IF NOT EXISTS idx_fornecedores_nome_busca ON fornecedores (nome_busca);
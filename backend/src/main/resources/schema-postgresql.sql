@@ -0,0 +1,15 @@
+-- Roda depois do ddl-auto (spring.jpa.defer-datasource-initialization); tudo idempotente.
+-- Busca por substring em empresas e fornecedores: LIKE '%termo%' usa os índices GIN de trigramas.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- cadastros gravados antes da coluna nome_busca: mesma normalização do TextoNormalizador
+UPDATE empresas SET nome_busca = trim(regexp_replace(lower(unaccent(nome_fantasia)), '[^a-z0-9]+', ' ', 'g'))
+WHERE nome_busca IS NULL;
+UPDATE fornecedores SET nome_busca = trim(regexp_replace(lower(unaccent(nome)), '[^a-z0-9]+', ' ', 'g'))
+WHERE nome_busca IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_empresas_nome_busca_trgm ON empresas USING gin (nome_busca gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_empresas_cnpj_trgm ON empresas USING gin (cnpj gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_fornecedores_nome_busca_trgm ON fornecedores USING gin (nome_busca gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_fornecedores_cpf_cnpj_trgm ON fornecedores USING gin (cpf_cnpj gin_trgm_ops);
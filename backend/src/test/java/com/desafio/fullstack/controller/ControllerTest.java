@@ -96,7 +96,7 @@ class ControllerTest {
                     .pageNumber(0).pageSize(10).totalElements(1).totalPages(1)
                     .first(true).last(true).build();
 
-            when(empresaService.findAll(anyString(), any())).thenReturn(page);
+            when(empresaService.findAll(any(), eq(true), any())).thenReturn(page);
 
             empresaMockMvc.perform(get("/api/empresas"))
                     .andExpect(status().isOk())
@@ -105,6 +105,23 @@ class ControllerTest {
                     .andExpect(jsonPath("$.totalElements").value(1));
         }
 
+        @Test
+        @DisplayName("GET /api/empresas?cursor= - Deve paginar por cursor e devolver o próximo token")
+        void deveListarEmpresasPorCursor() throws Exception {
+            var page = PageResponse.<EmpresaDTO.Response>builder()
+                    .content(List.of(empresaResponse()))
+                    .pageNumber(-1).pageSize(10).totalElements(-1).totalPages(-1)
+                    .first(true).last(false).next("abc").build();
+
+            when(empresaService.findAllPorCursor(any(), eq(""), any())).thenReturn(page);
+
+            empresaMockMvc.perform(get("/api/empresas").param("cursor", ""))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.next").value("abc"))
+                    .andExpect(jsonPath("$.prev").doesNotExist());
+            verify(empresaService, never()).findAll(any(), anyBoolean(), any());
+        }
+
         @Test
         @DisplayName("GET /api/empresas/{id} - Deve retornar empresa por ID")
         void deveBuscarEmpresaPorId() throws Exception {
@@ -229,7 +246,7 @@ class ControllerTest {
                     .pageNumber(0).pageSize(10).totalElements(1).totalPages(1)
                     .first(true).last(true).build();
 
-            when(fornecedorService.findAll(anyString(), anyString(), any())).thenReturn(page);
+            when(fornecedorService.findAll(any(), eq(true), any())).thenReturn(page);
 
             fornecedorMockMvc.perform(get("/api/fornecedores")
                             .param("nome", "João")
@@ -239,6 +256,45 @@ class ControllerTest {
                     .andExpect(jsonPath("$.content[0].tipoPessoa").value("FISICA"));
         }
 
+        @Test
+        @DisplayName("GET /api/fornecedores - Deve repassar UF, tipo de pessoa e período ao serviço")
+        void deveRepassarFiltrosDeFornecedores() throws Exception {
+            var page = PageResponse.<FornecedorDTO.Response>builder()
+                    .content(List.of(fornecedorResponse()))
+                    .pageNumber(0).pageSize(10).totalElements(1).totalPages(1)
+                    .first(true).last(true).build();
+
+            when(fornecedorService.findAll(argThat(f -> "PR".equals(f.getUf()) && f.getTipoPessoa() == TipoPessoa.FISICA
+                    && f.getCriadoDe().equals(LocalDate.of(2024, 1, 1)) && Long.valueOf(1L).equals(f.getEmpresaId())),
+                    eq(true), any())).thenReturn(page);
+
+            fornecedorMockMvc.perform(get("/api/fornecedores")
+                            .param("uf", "PR")
+                            .param("tipoPessoa", "FISICA")
+                            .param("criadoDe", "2024-01-01")
+                            .param("empresaId", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].uf").value("SP"));
+        }
+
+        @Test
+        @DisplayName("GET /api/fornecedores?contar=false - Deve listar sem calcular o total")
+        void deveListarFornecedoresSemContar() throws Exception {
+            var page = PageResponse.<FornecedorDTO.Response>builder()
+                    .content(List.of(fornecedorResponse()))
+                    .pageNumber(0).pageSize(10).totalElements(-1).totalPages(-1)
+                    .first(true).last(true).build();
+
+            when(fornecedorService.findAll(any(), eq(false), any())).thenReturn(page);
+
+            fornecedorMockMvc.perform(get("/api/fornecedores")
+                            .param("nome", "João")
+                            .param("contar", "false"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].nome").value("João Silva"))
+                    .andExpect(jsonPath("$.totalElements").value(-1));
+        }
+
         @Test
         @DisplayName("POST /api/fornecedores - Deve criar PF e retornar 201")
         void deveCriarFornecedorPF() throws Exception {
@@ -0,0 +1,166 @@
+package com.desafio.fullstack.repository;
+
+import com.desafio.fullstack.util.TextoNormalizador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca por substring numa tabela de um milhão de empresas: o LIKE antigo sobre LOWER(nome_fantasia) contra o
+ * LIKE sobre nome_busca e cnpj. Não roda no {@code mvn test}: execute o {@code main} pela IDE depois do
+ * {@code mvn test-compile}. Por padrão usa H2 em memória (sem índice de trigramas, mostra a varredura); para
+ * medir os índices GIN, aponte para o Postgres do docker-compose:
+ * {@code -Dbusca.url=jdbc:postgresql://localhost:5432/desafiodb -Dbusca.usuario=desafio -Dbusca.senha=desafio123}.
+ * A tabela {@code bench_empresas} é recriada a cada execução.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuscaCadastroBenchmark {
+
+    private static final String[] PREFIXOS = {"Comércio", "Indústria", "Distribuidora", "Transportes", "Padaria",
+            "Mercado", "Construtora", "Farmácia", "Auto Peças", "Papelaria"};
+    private static final String[] NOMES = {"São José", "Boa Vista", "Irmãos Souza", "Paraná", "Três Rios",
+            "Açaí do Norte", "Pioneira", "Vale Verde", "Horizonte", "Capivari", "Guaíra", "Iguaçu"};
+
+    @Param({"1000000"})
+    public int linhas;
+
+    private Connection conexao;
+    private PreparedStatement legado;
+    private PreparedStatement porNome;
+    private PreparedStatement porCnpj;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        String url = System.getProperty("busca.url", "jdbc:h2:mem:busca;DB_CLOSE_DELAY=-1");
+        conexao = DriverManager.getConnection(url,
+                System.getProperty("busca.usuario", "sa"), System.getProperty("busca.senha", ""));
+        boolean postgres = url.startsWith("jdbc:postgresql");
+
+        try (Statement st = conexao.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS bench_empresas");
+            st.execute("CREATE TABLE bench_empresas (id BIGINT PRIMARY KEY, nome_fantasia VARCHAR(200) NOT NULL, "
+                    + "nome_busca VARCHAR(200), cnpj VARCHAR(14) NOT NULL)");
+        }
+        popular();
+        try (Statement st = conexao.createStatement()) {
+            if (postgres) {
+                st.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                st.execute("CREATE INDEX ON bench_empresas USING gin (nome_busca gin_trgm_ops)");
+                st.execute("CREATE INDEX ON bench_empresas USING gin (cnpj gin_trgm_ops)");
+                st.execute("ANALYZE bench_empresas");
+            } else {
+                st.execute("CREATE INDEX ON bench_empresas (nome_busca)");
+            }
+        }
+
+        legado = conexao.prepareStatement("SELECT id FROM bench_empresas "
+                + "WHERE LOWER(nome_fantasia) LIKE LOWER(CONCAT('%', ?, '%')) OR cnpj LIKE CONCAT('%', ?, '%') LIMIT 10");
+        porNome = conexao.prepareStatement("SELECT id FROM bench_empresas "
+                + "WHERE nome_busca LIKE CONCAT('%', ?, '%') LIMIT 10");
+        porCnpj = conexao.prepareStatement("SELECT id FROM bench_empresas "
+                + "WHERE cnpj LIKE CONCAT('%', ?, '%') LIMIT 10");
+    }
+
+    private void popular() throws SQLException {
+        Random random = new Random(42);
+        conexao.setAutoCommit(false);
+        try (PreparedStatement insert = conexao.prepareStatement(
+                "INSERT INTO bench_empresas (id, nome_fantasia, nome_busca, cnpj) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= linhas; i++) {
+                String nome = PREFIXOS[random.nextInt(PREFIXOS.length)] + " " + NOMES[random.nextInt(NOMES.length)]
+                        + " " + i;
+                insert.setLong(1, i);
+                insert.setString(2, nome);
+                insert.setString(3, TextoNormalizador.normalizar(nome));
+                insert.setString(4, String.format("%014d", Math.floorMod(random.nextLong(), 100_000_000_000_000L)));
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                    conexao.commit();
+                }
+            }
+            insert.executeBatch();
+            conexao.commit();
+        }
+        conexao.setAutoCommit(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws SQLException {
+        conexao.close();
+    }
+
+    // termo raro: o pior caso da varredura, que precisa ler a tabela inteira para achar poucas linhas
+    @Benchmark
+    public int legadoNomeRaro() throws SQLException {
+        legado.setString(1, "Irmãos Souza 99999");
+        legado.setString(2, "Irmãos Souza 99999");
+        return contar(legado);
+    }
+
+    @Benchmark
+    public int nomeBuscaRaro() throws SQLException {
+        porNome.setString(1, TextoNormalizador.normalizar("Irmãos Souza 99999"));
+        return contar(porNome);
+    }
+
+    @Benchmark
+    public int legadoCnpj() throws SQLException {
+        legado.setString(1, "48213907");
+        legado.setString(2, "48213907");
+        return contar(legado);
+    }
+
+    @Benchmark
+    public int cnpj() throws SQLException {
+        porCnpj.setString(1, "48213907");
+        return contar(porCnpj);
+    }
+
+    private static int contar(PreparedStatement consulta) throws SQLException {
+        int total = 0;
+        try (ResultSet rs = consulta.executeQuery()) {
+            while (rs.next()) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BuscaCadastroBenchmark.class.getSimpleName())
+                .jvmArgsAppend(System.getProperties().stringPropertyNames().stream()
+                        .filter(nome -> nome.startsWith("busca."))
+                        .map(nome -> "-D" + nome + "=" + System.getProperty(nome))
+                        .toArray(String[]::new))
+                .build()).run();
+    }
+}
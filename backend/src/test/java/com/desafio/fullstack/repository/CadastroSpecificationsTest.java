@@ -0,0 +1,163 @@
+package com.desafio.fullstack.repository;
+
+import com.desafio.fullstack.entity.Empresa;
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.TipoPessoa;
+import com.desafio.fullstack.util.TextoNormalizador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class CadastroSpecificationsTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    private Empresa padaria;
+
+    @BeforeEach
+    void setUp() {
+        Empresa saoJose = empresa("11222333000181", "São José Comércio", "PR", "Curitiba", LocalDate.of(2024, 1, 10));
+        padaria = empresa("44555666000199", "Padaria Central", "PR", "Londrina", LocalDate.of(2024, 1, 31));
+        empresa("77888999000100", "Mercado Sul", "SC", "Joinville", LocalDate.of(2024, 2, 1));
+
+        Fornecedor joao = fornecedor("12345678909", TipoPessoa.FISICA, "João Silva", "PR");
+        fornecedor("98765432000110", TipoPessoa.JURIDICA, "João Distribuidora", "PR");
+        fornecedor("11122233344", TipoPessoa.FISICA, "João Souza", "SC");
+        padaria.getFornecedores().add(joao);
+        saoJose.getFornecedores().add(joao);
+        em.flush();
+        em.clear();
+    }
+
+    private List<String> empresas(Specification<Empresa> especificacao) {
+        return empresaRepository.findAll(especificacao, Sort.by("nomeFantasia")).stream()
+            .map(Empresa::getNomeFantasia).toList();
+    }
+
+    private List<String> fornecedores(Specification<Fornecedor> especificacao) {
+        return fornecedorRepository.findAll(especificacao, Sort.by("nome")).stream().map(Fornecedor::getNome).toList();
+    }
+
+    @Test
+    @DisplayName("Deve buscar pelo nome normalizado ou pelos dígitos do CNPJ")
+    void deveBuscarPorNomeOuDocumento() {
+        assertEquals(List.of("São José Comércio"), empresas(EmpresaSpecifications.busca("sao jose", "")));
+        assertEquals(List.of("Padaria Central"), empresas(EmpresaSpecifications.busca("", "555666")));
+        assertEquals(3, empresas(Specification.where(EmpresaSpecifications.busca("", ""))).size());
+    }
+
+    @Test
+    @DisplayName("Busca digitada com acentos, pontuação ou máscara deve casar depois de normalizada como no serviço")
+    void deveBuscarTextoDigitadoNormalizado() {
+        assertEquals(List.of("São José Comércio"), empresas(EmpresaSpecifications.busca(
+            TextoNormalizador.normalizar("  São José - Comércio "), TextoNormalizador.documento("  São José - Comércio "))));
+        assertEquals(List.of("São José Comércio"), empresas(EmpresaSpecifications.busca(
+            TextoNormalizador.normalizar("11.222.333"), TextoNormalizador.documento("11.222.333"))));
+        assertEquals(List.of("João Distribuidora", "João Silva", "João Souza"),
+            fornecedores(FornecedorSpecifications.filtros(TextoNormalizador.normalizar("João"), "")));
+        assertEquals(List.of("João Silva"),
+            fornecedores(FornecedorSpecifications.filtros("", TextoNormalizador.documento("123.456.78"))));
+    }
+
+    @Test
+    @DisplayName("Deve combinar só os filtros informados")
+    void deveCombinarFiltrosInformados() {
+        Specification<Empresa> doParana = Specification.where(EmpresaSpecifications.busca("", ""))
+            .and(EmpresaSpecifications.uf("PR"))
+            .and(EmpresaSpecifications.cidade(""));
+
+        assertEquals(List.of("Padaria Central", "São José Comércio"), empresas(doParana));
+        assertEquals(List.of("Padaria Central"), empresas(doParana.and(EmpresaSpecifications.cidade("Londrina"))));
+        assertEquals(2, empresaRepository.count(doParana));
+    }
+
+    @Test
+    @DisplayName("Período de criação deve incluir o último dia inteiro")
+    void deveFiltrarPeriodoInclusivo() {
+        assertEquals(List.of("Padaria Central", "São José Comércio"),
+            empresas(EmpresaSpecifications.criadoEntre(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 31))));
+        assertEquals(List.of("Mercado Sul"), empresas(EmpresaSpecifications.criadoEntre(LocalDate.of(2024, 2, 1), null)));
+    }
+
+    @Test
+    @DisplayName("Deve filtrar fornecedores por tipo, UF e empresa vinculada")
+    void deveFiltrarFornecedores() {
+        Specification<Fornecedor> pessoasFisicasDoParana = Specification.where(FornecedorSpecifications.filtros("joao", ""))
+            .and(FornecedorSpecifications.tipoPessoa(TipoPessoa.FISICA))
+            .and(FornecedorSpecifications.uf("PR"));
+
+        assertEquals(List.of("João Silva"), fornecedores(pessoasFisicasDoParana));
+        assertEquals(List.of("João Silva"), fornecedores(FornecedorSpecifications.vinculadoA(padaria.getId())));
+        assertEquals(1, fornecedorRepository.count(FornecedorSpecifications.vinculadoA(padaria.getId())));
+    }
+
+    @Test
+    @DisplayName("findSlice deve ler a página pelo offset e só indicar se há próxima")
+    void deveLerFatiaPorOffset() {
+        Specification<Empresa> todas = Specification.where(EmpresaSpecifications.busca("", ""));
+
+        Slice<Empresa> primeira = empresaRepository.findSlice(todas, PageRequest.of(0, 2, Sort.by("nomeFantasia")));
+        Slice<Empresa> segunda = empresaRepository.findSlice(todas, PageRequest.of(1, 2, Sort.by("nomeFantasia")));
+
+        assertEquals(List.of("Mercado Sul", "Padaria Central"),
+            primeira.getContent().stream().map(Empresa::getNomeFantasia).toList());
+        assertTrue(primeira.hasNext());
+        assertEquals(List.of("São José Comércio"), segunda.getContent().stream().map(Empresa::getNomeFantasia).toList());
+        assertFalse(segunda.hasNext());
+    }
+
+    @Test
+    @DisplayName("Busca por relevância deve trazer documento exato, depois prefixo, depois trecho")
+    void deveOrdenarPorRelevancia() {
+        Slice<Empresa> comS = empresaRepository.findSlice(EmpresaSpecifications.buscaPorRelevancia("s", ""),
+            PageRequest.of(0, 10));
+        Slice<Fornecedor> porDocumento = fornecedorRepository.findSlice(
+            FornecedorSpecifications.buscaPorRelevancia("1112223", "1112223"), PageRequest.of(0, 10));
+        Slice<Fornecedor> joaos = fornecedorRepository.findSlice(FornecedorSpecifications.buscaPorRelevancia("joao", ""),
+            PageRequest.of(0, 2));
+
+        // "sao jose" começa com o termo; "mercado sul" só o contém
+        assertEquals(List.of("São José Comércio", "Mercado Sul"),
+            comS.getContent().stream().map(Empresa::getNomeFantasia).toList());
+        assertEquals(List.of("João Souza"), porDocumento.getContent().stream().map(Fornecedor::getNome).toList());
+        assertEquals(List.of("João Distribuidora", "João Silva"), joaos.getContent().stream().map(Fornecedor::getNome).toList());
+        assertTrue(joaos.hasNext());
+    }
+
+    private Empresa empresa(String cnpj, String nome, String uf, String cidade, LocalDate criadoEm) {
+        Empresa empresa = em.persist(Empresa.builder().cnpj(cnpj).nomeFantasia(nome).cep("80010000").uf(uf)
+            .cidade(cidade).build());
+        em.flush();
+        // criado_em não é atualizável pela entidade
+        em.getEntityManager().createNativeQuery("UPDATE empresas SET criado_em = ? WHERE id = ?")
+            .setParameter(1, criadoEm.atTime(15, 0))
+            .setParameter(2, empresa.getId())
+            .executeUpdate();
+        return empresa;
+    }
+
+    private Fornecedor fornecedor(String cpfCnpj, TipoPessoa tipo, String nome, String uf) {
+        return em.persist(Fornecedor.builder().cpfCnpj(cpfCnpj).tipoPessoa(tipo).nome(nome)
+            .email(cpfCnpj + "@email.com").cep("80010000").uf(uf).build());
+    }
+}
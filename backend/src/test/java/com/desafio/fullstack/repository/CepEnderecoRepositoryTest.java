@@ -0,0 +1,54 @@
+package com.desafio.fullstack.repository;
+
+import com.desafio.fullstack.entity.CepEndereco;
+import com.desafio.fullstack.entity.Empresa;
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.TipoPessoa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class CepEnderecoRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private CepEnderecoRepository repository;
+
+    @Test
+    @DisplayName("Semeadura deve copiar o endereço inteiro do cadastro mais recente do CEP")
+    void deveSemearLinhaInteiraDoCadastroMaisRecente() {
+        Empresa antiga = em.persist(Empresa.builder().cnpj("11222333000181").nomeFantasia("Antiga").cep("80010000")
+            .logradouro("Rua Velha").bairro("Zona Sul").cidade("Curitiba").uf("PR").build());
+        Fornecedor recente = em.persist(Fornecedor.builder().cpfCnpj("12345678909").tipoPessoa(TipoPessoa.FISICA)
+            .nome("Recente").email("r@email.com").cep("80010000").logradouro("Avenida Nova").bairro("Centro")
+            .cidade("Curitiba").uf("PR").build());
+        em.flush();
+        atualizadoEm("empresas", antiga.getId(), LocalDateTime.of(2024, 1, 1, 0, 0));
+        atualizadoEm("fornecedores", recente.getId(), LocalDateTime.of(2024, 6, 1, 0, 0));
+
+        assertEquals(1, repository.semearDeEnderecosCadastrados());
+        assertEquals(0, repository.semearDeEnderecosCadastrados());
+
+        em.clear();
+        CepEndereco semeado = repository.findById("80010000").orElseThrow();
+        // "Avenida Nova"/"Centro" e não o MAX de cada coluna ("Rua Velha"/"Zona Sul")
+        assertEquals("Avenida Nova", semeado.getLogradouro());
+        assertEquals("Centro", semeado.getBairro());
+    }
+
+    private void atualizadoEm(String tabela, Long id, LocalDateTime quando) {
+        em.getEntityManager().createNativeQuery("UPDATE " + tabela + " SET atualizado_em = ? WHERE id = ?")
+            .setParameter(1, quando)
+            .setParameter(2, id)
+            .executeUpdate();
+    }
+}
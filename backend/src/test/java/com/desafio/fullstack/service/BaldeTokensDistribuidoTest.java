@@ -0,0 +1,51 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.entity.BaldeTokens;
+import com.desafio.fullstack.repository.BaldeTokensRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BaldeTokensDistribuidoTest {
+
+    private final BaldeTokensRepository repository = mock(BaldeTokensRepository.class);
+    private final AtomicLong relogioMs = new AtomicLong(10_000);
+    private final BaldeTokensDistribuido balde = new BaldeTokensDistribuido(
+            repository, TransactionOperations.withoutTransaction(), relogioMs::get);
+
+    @Test
+    @DisplayName("Deve criar o balde cheio e retirar o lote pedido")
+    void deveCriarBaldeCheio() {
+        when(repository.findParaAtualizar("viacep")).thenReturn(Optional.empty());
+
+        assertEquals(5, balde.reservar("viacep", 5, 10, 40));
+
+        verify(repository).saveAndFlush(argThat(b -> b.getTokens() == 35 && b.getAtualizadoEmMs() == 10_000));
+    }
+
+    @Test
+    @DisplayName("Deve repor pelo tempo decorrido e conceder só tokens inteiros")
+    void deveReporPeloTempoDecorrido() {
+        BaldeTokens salvo = BaldeTokens.builder().nome("viacep").tokens(0.5).atualizadoEmMs(9_800).build();
+        when(repository.findParaAtualizar("viacep")).thenReturn(Optional.of(salvo));
+
+        // 200ms a 10/s = 2 tokens; 2,5 no balde
+        assertEquals(2, balde.reservar("viacep", 5, 10, 40));
+        assertEquals(0.5, salvo.getTokens(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Falha no banco deve negar tokens em vez de propagar")
+    void falhaNoBancoDeveNegarTokens() {
+        when(repository.findParaAtualizar("viacep")).thenThrow(new QueryTimeoutException("lock timeout"));
+
+        assertEquals(0, balde.reservar("viacep", 5, 10, 40));
+    }
+}
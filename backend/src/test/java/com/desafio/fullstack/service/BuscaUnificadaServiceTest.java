@@ -0,0 +1,110 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.BuscaDTO;
+import com.desafio.fullstack.entity.Empresa;
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.Correspondencia;
+import com.desafio.fullstack.enums.TipoCadastro;
+import com.desafio.fullstack.enums.TipoPessoa;
+import com.desafio.fullstack.exception.BusinessException;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.util.TextoNormalizador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BuscaUnificadaServiceTest {
+
+    @Mock
+    private EmpresaRepository empresaRepository;
+
+    @Mock
+    private FornecedorRepository fornecedorRepository;
+
+    private BuscaUnificadaService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BuscaUnificadaService(Runnable::run, empresaRepository, fornecedorRepository, 20);
+    }
+
+    private static Empresa empresa(long id, String cnpj, String nome) {
+        return Empresa.builder().id(id).cnpj(cnpj).nomeFantasia(nome).nomeBusca(TextoNormalizador.normalizar(nome))
+            .cep("80010000").uf("PR").build();
+    }
+
+    private static Fornecedor fornecedor(long id, String cpfCnpj, String nome) {
+        return Fornecedor.builder().id(id).cpfCnpj(cpfCnpj).tipoPessoa(TipoPessoa.FISICA).nome(nome)
+            .nomeBusca(TextoNormalizador.normalizar(nome)).cep("80010000").uf("SC").build();
+    }
+
+    @Test
+    @DisplayName("Deve juntar empresas e fornecedores por relevância e depois pelo nome")
+    void deveMesclarPorRelevancia() {
+        Pageable pagina = PageRequest.of(0, 3);
+        when(empresaRepository.findSlice(any(), eq(pagina))).thenReturn(new SliceImpl<>(List.of(
+            empresa(1L, "11222333000181", "Silva Comércio"),
+            empresa(2L, "44555666000199", "Padaria Silva")), pagina, false));
+        when(fornecedorRepository.findSlice(any(), eq(pagina))).thenReturn(new SliceImpl<>(List.of(
+            fornecedor(3L, "12345678909", "Ana Silva")), pagina, true));
+
+        BuscaDTO.Response resposta = service.buscar("silva", 3);
+
+        assertEquals(List.of("Silva Comércio", "Ana Silva", "Padaria Silva"),
+            resposta.getItens().stream().map(BuscaDTO.Item::getNome).toList());
+        assertEquals(List.of(TipoCadastro.EMPRESA, TipoCadastro.FORNECEDOR, TipoCadastro.EMPRESA),
+            resposta.getItens().stream().map(BuscaDTO.Item::getTipo).toList());
+        assertEquals(Correspondencia.PREFIXO, resposta.getItens().get(0).getCorrespondencia());
+        assertEquals(Correspondencia.TRECHO, resposta.getItens().get(1).getCorrespondencia());
+        assertFalse(resposta.isMaisEmpresas());
+        assertTrue(resposta.isMaisFornecedores());
+    }
+
+    @Test
+    @DisplayName("Documento exato deve vir antes de qualquer nome")
+    void deveColocarDocumentoExatoPrimeiro() {
+        when(empresaRepository.findSlice(any(), any())).thenReturn(new SliceImpl<>(List.of(
+            empresa(1L, "12345678000100", "123 Alimentos"))));
+        when(fornecedorRepository.findSlice(any(), any())).thenReturn(new SliceImpl<>(List.of(
+            fornecedor(2L, "12345678909", "Zeca"))));
+
+        BuscaDTO.Response resposta = service.buscar("123.456.789-09", 5);
+
+        assertEquals(Correspondencia.DOCUMENTO_EXATO, resposta.getItens().get(0).getCorrespondencia());
+        assertEquals("Zeca", resposta.getItens().get(0).getNome());
+        assertEquals(Correspondencia.TRECHO, resposta.getItens().get(1).getCorrespondencia());
+    }
+
+    @Test
+    @DisplayName("Deve limitar cada tipo ao máximo configurado")
+    void deveLimitarPorTipo() {
+        when(empresaRepository.findSlice(any(), eq(PageRequest.of(0, 20)))).thenReturn(new SliceImpl<>(List.of()));
+        when(fornecedorRepository.findSlice(any(), eq(PageRequest.of(0, 20)))).thenReturn(new SliceImpl<>(List.of()));
+
+        assertTrue(service.buscar("padaria", 500).getItens().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Texto sem letras nem dígitos não deve consultar o banco")
+    void naoDeveConsultarSemTermo() {
+        assertTrue(service.buscar(" - ", 5).getItens().isEmpty());
+        assertThrows(BusinessException.class, () -> service.buscar("padaria", 0));
+
+        verifyNoInteractions(empresaRepository, fornecedorRepository);
+    }
+}
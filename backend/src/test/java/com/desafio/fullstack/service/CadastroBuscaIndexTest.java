@@ -0,0 +1,164 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.ReconstrucaoIndiceDTO;
+import com.desafio.fullstack.entity.Empresa;
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.TipoCadastro;
+import com.desafio.fullstack.enums.TipoPessoa;
+import com.desafio.fullstack.exception.BusinessException;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CadastroBuscaIndexTest {
+
+    private final EmpresaRepository empresaRepository = mock(EmpresaRepository.class);
+    private final FornecedorRepository fornecedorRepository = mock(FornecedorRepository.class);
+    private final Pageable primeiraPagina = PageRequest.of(0, 10);
+
+    private CadastroBuscaIndex indice;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(empresaRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(
+            empresa(1L, "São José Comércio", "Curitiba", "11222333000181"),
+            empresa(2L, "Padaria Central", "São José dos Pinhais", "44555666000199"),
+            empresa(3L, "Joseense Transportes", "Londrina", "77888999000100")));
+        when(fornecedorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(
+            fornecedor(10L, "João Açaí", "joao@acai.com.br", "12345678909")));
+
+        indice = new CadastroBuscaIndex(empresaRepository, fornecedorRepository, true, new ByteBuffersDirectory());
+        indice.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        indice.fechar();
+    }
+
+    private List<Long> buscar(TipoCadastro tipo, String texto, String documento) {
+        return indice.buscar(tipo, texto, documento, primeiraPagina).orElseThrow().ids();
+    }
+
+    @Test
+    @DisplayName("Deve achar o nome acentuado digitado sem acento, com o nome à frente da cidade")
+    void deveIgnorarAcentosERanquearNome() {
+        assertEquals(List.of(1L, 2L), buscar(TipoCadastro.EMPRESA, "Sao Jose", ""));
+    }
+
+    @Test
+    @DisplayName("Deve tratar o último termo como prefixo do nome")
+    void deveCompletarUltimoTermo() {
+        assertEquals(List.of(1L), buscar(TipoCadastro.EMPRESA, "comer", ""));
+    }
+
+    @Test
+    @DisplayName("Deve buscar por trecho do CNPJ com máscara")
+    void deveBuscarPorDocumento() {
+        assertEquals(List.of(2L), buscar(TipoCadastro.EMPRESA, "555.666", ""));
+    }
+
+    @Test
+    @DisplayName("Deve buscar fornecedor por e-mail e filtrar por CPF")
+    void deveBuscarFornecedor() {
+        assertEquals(List.of(10L), buscar(TipoCadastro.FORNECEDOR, "acai", ""));
+        assertEquals(List.of(10L), buscar(TipoCadastro.FORNECEDOR, "joao", "456789"));
+        assertEquals(List.of(), buscar(TipoCadastro.FORNECEDOR, "joao", "000"));
+        assertEquals(List.of(), buscar(TipoCadastro.EMPRESA, "joao acai", ""));
+    }
+
+    @Test
+    @DisplayName("Gravações aparecem depois do refresh e remoções somem")
+    void deveRefletirGravacoesAposRefresh() throws IOException {
+        indice.indexar(empresa(4L, "Comércio Boa Vista", "Maringá", "12312312000112"));
+        indice.remover(TipoCadastro.EMPRESA, 1L);
+        indice.atualizarLeitura();
+
+        assertEquals(List.of(4L), buscar(TipoCadastro.EMPRESA, "comercio", ""));
+    }
+
+    @Test
+    @DisplayName("Deve paginar mantendo o total")
+    void devePaginar() {
+        CadastroBuscaIndex.Resultado segunda = indice.buscar(TipoCadastro.EMPRESA, "Sao Jose", "", PageRequest.of(1, 1))
+            .orElseThrow();
+
+        assertEquals(List.of(2L), segunda.ids());
+        assertEquals(2, segunda.total());
+    }
+
+    @Test
+    @DisplayName("Reconstrução deve percorrer os cadastros em lotes por id")
+    void deveReconstruirEmLotes() {
+        ReconstrucaoIndiceDTO resultado = indice.reconstruir();
+
+        assertEquals(3, resultado.getEmpresas());
+        assertEquals(1, resultado.getFornecedores());
+        verify(empresaRepository, times(2)).findByIdGreaterThanOrderByIdAsc(eq(3L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Exclusão durante a reconstrução não deve voltar com o lote lido antes dela")
+    void deveRepetirExclusaoFeitaDuranteReconstrucao() {
+        List<Empresa> lidasAntesDaExclusao = empresaRepository.findByIdGreaterThanOrderByIdAsc(0L, primeiraPagina);
+        when(empresaRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenAnswer(invocacao -> {
+            indice.remover(TipoCadastro.EMPRESA, 2L);
+            return lidasAntesDaExclusao;
+        });
+
+        ReconstrucaoIndiceDTO resultado = indice.reconstruir();
+
+        assertEquals(3, resultado.getEmpresas());
+        assertTrue(buscar(TipoCadastro.EMPRESA, "Padaria", "").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Reconstrução que falha deve manter o último commit e as gravações feitas durante ela")
+    void deveVoltarAoUltimoCommitQuandoReconstrucaoFalha() {
+        when(fornecedorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenAnswer(invocacao -> {
+            indice.remover(TipoCadastro.EMPRESA, 3L);
+            throw new IllegalStateException("banco fora");
+        });
+
+        assertThrows(IllegalStateException.class, indice::reconstruir);
+
+        assertTrue(indice.isPronto());
+        assertEquals(List.of(1L, 2L), buscar(TipoCadastro.EMPRESA, "Sao Jose", ""));
+        assertEquals(List.of(10L), buscar(TipoCadastro.FORNECEDOR, "Joao", ""));
+        assertTrue(buscar(TipoCadastro.EMPRESA, "Joseense", "").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Desabilitado não deve responder buscas nem reconstruir")
+    void desabilitadoDeveCairNoBanco() throws IOException {
+        CadastroBuscaIndex desabilitado = new CadastroBuscaIndex(empresaRepository, fornecedorRepository, false,
+            new ByteBuffersDirectory());
+
+        assertTrue(desabilitado.buscar(TipoCadastro.EMPRESA, "Sao Jose", "", primeiraPagina).isEmpty());
+        assertThrows(BusinessException.class, desabilitado::reconstruir);
+        desabilitado.fechar();
+    }
+
+    private static Empresa empresa(Long id, String nome, String cidade, String cnpj) {
+        return Empresa.builder().id(id).nomeFantasia(nome).cidade(cidade).cnpj(cnpj).cep("80010000").build();
+    }
+
+    private static Fornecedor fornecedor(Long id, String nome, String email, String cpfCnpj) {
+        return Fornecedor.builder().id(id).nome(nome).email(email).cpfCnpj(cpfCnpj).tipoPessoa(TipoPessoa.FISICA)
+            .cep("80010000").build();
+    }
+}
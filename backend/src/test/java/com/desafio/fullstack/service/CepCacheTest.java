@@ -0,0 +1,106 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepCacheTest {
+
+    private final AtomicLong agora = new AtomicLong();
+    private CepCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CepCache(Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofMinutes(5), 2, agora::get);
+    }
+
+    private CepDTO valido(String cep) {
+        return CepDTO.builder().cep(cep).uf("SP").cidade("São Paulo").valido(true).build();
+    }
+
+    @Test
+    @DisplayName("Deve consultar o carregador apenas na primeira vez dentro do TTL")
+    void deveReutilizarDentroDoTtl() {
+        AtomicInteger chamadas = new AtomicInteger();
+
+        cache.buscar(1001000, () -> { chamadas.incrementAndGet(); return completedFuture(valido("01001000")); });
+        agora.addAndGet(Duration.ofMinutes(9).toNanos());
+        CepDTO result = cache.buscar(1001000, () -> { chamadas.incrementAndGet(); return completedFuture(valido("01001000")); }).join();
+
+        assertEquals("01001000", result.getCep());
+        assertEquals(1, chamadas.get());
+        assertEquals(1, cache.stats().acertos());
+        assertEquals(1, cache.stats().faltas());
+    }
+
+    @Test
+    @DisplayName("Deve expirar respostas negativas com o TTL curto")
+    void deveExpirarNegativoComTtlCurto() {
+        AtomicInteger chamadas = new AtomicInteger();
+        CepDTO naoEncontrado = CepDTO.builder().cep("99999999").valido(false).mensagem("CEP não encontrado").build();
+
+        cache.buscar(99999999, () -> { chamadas.incrementAndGet(); return completedFuture(naoEncontrado); });
+        agora.addAndGet(Duration.ofMinutes(7).toNanos());
+        cache.buscar(99999999, () -> { chamadas.incrementAndGet(); return completedFuture(naoEncontrado); });
+
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    @DisplayName("Deve servir valor obsoleto enquanto revalida")
+    void deveServirObsoletoEnquantoRevalida() {
+        cache.buscar(1001000, () -> completedFuture(valido("01001000")));
+        agora.addAndGet(Duration.ofMinutes(12).toNanos());
+
+        CepDTO atualizado = CepDTO.builder().cep("01001000").uf("SP").cidade("Atualizada").valido(true).build();
+        CompletableFuture<CepDTO> recarga = new CompletableFuture<>();
+        CepDTO result = cache.buscar(1001000, () -> recarga).join();
+
+        assertEquals("São Paulo", result.getCidade());
+        assertEquals(1, cache.stats().acertosObsoletos());
+
+        recarga.complete(atualizado);
+        assertEquals("Atualizada", cache.buscar(1001000, () -> fail("não deveria recarregar")).join().getCidade());
+    }
+
+    @Test
+    @DisplayName("Deve remover a entrada menos usada ao atingir o tamanho máximo")
+    void deveRemoverAoAtingirTamanhoMaximo() {
+        cache.buscar(1, () -> completedFuture(valido("00000001")));
+        cache.buscar(2, () -> completedFuture(valido("00000002")));
+        cache.buscar(1, () -> completedFuture(valido("00000001")));
+        cache.buscar(3, () -> completedFuture(valido("00000003")));
+
+        AtomicInteger chamadas = new AtomicInteger();
+        cache.buscar(2, () -> { chamadas.incrementAndGet(); return completedFuture(valido("00000002")); });
+
+        assertEquals(1, chamadas.get());
+        assertEquals(2, cache.stats().tamanho());
+        assertTrue(cache.stats().remocoes() >= 1);
+    }
+
+    @Test
+    @DisplayName("Não deve armazenar falhas transitórias")
+    void naoDeveArmazenarFalhas() {
+        CompletionException erro = assertThrows(CompletionException.class,
+                () -> cache.buscar(1001000, () -> failedFuture(new CepIndisponivelException("timeout"))).join());
+        assertInstanceOf(CepIndisponivelException.class, erro.getCause());
+
+        CepDTO result = cache.buscar(1001000, () -> completedFuture(valido("01001000"))).join();
+
+        assertTrue(result.isValido());
+        assertEquals(1, cache.stats().tamanho());
+    }
+}
@@ -0,0 +1,78 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepDatasetTest {
+
+    @TempDir
+    Path dir;
+
+    private CepDataset gerar(String csv) throws Exception {
+        Path entrada = dir.resolve("ceps.csv");
+        Path saida = dir.resolve("ceps.bin");
+        Files.writeString(entrada, csv, StandardCharsets.UTF_8);
+        CepDatasetConverter.converter(entrada, saida, ';');
+        return new CepDataset(saida.toString(), true);
+    }
+
+    @Test
+    @DisplayName("Deve converter o CSV e encontrar CEPs por busca binária")
+    void deveConverterEBuscar() throws Exception {
+        CepDataset dataset = gerar(
+                "cep;logradouro;bairro;cidade;uf\n" +
+                "80010-000;Rua XV de Novembro;Centro;Curitiba;PR\n" +
+                "01001000;Praça da Sé;Sé;São Paulo;SP\n" +
+                "69900001;\"Rua \"\"A\"\"\";Centro;Rio Branco;AC\n");
+
+        assertEquals(3, dataset.getQuantidade());
+
+        Optional<CepDTO> result = dataset.buscar(1001000);
+        assertTrue(result.isPresent());
+        assertEquals("01001000", result.get().getCep());
+        assertEquals("Praça da Sé", result.get().getLogradouro());
+        assertEquals("São Paulo", result.get().getCidade());
+        assertTrue(result.get().isValido());
+
+        assertEquals("Rua \"A\"", dataset.buscar(69900001).orElseThrow().getLogradouro());
+        assertEquals("PR", dataset.buscar(80010000).orElseThrow().getUf());
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio para CEP ausente")
+    void deveRetornarVazioParaCepAusente() throws Exception {
+        CepDataset dataset = gerar("01001000;Praça da Sé;Sé;São Paulo;SP\n");
+
+        assertTrue(dataset.buscar(1001001).isEmpty());
+        assertTrue(dataset.buscar(0).isEmpty());
+        assertTrue(dataset.buscar(99999999).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve deduplicar textos repetidos no pool")
+    void deveDeduplicarTextos() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            csv.append(String.format("%08d;Rua Longa Repetida;Centro;São Paulo;SP%n", 1000000 + i));
+        }
+        gerar(csv.toString());
+
+        long tamanho = Files.size(dir.resolve("ceps.bin"));
+        assertTrue(tamanho < CepDataset.TAMANHO_CABECALHO + 100 * CepDataset.TAMANHO_REGISTRO + 100);
+    }
+
+    @Test
+    @DisplayName("Modo offline sem arquivo deve falhar na inicialização")
+    void modoOfflineSemArquivoDeveFalhar() {
+        assertThrows(IllegalStateException.class, () -> new CepDataset("", true));
+    }
+}
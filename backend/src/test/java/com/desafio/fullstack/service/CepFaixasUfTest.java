@@ -0,0 +1,42 @@
+package com.desafio.fullstack.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepFaixasUfTest {
+
+    private final CepFaixasUf faixas = new CepFaixasUf();
+
+    @Test
+    @DisplayName("Deve encontrar a UF nos limites das faixas")
+    void deveEncontrarUfNosLimites() {
+        assertEquals(Optional.of("SP"), faixas.uf(1000000));
+        assertEquals(Optional.of("SP"), faixas.uf(19999999));
+        assertEquals(Optional.of("RJ"), faixas.uf(20000000));
+        assertEquals(Optional.of("PR"), faixas.uf(80010000));
+        assertEquals(Optional.of("RS"), faixas.uf(99999999));
+    }
+
+    @Test
+    @DisplayName("Deve separar faixas intercaladas de uma mesma UF")
+    void deveSepararFaixasIntercaladas() {
+        assertEquals(Optional.of("DF"), faixas.uf(70040010));
+        assertEquals(Optional.of("GO"), faixas.uf(72800000));
+        assertEquals(Optional.of("DF"), faixas.uf(73000000));
+        assertEquals(Optional.of("GO"), faixas.uf(74000000));
+        assertEquals(Optional.of("RR"), faixas.uf(69301000));
+        assertEquals(Optional.of("AM"), faixas.uf(69400000));
+    }
+
+    @Test
+    @DisplayName("CEP abaixo de 01000-000 não existe")
+    void cepAbaixoDaPrimeiraFaixaNaoExiste() {
+        assertFalse(faixas.existe(0));
+        assertFalse(faixas.existe(999999));
+        assertTrue(faixas.existe(1001000));
+    }
+}
@@ -0,0 +1,49 @@
+package com.desafio.fullstack.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepHedgePolicyTest {
+
+    private CepHedgePolicy politica(String atraso) {
+        return new CepHedgePolicy(atraso, Duration.ofMillis(300), Duration.ofMillis(50), Duration.ofSeconds(2), 0.95);
+    }
+
+    @Test
+    @DisplayName("Deve usar o atraso fixo configurado")
+    void deveUsarAtrasoFixo() {
+        JanelaLatencia latencia = new JanelaLatencia(256);
+
+        assertEquals(Duration.ofMillis(150), politica("150ms").atraso(latencia));
+        assertEquals(Duration.ZERO, politica("0").atraso(latencia));
+    }
+
+    @Test
+    @DisplayName("Modo auto deve usar o atraso inicial até ter amostras suficientes")
+    void autoDeveUsarAtrasoInicialSemAmostras() {
+        JanelaLatencia latencia = new JanelaLatencia(256);
+        latencia.registrar(900);
+
+        assertEquals(Duration.ofMillis(300), politica("auto").atraso(latencia));
+    }
+
+    @Test
+    @DisplayName("Modo auto deve acompanhar o p95 observado dentro dos limites")
+    void autoDeveAcompanharP95() {
+        JanelaLatencia latencia = new JanelaLatencia(256);
+        for (int i = 1; i <= 100; i++) {
+            latencia.registrar(i * 10L);
+        }
+        assertEquals(Duration.ofMillis(950), politica("auto").atraso(latencia));
+
+        JanelaLatencia lenta = new JanelaLatencia(256);
+        for (int i = 0; i < 50; i++) {
+            lenta.registrar(10_000);
+        }
+        assertEquals(Duration.ofSeconds(2), politica("auto").atraso(lenta));
+    }
+}
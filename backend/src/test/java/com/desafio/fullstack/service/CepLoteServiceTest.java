@@ -0,0 +1,98 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CepLoteServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CepService cepService;
+    private CepLoteService cepLoteService;
+
+    @BeforeEach
+    void setUp() {
+        cepService = mock(CepService.class);
+        cepLoteService = new CepLoteService(cepService, objectMapper, 2);
+    }
+
+    private Map<String, JsonNode> executar(List<String> ceps) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        cepLoteService.resolver(ceps, saida);
+
+        Map<String, JsonNode> linhas = new HashMap<>();
+        for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode node = objectMapper.readTree(linha);
+            assertNull(linhas.put(node.get("cep").asText(), node), "CEP repetido na saída: " + linha);
+        }
+        return linhas;
+    }
+
+    @Test
+    @DisplayName("Deve deduplicar e informar o status de cada CEP")
+    void deveDeduplicarEInformarStatus() throws Exception {
+        when(cepService.resolverAsync("01001000")).thenReturn(CompletableFuture.completedFuture(
+                CepDTO.builder().cep("01001000").uf("SP").cidade("São Paulo").valido(true).build()));
+        when(cepService.resolverAsync("99999999")).thenReturn(CompletableFuture.completedFuture(
+                CepDTO.builder().cep("99999999").valido(false).mensagem("CEP não encontrado").build()));
+        when(cepService.resolverAsync("80010000")).thenReturn(
+                CompletableFuture.failedFuture(new CepIndisponivelException("timeout")));
+
+        Map<String, JsonNode> linhas = executar(List.of("01001-000", "01001000", "99999999", "80010000", "123"));
+
+        assertEquals(4, linhas.size());
+        assertEquals("OK", linhas.get("01001000").get("status").asText());
+        assertEquals("SP", linhas.get("01001000").get("endereco").get("uf").asText());
+        assertEquals("NAO_ENCONTRADO", linhas.get("99999999").get("status").asText());
+        assertEquals("ERRO", linhas.get("80010000").get("status").asText());
+        assertEquals("INVALIDO", linhas.get("123").get("status").asText());
+        verify(cepService, times(1)).resolverAsync("01001000");
+    }
+
+    @Test
+    @DisplayName("Não deve abrir mais consultas que o limite do lote")
+    void deveLimitarConsultasAbertasPorLote() throws Exception {
+        List<CompletableFuture<CepDTO>> abertas = new CopyOnWriteArrayList<>();
+        when(cepService.resolverAsync(anyString())).thenAnswer(inv -> {
+            CompletableFuture<CepDTO> consulta = new CompletableFuture<>();
+            abertas.add(consulta);
+            return consulta;
+        });
+        Thread lote = new Thread(() -> {
+            try {
+                cepLoteService.resolver(List.of("01001000", "20040002", "30130010"), new ByteArrayOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        lote.start();
+
+        verify(cepService, timeout(1000).times(2)).resolverAsync(anyString());
+        Thread.sleep(100);
+        assertEquals(2, abertas.size());
+
+        abertas.get(0).complete(CepDTO.builder().cep("01001000").valido(true).build());
+        verify(cepService, timeout(1000).times(3)).resolverAsync(anyString());
+        abertas.forEach(c -> c.complete(CepDTO.builder().cep("x").valido(true).build()));
+        lote.join(1000);
+        assertFalse(lote.isAlive());
+    }
+}
@@ -0,0 +1,63 @@
+package com.desafio.fullstack.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a leitura antiga (corpo como String + readTree) com o parser de streaming. Não roda no
+ * {@code mvn test}: execute o {@code main} pela IDE depois do {@code mvn test-compile}. O profiler de GC
+ * mostra a alocação por operação em {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CepRespostaParserBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final byte[] viaCep = ("{\n  \"cep\": \"01001-000\",\n  \"logradouro\": \"Praça da Sé\",\n"
+            + "  \"complemento\": \"lado ímpar\",\n  \"unidade\": \"\",\n  \"bairro\": \"Sé\",\n"
+            + "  \"localidade\": \"São Paulo\",\n  \"uf\": \"SP\",\n  \"estado\": \"São Paulo\",\n"
+            + "  \"regiao\": \"Sudeste\",\n  \"ibge\": \"3550308\",\n  \"gia\": \"1004\",\n  \"ddd\": \"11\",\n"
+            + "  \"siafi\": \"7107\"\n}").getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public String stringEArvore() throws IOException {
+        String corpo = new String(viaCep, StandardCharsets.UTF_8);
+        JsonNode node = objectMapper.readTree(corpo);
+        return node.path("uf").asText() + node.path("localidade").asText()
+                + node.path("bairro").asText() + node.path("logradouro").asText();
+    }
+
+    @Benchmark
+    public String streaming() throws IOException {
+        CepRespostaParser.Campos campos = CepRespostaParser.ler(viaCep);
+        return campos.uf() + campos.cidade() + campos.bairro() + campos.logradouro();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CepRespostaParserBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.desafio.fullstack.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CepRespostaParserTest {
+
+    private static CepRespostaParser.Campos ler(String json) throws Exception {
+        return CepRespostaParser.ler(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // entrega o corpo ao BodySubscriber do HttpClient em pedaços de tamanho fixo
+    private static CepRespostaParser.Campos lerEmPedacos(String json, int tamanho) {
+        HttpResponse.ResponseInfo info = mock(HttpResponse.ResponseInfo.class);
+        when(info.statusCode()).thenReturn(200);
+        HttpResponse.BodySubscriber<CepRespostaParser.Campos> assinante = CepRespostaParser.bodyHandler().apply(info);
+        assinante.onSubscribe(mock(Flow.Subscription.class));
+        byte[] corpo = json.getBytes(StandardCharsets.UTF_8);
+        for (int inicio = 0; inicio < corpo.length; inicio += tamanho) {
+            assinante.onNext(List.of(ByteBuffer.wrap(corpo, inicio, Math.min(tamanho, corpo.length - inicio))));
+        }
+        assinante.onComplete();
+        return assinante.getBody().toCompletableFuture().join();
+    }
+
+    @Test
+    @DisplayName("Deve extrair os campos da resposta do ViaCEP ignorando o resto")
+    void deveLerViaCep() throws Exception {
+        CepRespostaParser.Campos campos = ler("{\"cep\":\"01001-000\",\"logradouro\":\"Praça da Sé\","
+                + "\"complemento\":\"lado ímpar\",\"bairro\":\"Sé\",\"localidade\":\"São Paulo\",\"uf\":\"SP\","
+                + "\"ibge\":\"3550308\",\"extra\":{\"uf\":\"XX\",\"lista\":[1,2,{\"a\":null}]},\"ddd\":\"11\"}");
+
+        assertEquals("SP", campos.uf());
+        assertEquals("São Paulo", campos.cidade());
+        assertEquals("Sé", campos.bairro());
+        assertEquals("Praça da Sé", campos.logradouro());
+        assertFalse(campos.erro());
+    }
+
+    @Test
+    @DisplayName("Deve usar o primeiro objeto quando a resposta do cep.la for um array")
+    void deveLerArrayDoCepLa() throws Exception {
+        CepRespostaParser.Campos campos = ler("[{\"cep\":\"80010000\",\"uf\":\"PR\",\"cidade\":\"Curitiba\","
+                + "\"bairro\":\"Centro\",\"logradouro\":\"Rua XV de Novembro\"},{\"uf\":\"SC\"}]");
+
+        assertEquals("PR", campos.uf());
+        assertEquals("Curitiba", campos.cidade());
+        assertTrue(campos.temUf());
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer o erro do ViaCEP como booleano ou texto")
+    void deveReconhecerErro() throws Exception {
+        assertTrue(ler("{\"erro\":true}").erro());
+        assertTrue(ler("{\"erro\":\"true\"}").erro());
+        assertFalse(ler("{\"erro\":false}").erro());
+    }
+
+    @Test
+    @DisplayName("Corpo vazio ou sem objeto não deve ter UF")
+    void corpoVazioNaoDeveTerUf() throws Exception {
+        assertFalse(ler("").temUf());
+        assertFalse(ler("[]").temUf());
+        assertFalse(ler("{\"uf\":\"\"}").temUf());
+        assertNull(ler("{\"uf\":null}").uf());
+    }
+
+    @Test
+    @DisplayName("Deve ler o corpo entregue em pedaços que cortam tokens e caracteres UTF-8 ao meio")
+    void deveLerCorpoEmPedacos() {
+        CepRespostaParser.Campos campos = lerEmPedacos("{\"cep\":\"01001-000\",\"logradouro\":\"Praça da Sé\","
+                + "\"extra\":{\"uf\":\"XX\"},\"localidade\":\"São Paulo\",\"uf\":\"SP\"}", 3);
+
+        assertEquals("SP", campos.uf());
+        assertEquals("São Paulo", campos.cidade());
+        assertEquals("Praça da Sé", campos.logradouro());
+    }
+
+    @Test
+    @DisplayName("Corpo interrompido no meio do objeto deve falhar")
+    void corpoInterrompidoDeveFalhar() {
+        assertThrows(CompletionException.class, () -> lerEmPedacos("{\"uf\":\"SP\",\"cidade\":\"São", 4));
+    }
+}
@@ -0,0 +1,121 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepRoteadorTest {
+
+    private final ProvedorCepMonitores monitores = new ProvedorCepMonitores(
+            List.of(provedor("primario"), provedor("secundario")),
+            new CepLimitadores(0, 0, 0, Duration.ZERO, false, 0, null, null, null),
+            20, 10, 50, 80, Duration.ofSeconds(2), Duration.ofSeconds(30), 3,
+            Duration.ofMillis(500), Duration.ofSeconds(5), 1.5, 0.5);
+
+    private final ProvedorCepMonitor primario = monitores.todos().get(0);
+    private final ProvedorCepMonitor secundario = monitores.todos().get(1);
+
+    private static CepProvider provedor(String nome) {
+        return new CepProvider() {
+            @Override
+            public String getNome() {
+                return nome;
+            }
+
+            @Override
+            public CompletableFuture<CepDTO> consultar(String cep, Duration timeout) {
+                return CompletableFuture.completedFuture(CepDTO.builder().cep(cep).valido(true).build());
+            }
+        };
+    }
+
+    private static List<String> nomes(List<ProvedorCepMonitor> rota) {
+        return rota.stream().map(ProvedorCepMonitor::getNome).toList();
+    }
+
+    @Test
+    @DisplayName("Sem medições deve manter a ordem declarada")
+    void semMedicoesDeveManterOrdemDeclarada() {
+        CepRoteador roteador = new CepRoteador(monitores, 0);
+
+        assertEquals(List.of("primario", "secundario"), nomes(roteador.rota()));
+    }
+
+    @Test
+    @DisplayName("Deve colocar na frente o provedor de menor custo esperado")
+    void devePreferirMenorCusto() {
+        CepRoteador roteador = new CepRoteador(monitores, 0);
+        for (int i = 0; i < 5; i++) {
+            primario.registrarSucesso(400);
+            secundario.registrarSucesso(80);
+        }
+
+        assertEquals(List.of("secundario", "primario"), nomes(roteador.rota()));
+    }
+
+    @Test
+    @DisplayName("Falhas devem encarecer o provedor mesmo quando ele é rápido")
+    void falhasDevemEncarecerProvedor() {
+        CepRoteador roteador = new CepRoteador(monitores, 0);
+        for (int i = 0; i < 5; i++) {
+            primario.registrarFalha(20);
+            secundario.registrarSucesso(150);
+        }
+
+        assertTrue(primario.getEwmaSucesso() < 0.1);
+        assertEquals("secundario", roteador.rota().get(0).getNome());
+    }
+
+    @Test
+    @DisplayName("Chamada cancelada pelo hedge deve contar como latência mínima")
+    void cancelamentoDeveContarComoLatenciaMinima() {
+        primario.registrarSucesso(50);
+        primario.liberar(600);
+
+        assertEquals(325, primario.getEwmaLatencia(), 0.001);
+        assertEquals(1, primario.getCircuitBreaker().getChamadasNaJanela());
+    }
+
+    @Test
+    @DisplayName("Circuito aberto deve ir para o fim da rota")
+    void circuitoAbertoDeveIrParaOFim() {
+        CepRoteador roteador = new CepRoteador(monitores, 0);
+        for (int i = 0; i < 10; i++) {
+            secundario.registrarSucesso(500);
+            primario.registrarFalha(10);
+        }
+
+        assertEquals(CircuitBreaker.Estado.ABERTO, primario.getCircuitBreaker().getEstado());
+        assertEquals(List.of("secundario", "primario"), nomes(roteador.rota()));
+    }
+
+    @Test
+    @DisplayName("Exploração deve trocar o primeiro e o segundo colocados")
+    void exploracaoDeveTrocarPrimeiroESegundo() {
+        primario.registrarSucesso(50);
+        secundario.registrarSucesso(300);
+
+        assertEquals("secundario", new CepRoteador(monitores, 0.05, () -> 0.01).rota().get(0).getNome());
+        assertEquals("primario", new CepRoteador(monitores, 0.05, () -> 0.5).rota().get(0).getNome());
+    }
+
+    @Test
+    @DisplayName("Histograma deve acumular as faixas de latência")
+    void histogramaDeveAcumularFaixas() {
+        primario.registrarSucesso(20);
+        primario.registrarSucesso(90);
+        primario.registrarFalha(7_000);
+
+        var faixas = primario.getHistograma().faixas();
+        assertEquals(1, faixas.get("25"));
+        assertEquals(2, faixas.get("100"));
+        assertEquals(2, faixas.get("5000"));
+        assertEquals(3, faixas.get("+Inf"));
+    }
+}
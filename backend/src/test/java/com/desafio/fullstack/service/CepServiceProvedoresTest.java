@@ -0,0 +1,193 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import com.desafio.fullstack.stub.CepProviderStub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CepServiceProvedoresTest {
+
+    private final CepEnderecoService cepEnderecoService = mock(CepEnderecoService.class);
+
+    private CepProviderStub stub;
+    private CepService cepService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = CepProviderStub.iniciar(0).carregarFixture();
+        when(cepEnderecoService.buscar(anyString())).thenReturn(Optional.empty());
+        cepService = new CepService(
+                new CepCache(Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofMinutes(10), 100),
+                cepEnderecoService,
+                new CepDataset("", false),
+                new CepFaixasUf(),
+                new CepHedgePolicy("200ms", Duration.ofMillis(200), Duration.ofMillis(50), Duration.ofSeconds(2), 0.95),
+                new CepRoteador(new ProvedorCepMonitores(
+                        List.of(new CepLaProvider(ForkJoinPool.commonPool(), stub.urlCepLa()),
+                                new ViaCepProvider(ForkJoinPool.commonPool(), stub.urlViaCep())),
+                        new CepLimitadores(0, 0, 0, Duration.ZERO, false, 0, null, null, null),
+                        20, 10, 50, 80, Duration.ofSeconds(2), Duration.ofSeconds(30), 3,
+                        Duration.ofMillis(500), Duration.ofSeconds(2), 1.5, 0.5), 0),
+                new CepSingleFlight(Duration.ofSeconds(8)),
+                ForkJoinPool.commonPool(),
+                Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Deve resolver o CEP pelo cep.la e gravar na tabela compartilhada")
+    void deveResolverPeloCepLa() {
+        CepDTO result = cepService.consultarCep("01310-100");
+
+        assertTrue(result.isValido());
+        assertEquals("Avenida Paulista", result.getLogradouro());
+        assertEquals("SP", result.getUf());
+        assertEquals(1, stub.cepLa().getChamadas());
+        verify(cepEnderecoService).gravar(result);
+    }
+
+    @Test
+    @DisplayName("Linha vencida da tabela compartilhada deve ser renovada pelos provedores")
+    void deveRenovarLinhaVencida() {
+        CepDTO antigo = CepDTO.builder().cep("01310100").uf("SP").cidade("São Paulo").logradouro("Rua Antiga")
+                .valido(true).build();
+        when(cepEnderecoService.buscar("01310100")).thenReturn(Optional.of(new CepEnderecoService.Salvo(antigo, true)));
+
+        CepDTO result = cepService.consultarCep("01310-100");
+
+        assertEquals("Avenida Paulista", result.getLogradouro());
+        assertEquals(1, stub.cepLa().getChamadas());
+        verify(cepEnderecoService).gravar(result);
+    }
+
+    @Test
+    @DisplayName("Com os provedores fora a linha vencida ainda deve ser servida")
+    void deveServirLinhaVencidaComProvedoresFora() {
+        stub.cepLa().taxaErro(1.0);
+        stub.viaCep().taxaErro(1.0);
+        CepDTO antigo = CepDTO.builder().cep("01310100").uf("SP").cidade("São Paulo").logradouro("Rua Antiga")
+                .valido(true).build();
+        when(cepEnderecoService.buscar("01310100")).thenReturn(Optional.of(new CepEnderecoService.Salvo(antigo, true)));
+
+        CepDTO result = cepService.consultarCep("01310-100");
+
+        assertTrue(result.isValido());
+        assertEquals("Rua Antiga", result.getLogradouro());
+    }
+
+    @Test
+    @DisplayName("Renovação forçada não deve aproveitar a consulta comum em andamento, que responde pela tabela")
+    void reconsultaNaoDeveAproveitarConsultaEmAndamento() throws Exception {
+        CepDTO antigo = CepDTO.builder().cep("01310100").uf("SP").cidade("São Paulo").logradouro("Rua Antiga")
+                .valido(true).build();
+        CountDownLatch lendoTabela = new CountDownLatch(1);
+        CountDownLatch liberarTabela = new CountDownLatch(1);
+        when(cepEnderecoService.buscar("01310100")).thenAnswer(inv -> {
+            lendoTabela.countDown();
+            liberarTabela.await(5, TimeUnit.SECONDS);
+            return Optional.of(new CepEnderecoService.Salvo(antigo, false));
+        });
+        CompletableFuture<CepDTO> comum = CompletableFuture.supplyAsync(() -> cepService.consultarCep("01310100"));
+        assertTrue(lendoTabela.await(5, TimeUnit.SECONDS));
+
+        CepDTO renovado = cepService.reconsultar("01310100");
+        liberarTabela.countDown();
+
+        assertEquals("Avenida Paulista", renovado.getLogradouro());
+        assertEquals(1, stub.cepLa().getChamadas());
+        assertEquals("Rua Antiga", comum.get(5, TimeUnit.SECONDS).getLogradouro());
+    }
+
+    @Test
+    @DisplayName("Deve recorrer ao ViaCEP quando o cep.la responde com erro")
+    void deveRecorrerAoViaCepQuandoCepLaFalha() {
+        stub.cepLa().taxaErro(1.0);
+
+        CepDTO result = cepService.consultarCep("20040002");
+
+        assertTrue(result.isValido());
+        assertEquals("Rio de Janeiro", result.getCidade());
+        assertEquals(1, stub.cepLa().getErros());
+        assertEquals(1, stub.viaCep().getChamadas());
+    }
+
+    @Test
+    @DisplayName("Deve disparar o ViaCEP após o atraso de hedge quando o cep.la está lento")
+    void deveDispararHedgeQuandoCepLaLento() {
+        stub.cepLa().latencia(CepProviderStub.Latencia.fixa(1_500));
+
+        CepDTO result = cepService.consultarCep("90010000");
+
+        assertTrue(result.isValido());
+        assertEquals("Porto Alegre", result.getCidade());
+        assertEquals(1, stub.viaCep().getChamadas());
+    }
+
+    @Test
+    @DisplayName("CEP ausente nos dois provedores deve ser inválido sem gravar")
+    void cepAusenteDeveSerInvalido() {
+        CepDTO result = cepService.consultarCep("99999999");
+
+        assertFalse(result.isValido());
+        assertEquals("CEP não encontrado", result.getMensagem());
+        verify(cepEnderecoService, never()).gravar(any());
+    }
+
+    @Test
+    @DisplayName("Falha nos dois provedores deve ser lançada por resolver e não entrar no cache")
+    void falhaNosDoisProvedoresDeveSerLancada() {
+        stub.cepLa().taxaErro(1.0);
+        stub.viaCep().taxaErro(1.0);
+
+        assertThrows(CepIndisponivelException.class, () -> cepService.resolver("30130010"));
+        assertEquals(0, cepService.estatisticasCache().tamanho());
+    }
+
+    @Test
+    @DisplayName("Com os provedores fora a consulta deve devolver a UF provisória da faixa")
+    void provedoresForaDevemDarUfProvisoria() {
+        stub.cepLa().taxaErro(1.0);
+        stub.viaCep().taxaErro(1.0);
+
+        CepDTO result = cepService.consultarCep("30130-010");
+
+        assertFalse(result.isValido());
+        assertTrue(result.isProvisorio());
+        assertEquals("MG", result.getUf());
+    }
+
+    @Test
+    @DisplayName("Deve passar a consultar o ViaCEP primeiro quando o cep.la fica lento")
+    void deveRotearParaViaCepQuandoCepLaDegrada() {
+        stub.cepLa().latencia(CepProviderStub.Latencia.fixa(800));
+
+        String[] ceps = {"01001000", "01310100", "20040002", "30130010", "40020000", "70040010"};
+        for (String cep : ceps) {
+            assertTrue(cepService.consultarCep(cep).isValido());
+        }
+
+        // a primeira consulta paga o hedge; a partir daí o ViaCEP é o primário e o cep.la nem é chamado
+        assertEquals(ViaCepProvider.NOME, cepService.statusProvedores().stream()
+                .filter(p -> p.getPosicaoRota() == 1).findFirst().orElseThrow().getNome());
+        assertTrue(stub.cepLa().getChamadas() < ceps.length);
+        assertEquals(ceps.length, stub.viaCep().getChamadas());
+    }
+}
@@ -4,11 +4,34 @@ import com.desafio.fullstack.dto.CepDTO;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 class CepServiceTest {
 
-    private final CepService cepService = new CepService();
+    private final CepEnderecoService cepEnderecoService = mock(CepEnderecoService.class);
+
+    private final CepService cepService = new CepService(
+            new CepCache(Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofMinutes(10), 100),
+            cepEnderecoService,
+            new CepDataset("", false),
+            new CepFaixasUf(),
+            new CepHedgePolicy("auto", Duration.ofMillis(300), Duration.ofMillis(50), Duration.ofSeconds(2), 0.95),
+            new CepRoteador(new ProvedorCepMonitores(
+                    List.of(new CepLaProvider(ForkJoinPool.commonPool(), "http://cep.la/"),
+                            new ViaCepProvider(ForkJoinPool.commonPool(), "https://viacep.com.br/ws/")),
+                    new CepLimitadores(0, 0, 0, Duration.ZERO, false, 0, null, null, null),
+                    20, 10, 50, 80, Duration.ofSeconds(2), Duration.ofSeconds(30), 3,
+                    Duration.ofMillis(500), Duration.ofSeconds(5), 1.5, 0.2), 0),
+            new CepSingleFlight(Duration.ofSeconds(8)),
+            ForkJoinPool.commonPool(),
+            Runnable::run);
 
     @Test
     @DisplayName("Deve rejeitar CEP com menos de 8 dígitos")
@@ -45,4 +68,62 @@ class CepServiceTest {
 
         assertFalse(result.isValido());
     }
+
+    @Test
+    @DisplayName("Deve responder pela tabela compartilhada sem consultar os provedores")
+    void deveResponderPelaTabelaCompartilhada() {
+        CepDTO salvo = CepDTO.builder()
+                .cep("80010000").uf("PR").cidade("Curitiba")
+                .bairro("Centro").logradouro("Rua XV de Novembro").valido(true)
+                .build();
+        when(cepEnderecoService.buscar("80010000")).thenReturn(Optional.of(new CepEnderecoService.Salvo(salvo, false)));
+
+        CepDTO result = cepService.consultarCep("80010-000");
+
+        assertTrue(result.isValido());
+        assertEquals("Curitiba", result.getCidade());
+        verify(cepEnderecoService, never()).gravar(any());
+    }
+
+    @Test
+    @DisplayName("Consulta assíncrona de CEP inválido deve completar sem tocar a rede")
+    void consultaAssincronaDeCepInvalidoDeveCompletarImediatamente() {
+        CompletableFuture<CepDTO> futuro = cepService.consultarCepAsync("123");
+
+        assertTrue(futuro.isDone());
+        assertFalse(futuro.join().isValido());
+        verifyNoInteractions(cepEnderecoService);
+    }
+
+    @Test
+    @DisplayName("Consulta assíncrona deve resolver pela tabela compartilhada")
+    void consultaAssincronaDeveResolverPelaTabela() {
+        CepDTO salvo = CepDTO.builder().cep("01310100").uf("SP").cidade("São Paulo").valido(true).build();
+        when(cepEnderecoService.buscar("01310100")).thenReturn(Optional.of(new CepEnderecoService.Salvo(salvo, false)));
+
+        CepDTO result = cepService.consultarCepAsync("01310-100").join();
+
+        assertEquals("São Paulo", result.getCidade());
+    }
+
+    @Test
+    @DisplayName("CEP fora das faixas dos Correios deve ser rejeitado sem consultar tabela nem provedores")
+    void cepForaDasFaixasDeveSerRejeitadoSemRede() {
+        CepDTO result = cepService.consultarCep("00012-345");
+
+        assertFalse(result.isValido());
+        assertFalse(result.isProvisorio());
+        assertTrue(result.getMensagem().contains("faixas"));
+        verifyNoInteractions(cepEnderecoService);
+    }
+
+    @Test
+    @DisplayName("Validação local deve devolver a UF provisória sem rede")
+    void validacaoLocalDeveDevolverUfProvisoria() {
+        CepDTO result = cepService.consultarCepLocal("80010-000");
+
+        assertTrue(result.isProvisorio());
+        assertEquals("PR", result.getUf());
+        verifyNoInteractions(cepEnderecoService);
+    }
 }
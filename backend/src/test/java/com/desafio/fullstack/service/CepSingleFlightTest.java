@@ -0,0 +1,98 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CepSingleFlightTest {
+
+    private final CepSingleFlight singleFlight = new CepSingleFlight(Duration.ofSeconds(2));
+
+    @Test
+    @DisplayName("Consultas simultâneas do mesmo CEP devem gerar uma única chamada")
+    void deveCompartilharChamada() throws Exception {
+        AtomicInteger chamadas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<CepDTO>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(executor.submit(() -> singleFlight.executar(1001000, () -> {
+                    chamadas.incrementAndGet();
+                    return CompletableFuture.supplyAsync(() -> {
+                        aguardar(liberar);
+                        return CepDTO.builder().cep("01001000").uf("SP").valido(true).build();
+                    });
+                }).join()));
+            }
+
+            while (singleFlight.getEmAndamento() == 0) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(100);
+            liberar.countDown();
+
+            for (Future<CepDTO> resultado : resultados) {
+                assertEquals("SP", resultado.get(2, TimeUnit.SECONDS).getUf());
+            }
+            assertEquals(1, chamadas.get());
+            assertEquals(0, singleFlight.getEmAndamento());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Falha compartilhada não deve afetar consultas posteriores")
+    void falhaNaoDeveEnvenenarConsultasPosteriores() {
+        CompletionException erro = assertThrows(CompletionException.class, () -> singleFlight.executar(1001000,
+                () -> CompletableFuture.failedFuture(new CepIndisponivelException("provedores fora do ar"))).join());
+        assertInstanceOf(CepIndisponivelException.class, erro.getCause());
+
+        CepDTO result = singleFlight.executar(1001000,
+                () -> CompletableFuture.completedFuture(CepDTO.builder().cep("01001000").uf("SP").valido(true).build())).join();
+
+        assertTrue(result.isValido());
+    }
+
+    @Test
+    @DisplayName("Quem aguarda deve desistir após o timeout por CEP")
+    void deveRespeitarTimeoutDeQuemAguarda() {
+        CepSingleFlight rapido = new CepSingleFlight(Duration.ofMillis(50));
+        CompletableFuture<CepDTO> lider = new CompletableFuture<>();
+        CompletableFuture<CepDTO> primeiro = rapido.executar(1001000, () -> lider);
+
+        CompletionException erro = assertThrows(CompletionException.class,
+                () -> rapido.executar(1001000, () -> fail("não deveria executar")).join());
+        assertInstanceOf(CepIndisponivelException.class, erro.getCause());
+
+        // o timeout de quem aguardava não afeta a consulta original
+        lider.complete(CepDTO.builder().cep("01001000").valido(true).build());
+        assertTrue(primeiro.join().isValido());
+        assertEquals(0, rapido.getEmAndamento());
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.desafio.fullstack.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong agora = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(10, 5, 50, 80, Duration.ofSeconds(1), Duration.ofSeconds(30), 2, agora::get);
+    }
+
+    @Test
+    @DisplayName("Deve abrir quando a taxa de falhas atinge o limite")
+    void deveAbrirPorFalhas() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.permitir());
+            breaker.registrarSucesso(10);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.permitir());
+            breaker.registrarFalha(10);
+        }
+
+        assertEquals(CircuitBreaker.Estado.ABERTO, breaker.getEstado());
+        assertFalse(breaker.permitir());
+    }
+
+    @Test
+    @DisplayName("Deve abrir quando a maioria das chamadas é lenta")
+    void deveAbrirPorLentidao() {
+        for (int i = 0; i < 5; i++) {
+            breaker.permitir();
+            breaker.registrarSucesso(1500);
+        }
+
+        assertEquals(CircuitBreaker.Estado.ABERTO, breaker.getEstado());
+    }
+
+    @Test
+    @DisplayName("Não deve abrir antes do mínimo de chamadas")
+    void naoDeveAbrirAntesDoMinimo() {
+        for (int i = 0; i < 4; i++) {
+            breaker.permitir();
+            breaker.registrarFalha(10);
+        }
+
+        assertEquals(CircuitBreaker.Estado.FECHADO, breaker.getEstado());
+    }
+
+    @Test
+    @DisplayName("Deve fechar após chamadas de teste bem-sucedidas no meio-aberto")
+    void deveFecharAposMeioAberto() {
+        abrir();
+        agora.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertTrue(breaker.permitir());
+        assertTrue(breaker.permitir());
+        assertFalse(breaker.permitir());
+        breaker.registrarSucesso(10);
+        breaker.registrarSucesso(10);
+
+        assertEquals(CircuitBreaker.Estado.FECHADO, breaker.getEstado());
+        assertEquals(0, breaker.getChamadasNaJanela());
+    }
+
+    @Test
+    @DisplayName("Deve reabrir se a chamada de teste falhar")
+    void deveReabrirSeTesteFalhar() {
+        abrir();
+        agora.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertTrue(breaker.permitir());
+        breaker.registrarFalha(10);
+
+        assertEquals(CircuitBreaker.Estado.ABERTO, breaker.getEstado());
+        assertFalse(breaker.permitir());
+    }
+
+    private void abrir() {
+        for (int i = 0; i < 5; i++) {
+            breaker.permitir();
+            breaker.registrarFalha(10);
+        }
+        assertEquals(CircuitBreaker.Estado.ABERTO, breaker.getEstado());
+    }
+}
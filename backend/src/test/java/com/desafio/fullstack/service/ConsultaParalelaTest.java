@@ -0,0 +1,91 @@
+package com.desafio.fullstack.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultaParalelaTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final Slice<String> fatia = new SliceImpl<>(List.of("a"), PageRequest.of(0, 1), true);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ConsultaParalela consulta(int conexoesLivres) {
+        return new ConsultaParalela(executor, TransactionOperations.withoutTransaction(), null, () -> conexoesLivres,
+            true, 2, 2);
+    }
+
+    @Test
+    @DisplayName("Deve contar em outra thread enquanto a página é lida")
+    void deveContarEmParalelo() {
+        CountDownLatch contagemIniciada = new CountDownLatch(1);
+        AtomicReference<Thread> threadContagem = new AtomicReference<>();
+
+        ConsultaParalela.Resultado<String> resultado = consulta(5).executar(() -> {
+            // só termina se a contagem já estiver rodando ao mesmo tempo
+            try {
+                assertTrue(contagemIniciada.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return fatia;
+        }, () -> {
+            threadContagem.set(Thread.currentThread());
+            contagemIniciada.countDown();
+            return 7;
+        });
+
+        assertSame(fatia, resultado.pagina());
+        assertEquals(7, resultado.total());
+        assertNotSame(Thread.currentThread(), threadContagem.get());
+    }
+
+    @Test
+    @DisplayName("Com poucas conexões livres no pool deve contar depois da página, na mesma thread")
+    void deveSerSequencialSobPressao() {
+        AtomicReference<Thread> threadContagem = new AtomicReference<>();
+
+        ConsultaParalela.Resultado<String> resultado = consulta(1).executar(() -> fatia, () -> {
+            threadContagem.set(Thread.currentThread());
+            return 7;
+        });
+
+        assertEquals(7, resultado.total());
+        assertSame(Thread.currentThread(), threadContagem.get());
+    }
+
+    @Test
+    @DisplayName("Se a contagem paralela falhar deve contar de novo na thread da página")
+    void deveRecontarSeFalhar() {
+        AtomicReference<Thread> threadPagina = new AtomicReference<>();
+
+        ConsultaParalela.Resultado<String> resultado = consulta(5).executar(() -> {
+            threadPagina.set(Thread.currentThread());
+            return fatia;
+        }, () -> {
+            if (Thread.currentThread() != threadPagina.get()) {
+                throw new IllegalStateException("conexão recusada");
+            }
+            return 3;
+        });
+
+        assertEquals(3, resultado.total());
+    }
+}
@@ -0,0 +1,122 @@
+package com.desafio.fullstack.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ContagemListagemTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AtomicLong relogio = new AtomicLong();
+    private final AtomicInteger contagens = new AtomicInteger();
+
+    private ContagemListagem contagem;
+
+    @BeforeEach
+    void setUp() {
+        ConsultaParalela sequencial = new ConsultaParalela(Runnable::run, TransactionOperations.withoutTransaction(),
+            null, () -> 0, false, 1, 0);
+        contagem = new ContagemListagem(jdbcTemplate, sequencial, Duration.ofSeconds(10), 100, 1_000, relogio::get);
+    }
+
+    private long contar() {
+        contagens.incrementAndGet();
+        return 42;
+    }
+
+    private static Supplier<Slice<String>> pagina(int numero, boolean haMais) {
+        return () -> new SliceImpl<>(List.of("a", "b"), PageRequest.of(numero, 2), haMais);
+    }
+
+    private ContagemListagem.Total total(String tabela, String filtro, int numero, boolean haMais) {
+        return contagem.ler(tabela, filtro, pagina(numero, haMais), this::contar).total();
+    }
+
+    @Test
+    @DisplayName("Na última página o total sai da própria página, mesmo com contagem em cache")
+    void deveUsarUltimaPagina() {
+        total("empresas", "padaria|", 0, true);
+
+        ContagemListagem.Total ultima = total("empresas", "padaria|", 3, false);
+
+        assertEquals(8, ultima.valor());
+        assertFalse(ultima.aproximado());
+        assertEquals(1, contagens.get());
+    }
+
+    @Test
+    @DisplayName("Deve guardar a contagem do filtro até o TTL vencer")
+    void deveGuardarContagemPorFiltro() {
+        total("empresas", "padaria|", 0, true);
+        relogio.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertEquals(42, total("empresas", "padaria|", 1, true).valor());
+        assertEquals(1, contagens.get());
+
+        total("empresas", "mercado|", 0, true);
+        assertEquals(2, contagens.get());
+
+        relogio.addAndGet(Duration.ofSeconds(2).toNanos());
+        total("empresas", "padaria|", 0, true);
+        assertEquals(3, contagens.get());
+    }
+
+    @Test
+    @DisplayName("Gravação na tabela descarta só as contagens dela")
+    void deveInvalidarPorTabela() {
+        total("empresas", "padaria|", 0, true);
+        total("fornecedores", "padaria|", 0, true);
+
+        contagem.invalidar("empresas");
+        total("empresas", "padaria|", 0, true);
+        total("fornecedores", "padaria|", 0, true);
+
+        assertEquals(3, contagens.get());
+    }
+
+    @Test
+    @DisplayName("Sem filtro, tabela grande usa a estimativa do banco e marca o total como aproximado")
+    void deveUsarEstimativaSemFiltro() {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("empresas"))).thenReturn(250_000L);
+
+        ContagemListagem.Total total = total("empresas", "", 0, true);
+
+        assertEquals(250_000, total.valor());
+        assertTrue(total.aproximado());
+        assertEquals(0, contagens.get());
+    }
+
+    @Test
+    @DisplayName("Sem estatística ou com tabela pequena deve contar exato")
+    void deveContarTabelaPequena() {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("H2");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("EMPRESAS"))).thenReturn(300L, -1L);
+
+        ContagemListagem.Total pequena = total("empresas", "", 0, true);
+        contagem.invalidar("empresas");
+        ContagemListagem.Total semEstatistica = total("empresas", "", 0, true);
+
+        assertEquals(42, pequena.valor());
+        assertFalse(pequena.aproximado());
+        assertFalse(semEstatistica.aproximado());
+        assertEquals(2, contagens.get());
+    }
+}
@@ -4,6 +4,8 @@ import com.desafio.fullstack.dto.CepDTO;
 import com.desafio.fullstack.dto.EmpresaDTO;
 import com.desafio.fullstack.entity.Empresa;
 import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.StatusEnriquecimento;
+import com.desafio.fullstack.enums.TipoCadastro;
 import com.desafio.fullstack.enums.TipoPessoa;
 import com.desafio.fullstack.exception.BusinessException;
 import com.desafio.fullstack.exception.ResourceNotFoundException;
@@ -14,14 +16,22 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -35,6 +45,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class EmpresaServiceTest {
 
+    private static final Sort POR_NOME = Sort.by("nomeFantasia");
+
     @Mock
     private EmpresaRepository empresaRepository;
 
@@ -44,6 +56,27 @@ class EmpresaServiceTest {
     @Mock
     private CepService cepService;
 
+    @Mock
+    private EnderecoAutocompleteIndex enderecoAutocompleteIndex;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Mock
+    private EnriquecimentoCepService enriquecimentoCepService;
+
+    @Mock
+    private CadastroBuscaIndex cadastroBuscaIndex;
+
+    @Mock
+    private NomeSugestaoIndex nomeSugestaoIndex;
+
+    // sem estimativa do banco; contagens na thread do teste
+    @Spy
+    private ContagemListagem contagemListagem = new ContagemListagem(mock(JdbcTemplate.class),
+        new ConsultaParalela(Runnable::run, TransactionOperations.withoutTransaction(), null, () -> 0, false, 1, 0),
+        Duration.ofSeconds(30), 100, 10_000, System::nanoTime);
+
     @InjectMocks
     private EmpresaService empresaService;
 
@@ -100,6 +133,7 @@ class EmpresaServiceTest {
             assertEquals("Empresa Teste", result.getNomeFantasia());
             assertEquals("PR", result.getUf());
             verify(empresaRepository).save(any(Empresa.class));
+            verify(cadastroBuscaIndex).indexar(empresa);
         }
 
         @Test
@@ -148,6 +182,88 @@ class EmpresaServiceTest {
             assertEquals("PR", result.getUf());
             assertEquals("Centro", result.getBairro());
         }
+
+        @Test
+        @DisplayName("Deve consultar o CEP antes de abrir a transação de gravação")
+        void deveConsultarCepForaDaTransacao() {
+            when(empresaRepository.existsByCnpj(anyString())).thenReturn(false);
+            when(cepService.consultarCep(anyString())).thenReturn(cepValido);
+            when(empresaRepository.save(any(Empresa.class))).thenReturn(empresa);
+
+            empresaService.create(requestValido);
+
+            var ordem = inOrder(cepService, transactionOperations, empresaRepository);
+            ordem.verify(cepService).consultarCep("80000000");
+            ordem.verify(transactionOperations).execute(any());
+            ordem.verify(empresaRepository).save(any(Empresa.class));
+        }
+
+        @Test
+        @DisplayName("No modo assíncrono deve gravar como PENDENTE com a UF da faixa, sem consultar os provedores")
+        void deveGravarPendenteNoModoAssincrono() {
+            when(enriquecimentoCepService.isAssincrono()).thenReturn(true);
+            when(cepService.consultarCepLocal("80000000")).thenReturn(
+                    CepDTO.builder().cep("80000000").uf("PR").provisorio(true).build());
+            when(empresaRepository.existsByCnpj(anyString())).thenReturn(false);
+            when(empresaRepository.save(any(Empresa.class))).thenAnswer(inv -> {
+                Empresa saved = inv.getArgument(0);
+                saved.setId(5L);
+                return saved;
+            });
+
+            EmpresaDTO.Response result = empresaService.create(requestValido);
+
+            assertEquals(StatusEnriquecimento.PENDENTE, result.getStatusEnriquecimento());
+            assertEquals("PR", result.getUf());
+            verify(enriquecimentoCepService).agendar(TipoCadastro.EMPRESA, 5L);
+            verify(cepService, never()).consultarCep(anyString());
+            verifyNoInteractions(enderecoAutocompleteIndex);
+        }
+
+        @Test
+        @DisplayName("No modo assíncrono deve rejeitar na hora CEP fora das faixas")
+        void deveRejeitarCepForaDasFaixasNoModoAssincrono() {
+            when(enriquecimentoCepService.isAssincrono()).thenReturn(true);
+            when(cepService.consultarCepLocal("80000000")).thenReturn(
+                    CepDTO.builder().cep("80000000").valido(false).mensagem("CEP inexistente").build());
+            when(empresaRepository.existsByCnpj(anyString())).thenReturn(false);
+
+            assertThrows(BusinessException.class, () -> empresaService.create(requestValido));
+
+            verify(empresaRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Com os provedores fora deve gravar como PENDENTE com a UF provisória")
+        void deveGravarPendenteComProvedoresIndisponiveis() {
+            when(empresaRepository.existsByCnpj(anyString())).thenReturn(false);
+            when(cepService.consultarCep("80000000")).thenReturn(
+                    CepDTO.builder().cep("80000000").uf("PR").provisorio(true).mensagem("Não foi possível validar o CEP").build());
+            when(empresaRepository.save(any(Empresa.class))).thenAnswer(inv -> {
+                Empresa saved = inv.getArgument(0);
+                saved.setId(6L);
+                return saved;
+            });
+
+            EmpresaDTO.Response result = empresaService.create(requestValido);
+
+            assertEquals(StatusEnriquecimento.PENDENTE, result.getStatusEnriquecimento());
+            assertEquals("PR", result.getUf());
+            assertNull(result.getCidade());
+            verify(enriquecimentoCepService).agendar(TipoCadastro.EMPRESA, 6L);
+            verifyNoInteractions(enderecoAutocompleteIndex);
+        }
+
+        @Test
+        @DisplayName("Deve conferir o CNPJ de novo na transação")
+        void deveConferirCnpjNaTransacao() {
+            when(empresaRepository.existsByCnpj("12345678000199")).thenReturn(false, true);
+            when(cepService.consultarCep(anyString())).thenReturn(cepValido);
+
+            assertThrows(BusinessException.class, () -> empresaService.create(requestValido));
+            verify(empresaRepository, never()).save(any());
+            verify(enderecoAutocompleteIndex, never()).registrar(any(), any(), any(), any(), any());
+        }
     }
 
     // ATUALIZAR EMPRESA
@@ -172,6 +288,7 @@ class EmpresaServiceTest {
 
             assertNotNull(result);
             verify(empresaRepository).save(any(Empresa.class));
+            verify(cadastroBuscaIndex).indexar(empresa);
         }
 
         @Test
@@ -224,15 +341,145 @@ class EmpresaServiceTest {
 
         @Test
         void deveListarComPaginacao() {
-            Pageable pageable = PageRequest.of(0, 10);
+            Pageable pageable = PageRequest.of(0, 10, POR_NOME);
             Page<Empresa> page = new PageImpl<>(List.of(empresa), pageable, 1);
-            when(empresaRepository.findBySearch(anyString(), any(Pageable.class))).thenReturn(page);
+            when(empresaRepository.findSlice(any(), eq(pageable))).thenReturn(page);
 
-            var result = empresaService.findAll("", pageable);
+            var result = empresaService.findAll(busca(""), true, pageable);
 
             assertNotNull(result);
             assertEquals(1, result.getTotalElements());
             assertEquals(1, result.getContent().size());
+            verifyNoInteractions(cadastroBuscaIndex);
+        }
+
+        @Test
+        @DisplayName("Sem índice pronto deve buscar no banco, ordenado por nome")
+        void deveBuscarPorNomeNormalizado() {
+            Pageable pageable = PageRequest.of(0, 10);
+            Pageable porNome = PageRequest.of(0, 10, POR_NOME);
+            when(empresaRepository.findSlice(any(), eq(porNome)))
+                .thenReturn(new PageImpl<>(List.of(empresa), porNome, 1));
+
+            var result = empresaService.findAll(busca("  São José - Comércio "), true, pageable);
+
+            assertEquals(1, result.getTotalElements());
+            // o filtro do banco e a chave da contagem usam o nome normalizado (casamento no H2 em CadastroSpecificationsTest)
+            verify(contagemListagem).ler(eq("empresas"), eq("sao jose comercio|||||"), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve montar a página na ordem de relevância do índice")
+        void deveHidratarNaOrdemDoIndice() {
+            Pageable pageable = PageRequest.of(0, 2);
+            Empresa outra = Empresa.builder().id(2L).cnpj("99888777000166").nomeFantasia("São José Comércio")
+                .cep("80010000").build();
+            when(cadastroBuscaIndex.buscar(TipoCadastro.EMPRESA, "Sao Jose", "", pageable))
+                .thenReturn(Optional.of(new CadastroBuscaIndex.Resultado(List.of(2L, 1L), 5)));
+            when(empresaRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(empresa, outra));
+
+            var result = empresaService.findAll(busca("Sao Jose"), true, pageable);
+
+            assertEquals(List.of(2L, 1L), result.getContent().stream().map(EmpresaDTO.Response::getId).toList());
+            assertEquals(5, result.getTotalElements());
+            verify(empresaRepository, never()).findSlice(any(), any());
+        }
+
+        @Test
+        @DisplayName("Com contar=false a página do índice deve vir sem total")
+        void deveOmitirTotalDoIndiceSemContar() {
+            Pageable pageable = PageRequest.of(0, 1);
+            when(cadastroBuscaIndex.buscar(TipoCadastro.EMPRESA, "padaria", "", pageable))
+                .thenReturn(Optional.of(new CadastroBuscaIndex.Resultado(List.of(1L), 5)));
+            when(empresaRepository.findAllById(List.of(1L))).thenReturn(List.of(empresa));
+
+            var result = empresaService.findAll(busca("padaria"), false, pageable);
+
+            assertEquals(-1, result.getTotalElements());
+            assertEquals(-1, result.getTotalPages());
+            assertFalse(result.isLast());
+        }
+
+        @Test
+        @DisplayName("Com sort a busca por texto deve ir ao banco na ordem pedida")
+        void deveManterOrdenacaoPedida() {
+            Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "cnpj"));
+            when(empresaRepository.findSlice(any(), eq(pageable))).thenReturn(new SliceImpl<>(List.of(empresa), pageable, false));
+
+            var result = empresaService.findAll(busca("padaria"), true, pageable);
+
+            assertEquals(1, result.getTotalElements());
+            verifyNoInteractions(cadastroBuscaIndex);
+        }
+
+        @Test
+        @DisplayName("Deve buscar CNPJ digitado com máscara pelos dígitos")
+        void deveBuscarCnpjComMascara() {
+            Pageable pageable = PageRequest.of(0, 10, POR_NOME);
+            when(empresaRepository.findSlice(any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(empresa), pageable, 1));
+
+            var result = empresaService.findAll(busca("11.222.333"), true, pageable);
+
+            assertEquals(1, result.getTotalElements());
+            verify(contagemListagem).ler(eq("empresas"), eq("11 222 333|11222333||||"), any(), any());
+        }
+
+        @Test
+        @DisplayName("Com UF e cidade deve consultar o banco sem passar pelo índice de texto")
+        void deveFiltrarPorUfSemIndice() {
+            Pageable pageable = PageRequest.of(0, 10, POR_NOME);
+            when(empresaRepository.findSlice(any(), eq(pageable))).thenReturn(new SliceImpl<>(List.of(empresa), pageable, false));
+
+            var result = empresaService.findAll(EmpresaDTO.Filtro.builder().search("padaria").uf("pr").cidade("Curitiba")
+                .build(), true, pageable);
+
+            assertEquals(1, result.getTotalElements());
+            verifyNoInteractions(cadastroBuscaIndex);
+        }
+
+        @Test
+        @DisplayName("Deve recusar período de criação invertido")
+        void deveRecusarPeriodoInvertido() {
+            EmpresaDTO.Filtro filtro = EmpresaDTO.Filtro.builder()
+                .criadoDe(LocalDate.of(2024, 2, 1)).criadoAte(LocalDate.of(2024, 1, 1)).build();
+
+            assertThrows(BusinessException.class, () -> empresaService.findAll(filtro, true, PageRequest.of(0, 10)));
+        }
+
+        @Test
+        @DisplayName("Com contar=false deve devolver só a fatia, sem total")
+        void deveListarSemContar() {
+            Pageable pageable = PageRequest.of(0, 1, POR_NOME);
+            when(empresaRepository.findSlice(any(), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of(empresa), pageable, true));
+
+            var result = empresaService.findAll(busca("padaria"), false, pageable);
+
+            assertEquals(-1, result.getTotalElements());
+            assertEquals(-1, result.getTotalPages());
+            assertFalse(result.isLast());
+            verify(empresaRepository, never()).count(ArgumentMatchers.<Specification<Empresa>>any());
+        }
+
+        @Test
+        @DisplayName("Deve contar a busca uma vez e reaproveitar o total nas páginas seguintes")
+        void deveReaproveitarContagem() {
+            Pageable primeira = PageRequest.of(0, 1, POR_NOME);
+            Pageable segunda = PageRequest.of(1, 1, POR_NOME);
+            when(empresaRepository.findSlice(any(), eq(primeira)))
+                .thenReturn(new SliceImpl<>(List.of(empresa), primeira, true));
+            when(empresaRepository.findSlice(any(), eq(segunda)))
+                .thenReturn(new SliceImpl<>(List.of(empresa), segunda, true));
+            when(empresaRepository.count(ArgumentMatchers.<Specification<Empresa>>any())).thenReturn(3L);
+
+            var result = empresaService.findAll(busca("Padaria"), true, primeira);
+            empresaService.findAll(busca("padaria"), true, segunda);
+
+            assertEquals(3, result.getTotalElements());
+            assertEquals(3, result.getTotalPages());
+            assertFalse(result.isTotalAproximado());
+            verify(empresaRepository, times(1)).count(ArgumentMatchers.<Specification<Empresa>>any());
         }
     }
 
@@ -246,6 +493,10 @@ class EmpresaServiceTest {
 
             assertDoesNotThrow(() -> empresaService.delete(1L));
             verify(empresaRepository).delete(empresa);
+            verify(nomeSugestaoIndex).remover(TipoCadastro.EMPRESA, 1L);
+            verify(cadastroBuscaIndex).remover(TipoCadastro.EMPRESA, 1L);
+            verify(contagemListagem).invalidar("empresas");
+            verify(contagemListagem).invalidar("fornecedores");
         }
 
         @Test
@@ -315,6 +566,7 @@ class EmpresaServiceTest {
 
             assertNotNull(result);
             verify(empresaRepository).save(empresa);
+            verify(contagemListagem).invalidar("fornecedores");
         }
 
         @Test
@@ -332,6 +584,22 @@ class EmpresaServiceTest {
             verify(empresaRepository, never()).save(any());
         }
 
+        @Test
+        @DisplayName("Empresa PENDENTE com UF provisória PR deve aplicar a regra do Paraná")
+        void deveAplicarRegraDoParanaComUfProvisoria() {
+            empresa.setStatusEnriquecimento(StatusEnriquecimento.PENDENTE);
+            empresa.setCidade(null);
+            when(empresaRepository.findById(1L)).thenReturn(Optional.of(empresa)); // UF = PR
+            when(fornecedorRepository.findById(2L)).thenReturn(Optional.of(fornecedorMenor));
+
+            BusinessException ex = assertThrows(
+                    BusinessException.class,
+                    () -> empresaService.vincularFornecedor(1L, 2L)
+            );
+
+            assertTrue(ex.getMessage().contains("menores de idade"));
+        }
+
         @Test
         void devePermitirMenorForaDoParana() {
             Empresa empresaSP = Empresa.builder()
@@ -394,6 +662,11 @@ class EmpresaServiceTest {
 
             assertNotNull(result);
             verify(empresaRepository).save(empresa);
+            verify(contagemListagem).invalidar("fornecedores");
         }
     }
+
+    private static EmpresaDTO.Filtro busca(String search) {
+        return EmpresaDTO.Filtro.builder().search(search).build();
+    }
 }
@@ -0,0 +1,84 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.EnderecoSugestaoDTO;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EnderecoAutocompleteIndexTest {
+
+    private EmpresaRepository empresaRepository;
+    private FornecedorRepository fornecedorRepository;
+    private EnderecoAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        empresaRepository = mock(EmpresaRepository.class);
+        fornecedorRepository = mock(FornecedorRepository.class);
+        index = new EnderecoAutocompleteIndex(empresaRepository, fornecedorRepository, 64);
+    }
+
+    @Test
+    @DisplayName("Deve construir o índice a partir dos endereços cadastrados, sem duplicar CEPs")
+    void deveConstruirSemDuplicar() {
+        when(empresaRepository.findEnderecosDistintos()).thenReturn(List.of(
+            new EnderecoSugestaoDTO("01310100", "Avenida Paulista", "Bela Vista", "São Paulo", "SP")));
+        when(fornecedorRepository.findEnderecosDistintos()).thenReturn(List.of(
+            new EnderecoSugestaoDTO("01310100", "Avenida Paulista", "Bela Vista", "São Paulo", "SP"),
+            new EnderecoSugestaoDTO("80010000", "Rua XV de Novembro", "Centro", "Curitiba", "PR")));
+
+        index.construir();
+
+        assertThat(index.tamanho()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve sugerir por prefixo de CEP, aceitando hífen")
+    void deveSugerirPorPrefixoDeCep() {
+        index.registrar("01310-100", "Avenida Paulista", "Bela Vista", "São Paulo", "SP");
+        index.registrar("01310200", "Avenida Paulista", "Bela Vista", "São Paulo", "SP");
+        index.registrar("80010000", "Rua XV de Novembro", "Centro", "Curitiba", "PR");
+
+        assertThat(index.sugerir("0131", 10)).extracting(EnderecoSugestaoDTO::getCep)
+            .containsExactly("01310100", "01310200");
+        assertThat(index.sugerir("01310-1", 10)).extracting(EnderecoSugestaoDTO::getCep)
+            .containsExactly("01310100");
+        assertThat(index.sugerir("0131", 1)).hasSize(1);
+        assertThat(index.sugerir("9", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve sugerir por prefixos de palavras, ignorando acentos e caixa")
+    void deveSugerirPorTexto() {
+        index.registrar("01310100", "Avenida Paulista", "Bela Vista", "São Paulo", "SP");
+        index.registrar("80010000", "Rua XV de Novembro", "Centro", "Curitiba", "PR");
+        index.registrar("20040002", "Avenida Rio Branco", "Centro", "Rio de Janeiro", "RJ");
+
+        assertThat(index.sugerir("paul", 10)).extracting(EnderecoSugestaoDTO::getCep).containsExactly("01310100");
+        assertThat(index.sugerir("SAO pau", 10)).extracting(EnderecoSugestaoDTO::getCep).containsExactly("01310100");
+        assertThat(index.sugerir("av centro", 10)).extracting(EnderecoSugestaoDTO::getCep).containsExactly("20040002");
+        assertThat(index.sugerir("centro", 10)).hasSize(2);
+        assertThat(index.sugerir("inexistente", 10)).isEmpty();
+        assertThat(index.sugerir("  ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve refletir a atualização do endereço de um CEP já indexado")
+    void deveAtualizarEndereco() {
+        index.registrar("01310100", "Rua Antiga", "Bela Vista", "São Paulo", "SP");
+        index.registrar("01310100", "Avenida Paulista", "Bela Vista", "São Paulo", "SP");
+
+        assertThat(index.tamanho()).isEqualTo(1);
+        assertThat(index.sugerir("antiga", 10)).isEmpty();
+        assertThat(index.sugerir("paulista", 10)).extracting(EnderecoSugestaoDTO::getLogradouro)
+            .containsExactly("Avenida Paulista");
+    }
+}
@@ -0,0 +1,161 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.entity.Empresa;
+import com.desafio.fullstack.entity.EnriquecimentoPendente;
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.StatusEnriquecimento;
+import com.desafio.fullstack.enums.TipoCadastro;
+import com.desafio.fullstack.enums.TipoPessoa;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.EnriquecimentoPendenteRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EnriquecimentoCepServiceTest {
+
+    private EnriquecimentoPendenteRepository filaRepository;
+    private EmpresaRepository empresaRepository;
+    private FornecedorRepository fornecedorRepository;
+    private CepService cepService;
+    private EnderecoAutocompleteIndex enderecoAutocompleteIndex;
+    private CadastroBuscaIndex cadastroBuscaIndex;
+    private ContagemListagem contagemListagem;
+    private EnriquecimentoCepService service;
+
+    private Empresa empresa;
+    private EnriquecimentoPendente item;
+
+    @BeforeEach
+    void setUp() {
+        filaRepository = mock(EnriquecimentoPendenteRepository.class);
+        empresaRepository = mock(EmpresaRepository.class);
+        fornecedorRepository = mock(FornecedorRepository.class);
+        cepService = mock(CepService.class);
+        enderecoAutocompleteIndex = mock(EnderecoAutocompleteIndex.class);
+        cadastroBuscaIndex = mock(CadastroBuscaIndex.class);
+        contagemListagem = mock(ContagemListagem.class);
+        service = new EnriquecimentoCepService(filaRepository, empresaRepository, fornecedorRepository, cepService,
+                enderecoAutocompleteIndex, cadastroBuscaIndex, contagemListagem,
+                TransactionOperations.withoutTransaction(),
+                true, 50, 3, Duration.ofSeconds(10), Duration.ofSeconds(25), Duration.ofMinutes(10));
+
+        empresa = Empresa.builder().id(1L).cnpj("12345678000199").nomeFantasia("Empresa").cep("80010000")
+                .statusEnriquecimento(StatusEnriquecimento.PENDENTE).build();
+        item = EnriquecimentoPendente.builder().id(10L).tipo(TipoCadastro.EMPRESA).cadastroId(1L)
+                .proximaTentativa(LocalDateTime.now()).build();
+
+        when(filaRepository.travarVencidos(any(), any()))
+                .thenReturn(List.of(item));
+        when(empresaRepository.findById(1L)).thenReturn(Optional.of(empresa));
+    }
+
+    @Test
+    @DisplayName("Deve preencher o endereço e remover o item da fila")
+    void devePreencherEndereco() {
+        when(cepService.resolver("80010000")).thenReturn(CepDTO.builder().cep("80010000").uf("PR")
+                .cidade("Curitiba").bairro("Centro").logradouro("Rua XV de Novembro").valido(true).build());
+
+        service.processarPendentes();
+
+        assertEquals(StatusEnriquecimento.CONCLUIDO, empresa.getStatusEnriquecimento());
+        assertEquals("PR", empresa.getUf());
+        assertEquals("Curitiba", empresa.getCidade());
+        verify(empresaRepository).save(empresa);
+        verify(filaRepository).delete(item);
+        verify(enderecoAutocompleteIndex).registrar("80010000", "Rua XV de Novembro", "Centro", "Curitiba", "PR");
+        verify(cadastroBuscaIndex).indexar(empresa);
+        verify(contagemListagem).invalidar("empresas");
+    }
+
+    @Test
+    @DisplayName("Deve reservar o item antes de consultar o CEP, para outra réplica não pegar o mesmo item")
+    void deveReservarAntesDeConsultar() {
+        LocalDateTime antes = LocalDateTime.now();
+        when(cepService.resolver("80010000")).thenAnswer(inv -> {
+            assertFalse(item.getProximaTentativa().isBefore(antes.plusMinutes(10)));
+            verify(filaRepository).saveAll(List.of(item));
+            return CepDTO.builder().cep("80010000").uf("PR").valido(true).build();
+        });
+
+        service.processarPendentes();
+
+        verify(cepService).resolver("80010000");
+        verify(filaRepository).delete(item);
+    }
+
+    @Test
+    @DisplayName("CEP inexistente deve encerrar o enriquecimento sem nova tentativa")
+    void cepInexistenteDeveSerDefinitivo() {
+        when(cepService.resolver("80010000")).thenReturn(
+                CepDTO.builder().cep("80010000").valido(false).mensagem("CEP não encontrado").build());
+
+        service.processarPendentes();
+
+        assertEquals(StatusEnriquecimento.CEP_INVALIDO, empresa.getStatusEnriquecimento());
+        assertNull(empresa.getUf());
+        verify(filaRepository).delete(item);
+    }
+
+    @Test
+    @DisplayName("Falha transitória deve reagendar com backoff exponencial")
+    void falhaTransitoriaDeveReagendar() {
+        when(cepService.resolver("80010000")).thenThrow(new CepIndisponivelException("timeout"));
+
+        LocalDateTime antes = LocalDateTime.now();
+        service.processarPendentes();
+
+        assertEquals(1, item.getTentativas());
+        assertEquals("timeout", item.getUltimoErro());
+        assertFalse(item.getProximaTentativa().isBefore(antes.plusSeconds(10)));
+        assertEquals(StatusEnriquecimento.PENDENTE, empresa.getStatusEnriquecimento());
+        verify(filaRepository).save(item);
+        verify(filaRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Deve marcar FALHOU ao esgotar as tentativas")
+    void deveDesistirAposTentativasMaximas() {
+        item.setTentativas(2);
+        when(cepService.resolver("80010000")).thenThrow(new CepIndisponivelException("timeout"));
+
+        service.processarPendentes();
+
+        assertEquals(StatusEnriquecimento.FALHOU, empresa.getStatusEnriquecimento());
+        verify(filaRepository).delete(item);
+    }
+
+    @Test
+    @DisplayName("Cadastro que já não está pendente deve sair da fila sem consultar o CEP")
+    void deveIgnorarCadastroJaConcluido() {
+        item.setTipo(TipoCadastro.FORNECEDOR);
+        when(fornecedorRepository.findById(1L)).thenReturn(Optional.of(Fornecedor.builder().id(1L)
+                .tipoPessoa(TipoPessoa.JURIDICA).cep("80010000").statusEnriquecimento(StatusEnriquecimento.CONCLUIDO).build()));
+
+        service.processarPendentes();
+
+        verify(filaRepository).delete(item);
+        verifyNoInteractions(cepService);
+    }
+
+    @Test
+    @DisplayName("Backoff deve dobrar a cada tentativa até o máximo")
+    void backoffDeveDobrarAteOMaximo() {
+        assertEquals(Duration.ofSeconds(10), service.backoff(1));
+        assertEquals(Duration.ofSeconds(20), service.backoff(2));
+        assertEquals(Duration.ofSeconds(25), service.backoff(3));
+    }
+}
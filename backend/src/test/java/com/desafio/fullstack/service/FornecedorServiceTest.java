@@ -3,6 +3,7 @@ package com.desafio.fullstack.service;
 import com.desafio.fullstack.dto.CepDTO;
 import com.desafio.fullstack.dto.FornecedorDTO;
 import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.enums.TipoCadastro;
 import com.desafio.fullstack.enums.TipoPessoa;
 import com.desafio.fullstack.exception.BusinessException;
 import com.desafio.fullstack.exception.ResourceNotFoundException;
@@ -12,14 +13,22 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -33,12 +42,35 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class FornecedorServiceTest {
 
+    private static final Sort POR_NOME = Sort.by("nome");
+
     @Mock
     private FornecedorRepository fornecedorRepository;
 
     @Mock
     private CepService cepService;
 
+    @Mock
+    private EnderecoAutocompleteIndex enderecoAutocompleteIndex;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Mock
+    private EnriquecimentoCepService enriquecimentoCepService;
+
+    @Mock
+    private CadastroBuscaIndex cadastroBuscaIndex;
+
+    @Mock
+    private NomeSugestaoIndex nomeSugestaoIndex;
+
+    // sem estimativa do banco; contagens na thread do teste
+    @Spy
+    private ContagemListagem contagemListagem = new ContagemListagem(mock(JdbcTemplate.class),
+        new ConsultaParalela(Runnable::run, TransactionOperations.withoutTransaction(), null, () -> 0, false, 1, 0),
+        Duration.ofSeconds(30), 100, 10_000, System::nanoTime);
+
     @InjectMocks
     private FornecedorService fornecedorService;
 
@@ -376,12 +408,11 @@ class FornecedorServiceTest {
         @Test
         @DisplayName("Deve listar fornecedores com filtros e paginação")
         void deveListarComFiltros() {
-            Pageable pageable = PageRequest.of(0, 10);
+            Pageable pageable = PageRequest.of(0, 10, POR_NOME);
             Page<Fornecedor> page = new PageImpl<>(List.of(fornecedorPJ, fornecedorPF), pageable, 2);
-            when(fornecedorRepository.findByFilters(anyString(), anyString(), any(Pageable.class)))
-                    .thenReturn(page);
+            when(fornecedorRepository.findSlice(any(), eq(pageable))).thenReturn(page);
 
-            var result = fornecedorService.findAll("", "", pageable);
+            var result = fornecedorService.findAll(new FornecedorDTO.Filtro(), true, pageable);
 
             assertEquals(2, result.getTotalElements());
             assertEquals(2, result.getContent().size());
@@ -390,15 +421,49 @@ class FornecedorServiceTest {
         @Test
         @DisplayName("Deve filtrar por nome")
         void deveFiltrarPorNome() {
-            Pageable pageable = PageRequest.of(0, 10);
+            Pageable pageable = PageRequest.of(0, 10, POR_NOME);
             Page<Fornecedor> page = new PageImpl<>(List.of(fornecedorPF), pageable, 1);
-            when(fornecedorRepository.findByFilters(eq("João"), anyString(), any(Pageable.class)))
-                    .thenReturn(page);
+            when(fornecedorRepository.findSlice(any(), eq(pageable))).thenReturn(page);
 
-            var result = fornecedorService.findAll("João", "", pageable);
+            var result = fornecedorService.findAll(FornecedorDTO.Filtro.builder().nome("João").build(), true, pageable);
 
             assertEquals(1, result.getTotalElements());
             assertEquals("João Silva", result.getContent().get(0).getNome());
+            // o filtro do banco e a chave da contagem usam o nome normalizado (casamento no H2 em CadastroSpecificationsTest)
+            verify(contagemListagem).ler(eq("fornecedores"), eq("joao|||||||"), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve filtrar CPF/CNPJ com máscara pelos dígitos")
+        void deveFiltrarDocumentoComMascara() {
+            Pageable pageable = PageRequest.of(0, 10);
+            Pageable porNome = PageRequest.of(0, 10, POR_NOME);
+            Page<Fornecedor> page = new PageImpl<>(List.of(fornecedorPF), porNome, 1);
+            when(fornecedorRepository.findSlice(any(), eq(porNome))).thenReturn(page);
+
+            var result = fornecedorService.findAll(FornecedorDTO.Filtro.builder().cpfCnpj("123.456.78").build(), true, pageable);
+
+            assertEquals(1, result.getTotalElements());
+            verify(cadastroBuscaIndex).buscar(TipoCadastro.FORNECEDOR, null, "12345678", pageable);
+            verify(contagemListagem).ler(eq("fornecedores"), eq("|12345678||||||"), any(), any());
+        }
+
+        @Test
+        @DisplayName("Filtros de UF, tipo e empresa devem consultar o banco e separar as contagens em cache")
+        void deveFiltrarPorUfTipoEEmpresa() {
+            Pageable pageable = PageRequest.of(0, 1, POR_NOME);
+            when(fornecedorRepository.findSlice(any(), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of(fornecedorPF), pageable, true));
+            when(fornecedorRepository.count(ArgumentMatchers.<Specification<Fornecedor>>any())).thenReturn(4L, 2L);
+            FornecedorDTO.Filtro doParana = FornecedorDTO.Filtro.builder().nome("João").uf("pr")
+                .tipoPessoa(TipoPessoa.FISICA).build();
+            FornecedorDTO.Filtro daEmpresa = FornecedorDTO.Filtro.builder().nome("João").uf("PR")
+                .tipoPessoa(TipoPessoa.FISICA).empresaId(1L).build();
+
+            assertEquals(4, fornecedorService.findAll(doParana, true, pageable).getTotalElements());
+            assertEquals(2, fornecedorService.findAll(daEmpresa, true, pageable).getTotalElements());
+            assertEquals(4, fornecedorService.findAll(doParana, true, pageable).getTotalElements());
+            verifyNoInteractions(cadastroBuscaIndex);
         }
     }
 
@@ -414,6 +479,7 @@ class FornecedorServiceTest {
 
             assertDoesNotThrow(() -> fornecedorService.delete(1L));
             verify(fornecedorRepository).delete(fornecedorPJ);
+            verify(cadastroBuscaIndex).remover(TipoCadastro.FORNECEDOR, 1L);
         }
 
         @Test
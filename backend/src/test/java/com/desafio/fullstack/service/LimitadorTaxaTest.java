@@ -0,0 +1,158 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.exception.CepLimiteExcedidoException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LimitadorTaxaTest {
+
+    private final AtomicLong relogio = new AtomicLong(1_000_000_000L);
+    // a drenagem é disparada à mão nos testes, com o relógio avançado
+    private final ScheduledExecutorService agendador = mock(ScheduledExecutorService.class);
+
+    // 10 por segundo, rajada de 2, fila de 2, espera máxima de 1s
+    private final LimitadorTaxa limitador = new LimitadorTaxa("viacep", 10, 2, 2, Duration.ofSeconds(1),
+            LimitadorTaxa.local(10, relogio::get), agendador, relogio::get);
+
+    private void avancar(Duration duracao) {
+        relogio.addAndGet(duracao.toNanos());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a rajada na hora e enfileirar o excedente")
+    void deveLiberarRajadaEEnfileirarExcedente() {
+        assertTrue(limitador.adquirir().isDone());
+        assertTrue(limitador.adquirir().isDone());
+
+        CompletableFuture<Void> terceira = limitador.adquirir();
+
+        assertFalse(terceira.isDone());
+        assertEquals(1, limitador.getNaFila());
+        verify(agendador).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a fila na ordem de chegada conforme os tokens repõem")
+    void deveLiberarFilaEmOrdem() {
+        limitador.adquirir();
+        limitador.adquirir();
+        CompletableFuture<Void> primeira = limitador.adquirir();
+        CompletableFuture<Void> segunda = limitador.adquirir();
+
+        avancar(Duration.ofMillis(100));
+        limitador.drenar();
+
+        assertTrue(primeira.isDone());
+        assertFalse(segunda.isDone());
+
+        avancar(Duration.ofMillis(100));
+        limitador.drenar();
+
+        assertTrue(segunda.isDone());
+        assertEquals(0, limitador.getNaFila());
+    }
+
+    @Test
+    @DisplayName("Quem chega com fila não vazia deve entrar no fim dela")
+    void naoDeveFurarAFila() {
+        limitador.adquirir();
+        limitador.adquirir();
+        CompletableFuture<Void> enfileirada = limitador.adquirir();
+
+        avancar(Duration.ofMillis(100));
+        CompletableFuture<Void> nova = limitador.adquirir();
+
+        assertFalse(nova.isDone());
+        limitador.drenar();
+        assertTrue(enfileirada.isDone());
+        assertFalse(nova.isDone());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar quando a fila está cheia")
+    void deveRejeitarComFilaCheia() {
+        limitador.adquirir();
+        limitador.adquirir();
+        limitador.adquirir();
+        limitador.adquirir();
+
+        CompletableFuture<Void> rejeitada = limitador.adquirir();
+
+        CompletionException ex = assertThrows(CompletionException.class, rejeitada::join);
+        assertInstanceOf(CepLimiteExcedidoException.class, ex.getCause());
+        assertEquals(1, limitador.getRejeitadas());
+    }
+
+    @Test
+    @DisplayName("Deve falhar quem passou da espera máxima na fila")
+    void deveExpirarEsperaLonga() {
+        limitador.pausar(Duration.ofSeconds(5));
+
+        CompletableFuture<Void> espera = limitador.adquirir();
+
+        avancar(Duration.ofMillis(1_100));
+        limitador.drenar();
+
+        assertTrue(espera.isCompletedExceptionally());
+        assertEquals(1, limitador.getExpiradas());
+    }
+
+    @Test
+    @DisplayName("Chamada cancelada na fila não deve consumir token")
+    void canceladaNaoDeveConsumirToken() {
+        limitador.adquirir();
+        limitador.adquirir();
+        CompletableFuture<Void> cancelada = limitador.adquirir();
+        CompletableFuture<Void> seguinte = limitador.adquirir();
+        cancelada.cancel(false);
+
+        avancar(Duration.ofMillis(100));
+        limitador.drenar();
+
+        assertTrue(seguinte.isDone());
+        assertFalse(seguinte.isCompletedExceptionally());
+    }
+
+    @Test
+    @DisplayName("Pausa por HTTP 429 deve segurar as chamadas até o Retry-After")
+    void pausaDeveSegurarChamadas() {
+        limitador.pausar(Duration.ofMillis(600));
+
+        CompletableFuture<Void> chamada = limitador.adquirir();
+        assertFalse(chamada.isDone());
+
+        avancar(Duration.ofMillis(300));
+        limitador.drenar();
+        assertFalse(chamada.isDone());
+
+        // a pausa acabou, mas o balde recomeça vazio
+        avancar(Duration.ofMillis(300));
+        limitador.drenar();
+        assertFalse(chamada.isDone());
+
+        avancar(Duration.ofMillis(100));
+        limitador.drenar();
+        assertTrue(chamada.isDone());
+        assertFalse(chamada.isCompletedExceptionally());
+    }
+
+    @Test
+    @DisplayName("Sem limite configurado deve liberar sempre")
+    void semLimiteDeveLiberarSempre() {
+        LimitadorTaxa semLimite = LimitadorTaxa.semLimite("cep.la");
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(semLimite.adquirir().isDone());
+        }
+        assertEquals(0, semLimite.getEnfileiradas());
+    }
+}
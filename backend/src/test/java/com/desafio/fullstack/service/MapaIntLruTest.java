@@ -0,0 +1,87 @@
+package com.desafio.fullstack.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaIntLruTest {
+
+    @Test
+    @DisplayName("Cheio deve remover a chave usada há mais tempo, contando a leitura como uso")
+    void deveRemoverMenosUsada() {
+        MapaIntLru<String> mapa = new MapaIntLru<>(2);
+
+        assertFalse(mapa.put(1001000, "a"));
+        assertFalse(mapa.put(1310100, "b"));
+        assertEquals("a", mapa.get(1001000));
+        assertTrue(mapa.put(80010000, "c"));
+
+        assertNull(mapa.get(1310100));
+        assertEquals("a", mapa.get(1001000));
+        assertEquals("c", mapa.get(80010000));
+        assertEquals(2, mapa.size());
+    }
+
+    @Test
+    @DisplayName("Regravar ou remover uma chave não deve contar como remoção por tamanho")
+    void deveRegravarERemover() {
+        MapaIntLru<String> mapa = new MapaIntLru<>(2);
+        mapa.put(1, "a");
+        mapa.put(2, "b");
+
+        assertFalse(mapa.put(1, "a2"));
+        assertEquals("b", mapa.remove(2));
+        assertNull(mapa.remove(2));
+        assertFalse(mapa.put(3, "c"));
+
+        assertEquals("a2", mapa.get(1));
+        assertEquals(2, mapa.size());
+    }
+
+    @Test
+    @DisplayName("Deve se comportar como um LinkedHashMap por ordem de acesso em operações aleatórias, crescendo além da capacidade inicial")
+    void deveSeguirLinkedHashMap() {
+        int tamanhoMaximo = 3000;
+        MapaIntLru<Integer> mapa = new MapaIntLru<>(tamanhoMaximo);
+        Map<Integer, Integer> referencia = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > tamanhoMaximo;
+            }
+        };
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // faixa de CEPs consecutivos, para forçar colisões e trechos de sondagem
+            int chave = 80_000_000 + random.nextInt(5000);
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(referencia.get(chave), mapa.get(chave));
+                case 1 -> assertEquals(referencia.remove(chave), mapa.remove(chave));
+                default -> {
+                    boolean cheio = referencia.size() == tamanhoMaximo && !referencia.containsKey(chave);
+                    referencia.put(chave, i);
+                    assertEquals(cheio, mapa.put(chave, i));
+                }
+            }
+            assertEquals(referencia.size(), mapa.size());
+        }
+        for (int chave = 80_000_000; chave < 80_005_000; chave++) {
+            assertEquals(referencia.get(chave), mapa.get(chave));
+        }
+    }
+
+    @Test
+    @DisplayName("Com tamanho máximo zero nada deve ficar guardado")
+    void tamanhoZeroNaoDeveGuardar() {
+        MapaIntLru<String> mapa = new MapaIntLru<>(0);
+
+        assertTrue(mapa.put(1, "a"));
+        assertNull(mapa.get(1));
+        assertEquals(0, mapa.size());
+    }
+}
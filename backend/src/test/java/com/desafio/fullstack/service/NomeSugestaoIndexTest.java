@@ -0,0 +1,137 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.SugestaoNomeDTO;
+import com.desafio.fullstack.enums.TipoCadastro;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.repository.NomeCadastro;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NomeSugestaoIndexTest {
+
+    private EmpresaRepository empresaRepository;
+    private FornecedorRepository fornecedorRepository;
+    private NomeSugestaoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        empresaRepository = mock(EmpresaRepository.class);
+        fornecedorRepository = mock(FornecedorRepository.class);
+        index = new NomeSugestaoIndex(empresaRepository, fornecedorRepository, 100, 60);
+    }
+
+    private List<String> nomes(String texto) {
+        return index.sugerir(texto, null, 10).stream().map(SugestaoNomeDTO::getNome).toList();
+    }
+
+    @Test
+    @DisplayName("Deve carregar os nomes cadastrados em lotes")
+    void deveConstruirEmLotes() {
+        when(empresaRepository.findNomesAposId(eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(nome(1L, "São José Comércio"), nome(2L, "Padaria Central")));
+        when(fornecedorRepository.findNomesAposId(eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(nome(1L, "João Açaí")));
+        when(empresaRepository.findNomesAposId(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(fornecedorRepository.findNomesAposId(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        index.construir();
+
+        assertThat(index.tamanho()).isEqualTo(3);
+        assertThat(index.sugerir("joao", null, 10)).singleElement()
+            .satisfies(s -> {
+                assertThat(s.getTipo()).isEqualTo(TipoCadastro.FORNECEDOR);
+                assertThat(s.getId()).isEqualTo(1L);
+            });
+    }
+
+    @Test
+    @DisplayName("Deve sugerir por trecho sem acento, começo do nome antes de começo de palavra e de trecho")
+    void deveRanquearPorPosicao() {
+        index.registrar(TipoCadastro.EMPRESA, 1L, "Mercado Central");
+        index.registrar(TipoCadastro.EMPRESA, 2L, "Padaria Central");
+        index.registrar(TipoCadastro.EMPRESA, 3L, "Central de Peças");
+        index.registrar(TipoCadastro.FORNECEDOR, 4L, "Descentralizada Ltda");
+
+        assertThat(nomes("centr")).containsExactly("Central de Peças", "Mercado Central", "Padaria Central",
+            "Descentralizada Ltda");
+        assertThat(nomes("Peças")).containsExactly("Central de Peças");
+        assertThat(nomes("de pe")).containsExactly("Central de Peças");
+    }
+
+    @Test
+    @DisplayName("Buscas de 1 e 2 caracteres devem casar só com começo de palavra")
+    void buscasCurtasPorInicioDePalavra() {
+        index.registrar(TipoCadastro.EMPRESA, 1L, "São José");
+        index.registrar(TipoCadastro.EMPRESA, 2L, "Casa Nova");
+
+        assertThat(nomes("s")).containsExactly("São José");
+        assertThat(nomes("sa")).containsExactly("São José");
+        assertThat(nomes("no")).containsExactly("Casa Nova");
+    }
+
+    @Test
+    @DisplayName("Atualização troca o nome e exclusão remove das sugestões")
+    void deveAtualizarERemover() {
+        index.registrar(TipoCadastro.EMPRESA, 1L, "Padaria Central");
+        index.registrar(TipoCadastro.EMPRESA, 1L, "Confeitaria Central");
+
+        assertThat(nomes("padaria")).isEmpty();
+        assertThat(nomes("confeit")).containsExactly("Confeitaria Central");
+
+        index.remover(TipoCadastro.EMPRESA, 1L);
+
+        assertThat(nomes("central")).isEmpty();
+        assertThat(index.tamanho()).isZero();
+        assertThat(index.gramas()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve filtrar por tipo e separar ids iguais de empresa e fornecedor")
+    void deveFiltrarPorTipo() {
+        index.registrar(TipoCadastro.EMPRESA, 7L, "Alfa Comércio");
+        index.registrar(TipoCadastro.FORNECEDOR, 7L, "Alfa Serviços");
+
+        assertThat(index.sugerir("alfa", TipoCadastro.FORNECEDOR, 10)).extracting(SugestaoNomeDTO::getNome)
+            .containsExactly("Alfa Serviços");
+        assertThat(nomes("alfa")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar os limites de nomes e de caracteres")
+    void deveRespeitarLimites() {
+        NomeSugestaoIndex pequeno = new NomeSugestaoIndex(empresaRepository, fornecedorRepository, 2, 10);
+        pequeno.registrar(TipoCadastro.EMPRESA, 1L, "Alfa");
+        pequeno.registrar(TipoCadastro.EMPRESA, 2L, "Beta Distribuidora de Alimentos");
+        pequeno.registrar(TipoCadastro.EMPRESA, 3L, "Gama");
+
+        assertThat(pequeno.tamanho()).isEqualTo(2);
+        assertThat(pequeno.sugerir("gama", null, 10)).isEmpty();
+        assertThat(pequeno.sugerir("alimentos", null, 10)).isEmpty();
+        assertThat(pequeno.sugerir("beta dis", null, 10)).extracting(SugestaoNomeDTO::getId).containsExactly(2L);
+    }
+
+    private static NomeCadastro nome(Long id, String nome) {
+        return new NomeCadastro() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getNome() {
+                return nome;
+            }
+        };
+    }
+}
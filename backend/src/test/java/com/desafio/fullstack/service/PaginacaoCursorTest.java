@@ -0,0 +1,93 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.PageResponse;
+import com.desafio.fullstack.entity.Fornecedor;
+import com.desafio.fullstack.exception.BusinessException;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.repository.FornecedorSpecifications;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PaginacaoCursorTest {
+
+    private final FornecedorRepository repository = mock(FornecedorRepository.class);
+    private final Pageable pageable = PageRequest.of(0, 2, Sort.by("nome"));
+
+    @SuppressWarnings("unchecked")
+    private PageResponse<Long> rolar(String filtro, String token, List<Fornecedor> itens, boolean haMais) {
+        Window<Fornecedor> janela = Window.from(itens,
+            i -> ScrollPosition.forward(Map.of("nome", itens.get(i).getNome(), "id", itens.get(i).getId())), haMais);
+        when(repository.findBy(any(Specification.class), any())).thenReturn(janela);
+        return PaginacaoCursor.rolar(repository, FornecedorSpecifications.filtros("", ""), filtro,
+            PaginacaoCursor.CAMPOS_FORNECEDOR, token, pageable, Fornecedor::getId);
+    }
+
+    private static Fornecedor fornecedor(Long id, String nome) {
+        return Fornecedor.builder().id(id).nome(nome).build();
+    }
+
+    @Test
+    @DisplayName("Primeira página deve ter só o cursor seguinte, sem totais")
+    void primeiraPaginaDeveTerSoProximo() {
+        PageResponse<Long> pagina = rolar("|", "", List.of(fornecedor(1L, "Alfa"), fornecedor(2L, "Beta")), true);
+
+        assertEquals(List.of(1L, 2L), pagina.getContent());
+        assertNull(pagina.getPrev());
+        assertNotNull(pagina.getNext());
+        assertTrue(pagina.isFirst());
+        assertEquals(-1, pagina.getTotalElements());
+
+        PaginacaoCursor.Cursor cursor = PaginacaoCursor.decodificar(pagina.getNext());
+        assertTrue(cursor.avancar());
+        assertEquals(List.of("nome:ASC", "id:ASC"), cursor.ordem());
+        assertEquals(Map.of("nome", "Beta", "id", "2"), cursor.chaves());
+    }
+
+    @Test
+    @DisplayName("Última página a partir de um cursor deve ter só o cursor anterior")
+    void ultimaPaginaDeveTerSoAnterior() {
+        String token = PaginacaoCursor.codificar(new PaginacaoCursor.Cursor(true, List.of("nome:ASC", "id:ASC"),
+            Map.of("nome", "Beta", "id", "2"), "|"));
+
+        PageResponse<Long> pagina = rolar("|", token, List.of(fornecedor(3L, "Gama")), false);
+
+        assertEquals(List.of(3L), pagina.getContent());
+        assertNull(pagina.getNext());
+        assertEquals(Map.of("nome", "Gama", "id", "3"), PaginacaoCursor.decodificar(pagina.getPrev()).chaves());
+        assertFalse(PaginacaoCursor.decodificar(pagina.getPrev()).avancar());
+    }
+
+    @Test
+    @DisplayName("Deve recusar cursor de outra busca, adulterado ou com ordenação sem índice")
+    void deveRecusarCursorInvalido() {
+        String token = PaginacaoCursor.codificar(new PaginacaoCursor.Cursor(true, List.of("nome:ASC", "id:ASC"),
+            Map.of("nome", "Beta", "id", "2"), "joao|"));
+
+        assertThrows(BusinessException.class, () -> PaginacaoCursor.rolar(repository,
+            FornecedorSpecifications.filtros("", ""), "|", PaginacaoCursor.CAMPOS_FORNECEDOR, token, pageable, Fornecedor::getId));
+        assertThrows(BusinessException.class, () -> PaginacaoCursor.decodificar("não-é-base64"));
+        assertThrows(BusinessException.class, () -> PaginacaoCursor.ordenacao(Sort.by("cep"), PaginacaoCursor.CAMPOS_FORNECEDOR));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Id deve desempatar na direção do último critério")
+    void idDeveDesempatar() {
+        assertEquals(Sort.by(Sort.Order.desc("criadoEm"), Sort.Order.desc("id")),
+            PaginacaoCursor.ordenacao(Sort.by(Sort.Direction.DESC, "criadoEm"), PaginacaoCursor.CAMPOS_FORNECEDOR));
+        assertEquals(Sort.by(Sort.Order.asc("id")), PaginacaoCursor.ordenacao(Sort.unsorted(), PaginacaoCursor.CAMPOS_FORNECEDOR));
+    }
+}
@@ -0,0 +1,71 @@
+package com.desafio.fullstack.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReabastecimentoDistribuidoTest {
+
+    private final BaldeTokensDistribuido balde = mock(BaldeTokensDistribuido.class);
+    // as reservas ficam paradas aqui até o teste rodá-las, como se o banco estivesse lento
+    private final List<Runnable> reservas = new ArrayList<>();
+    private final AtomicInteger acordadas = new AtomicInteger();
+
+    private final ReabastecimentoDistribuido reabastecimento =
+            new ReabastecimentoDistribuido("viacep", balde, 4, 10, 40, reservas::add);
+
+    {
+        reabastecimento.aoReceber(acordadas::incrementAndGet);
+    }
+
+    @Test
+    @DisplayName("Repor não deve ir ao banco na thread de quem chama")
+    void naoDeveReservarNaThreadDoLimitador() {
+        assertEquals(0, reabastecimento.repor(0, 4));
+
+        verifyNoInteractions(balde);
+        assertEquals(1, reservas.size());
+    }
+
+    @Test
+    @DisplayName("Tokens reservados devem entrar no próximo repor e acordar a fila")
+    void deveEntregarTokensReservados() {
+        when(balde.reservar("viacep", 4, 10, 40)).thenReturn(4);
+
+        reabastecimento.repor(0, 4);
+        reservas.get(0).run();
+
+        assertEquals(1, acordadas.get());
+        assertEquals(4.5, reabastecimento.repor(0.5, 4));
+    }
+
+    @Test
+    @DisplayName("Deve antecipar o próximo lote na metade do saldo, uma reserva por vez")
+    void deveAnteciparUmaReservaPorVez() {
+        assertEquals(3, reabastecimento.repor(3, 4));
+        assertTrue(reservas.isEmpty());
+
+        reabastecimento.repor(2, 4);
+        reabastecimento.repor(1, 4);
+        assertEquals(1, reservas.size());
+    }
+
+    @Test
+    @DisplayName("Balde vazio não deve acordar a fila e deve liberar nova reserva")
+    void baldeVazioDeveLiberarNovaReserva() {
+        when(balde.reservar("viacep", 4, 10, 40)).thenReturn(0);
+
+        reabastecimento.repor(0, 4);
+        reservas.get(0).run();
+        reabastecimento.repor(0, 4);
+
+        assertEquals(0, acordadas.get());
+        assertEquals(2, reservas.size());
+    }
+}
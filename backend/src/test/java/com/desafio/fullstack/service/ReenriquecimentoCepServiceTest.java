@@ -0,0 +1,120 @@
+package com.desafio.fullstack.service;
+
+import com.desafio.fullstack.dto.CepDTO;
+import com.desafio.fullstack.entity.ReenriquecimentoExecucao;
+import com.desafio.fullstack.exception.BusinessException;
+import com.desafio.fullstack.exception.CepIndisponivelException;
+import com.desafio.fullstack.repository.CepEnderecoRepository;
+import com.desafio.fullstack.repository.EmpresaRepository;
+import com.desafio.fullstack.repository.FornecedorRepository;
+import com.desafio.fullstack.repository.ReenriquecimentoExecucaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReenriquecimentoCepServiceTest {
+
+    private CepEnderecoRepository cepEnderecoRepository;
+    private EmpresaRepository empresaRepository;
+    private FornecedorRepository fornecedorRepository;
+    private ReenriquecimentoExecucaoRepository execucaoRepository;
+    private CepService cepService;
+    private CadastroBuscaIndex cadastroBuscaIndex;
+    private ContagemListagem contagemListagem;
+    private ReenriquecimentoCepService service;
+
+    @BeforeEach
+    void setUp() {
+        cepEnderecoRepository = mock(CepEnderecoRepository.class);
+        empresaRepository = mock(EmpresaRepository.class);
+        fornecedorRepository = mock(FornecedorRepository.class);
+        execucaoRepository = mock(ReenriquecimentoExecucaoRepository.class);
+        cepService = mock(CepService.class);
+        cadastroBuscaIndex = mock(CadastroBuscaIndex.class);
+        contagemListagem = mock(ContagemListagem.class);
+        service = new ReenriquecimentoCepService(cepEnderecoRepository, empresaRepository, fornecedorRepository,
+                execucaoRepository, cepService, mock(EnderecoAutocompleteIndex.class), cadastroBuscaIndex,
+                contagemListagem, TransactionOperations.withoutTransaction(), Runnable::run, Runnable::run, 2);
+
+        when(execucaoRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private static CepDTO valido(String cep, String cidade) {
+        return CepDTO.builder().cep(cep).uf("SP").cidade(cidade).bairro("Centro").logradouro("Rua A").valido(true).build();
+    }
+
+    @Test
+    @DisplayName("Deve consultar cada CEP distinto uma vez e atualizar em massa os cadastros")
+    void deveConsultarCadaCepUmaVez() {
+        when(execucaoRepository.findById(ReenriquecimentoCepService.JOB)).thenReturn(Optional.empty());
+        when(cepEnderecoRepository.countCepsEmUso()).thenReturn(3L);
+        when(cepEnderecoRepository.findCepsEmUsoApos("", 2)).thenReturn(List.of("01001000", "01310100"));
+        when(cepEnderecoRepository.findCepsEmUsoApos("01310100", 2)).thenReturn(List.of("99999999"));
+        when(cepEnderecoRepository.findCepsEmUsoApos("99999999", 2)).thenReturn(List.of());
+        when(cepService.reconsultar("01001000")).thenReturn(valido("01001000", "São Paulo"));
+        when(cepService.reconsultar("01310100")).thenThrow(new CepIndisponivelException("timeout"));
+        when(cepService.reconsultar("99999999")).thenReturn(CepDTO.builder().cep("99999999").valido(false).build());
+        when(empresaRepository.atualizarEnderecoPorCep("01001000", "Rua A", "Centro", "São Paulo", "SP")).thenReturn(3);
+        when(fornecedorRepository.atualizarEnderecoPorCep("01001000", "Rua A", "Centro", "São Paulo", "SP")).thenReturn(2);
+
+        service.executar(false);
+
+        verify(cepService, times(1)).reconsultar("01001000");
+        verify(empresaRepository, never()).atualizarEnderecoPorCep(eq("99999999"), any(), any(), any(), any());
+        verify(cadastroBuscaIndex, only()).reindexarCep("01001000");
+        verify(contagemListagem).invalidar("empresas");
+        verify(contagemListagem).invalidar("fornecedores");
+
+        ArgumentCaptor<ReenriquecimentoExecucao> checkpoints = ArgumentCaptor.forClass(ReenriquecimentoExecucao.class);
+        verify(execucaoRepository, times(3)).save(checkpoints.capture());
+        ReenriquecimentoExecucao fim = checkpoints.getValue();
+        assertTrue(fim.isConcluido());
+        assertEquals("99999999", fim.getUltimoCep());
+        assertEquals(3, fim.getCepsProcessados());
+        assertEquals(5, fim.getRegistrosAtualizados());
+        assertEquals(1, fim.getCepsNaoEncontrados());
+        assertEquals(1, fim.getFalhas());
+    }
+
+    @Test
+    @DisplayName("Deve continuar a partir do checkpoint de uma execução não concluída")
+    void deveContinuarDoCheckpoint() {
+        ReenriquecimentoExecucao interrompida = ReenriquecimentoExecucao.builder()
+                .nome(ReenriquecimentoCepService.JOB).ultimoCep("01310100").totalCeps(3).cepsProcessados(2)
+                .iniciadoEm(LocalDateTime.now()).build();
+        when(execucaoRepository.findById(ReenriquecimentoCepService.JOB)).thenReturn(Optional.of(interrompida));
+        when(cepEnderecoRepository.findCepsEmUsoApos("01310100", 2)).thenReturn(List.of("80010000"));
+        when(cepEnderecoRepository.findCepsEmUsoApos("80010000", 2)).thenReturn(List.of());
+        when(cepService.reconsultar("80010000")).thenReturn(valido("80010000", "Curitiba"));
+
+        service.executar(false);
+
+        verify(cepService, only()).reconsultar("80010000");
+        verify(cepEnderecoRepository, never()).countCepsEmUso();
+        assertEquals(3, interrompida.getCepsProcessados());
+        assertTrue(interrompida.isConcluido());
+    }
+
+    @Test
+    @DisplayName("Não deve iniciar duas execuções ao mesmo tempo")
+    void naoDeveIniciarDuasExecucoes() {
+        ReenriquecimentoCepService comFila = new ReenriquecimentoCepService(cepEnderecoRepository, empresaRepository,
+                fornecedorRepository, execucaoRepository, cepService, mock(EnderecoAutocompleteIndex.class), mock(CadastroBuscaIndex.class),
+                mock(ContagemListagem.class),
+                TransactionOperations.withoutTransaction(), Runnable::run, tarefa -> { }, 2);
+        when(execucaoRepository.findById(ReenriquecimentoCepService.JOB)).thenReturn(Optional.empty());
+
+        assertTrue(comFila.iniciar(false).isExecutando());
+        assertThrows(BusinessException.class, () -> comFila.iniciar(false));
+    }
+}
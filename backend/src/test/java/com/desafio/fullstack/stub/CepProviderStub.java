@@ -0,0 +1,356 @@
+package com.desafio.fullstack.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor local que imita o cep.la ({@code /cepla/{cep}}) e o ViaCEP ({@code /viacep/ws/{cep}/json/}) a partir de
+ * uma base de endereços em memória. Cada provedor tem seu {@link Perfil} de latência, erros HTTP 500, requisições
+ * que não respondem a tempo e limite de requisições por segundo (HTTP 429), ajustável durante o teste.
+ *
+ * <p>Nos testes: {@code CepProviderStub.iniciar(0).carregarFixture()} e as URLs de {@link #urlCepLa()} e
+ * {@link #urlViaCep()} em {@code app.cep.provedores.*.url}. Para benchmarks, o {@link #main} sobe o servidor
+ * com perfis vindos de system properties (ver {@link Perfil#configurar}).
+ */
+public final class CepProviderStub implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Map<String, String>> enderecos = new ConcurrentHashMap<>();
+    private final Perfil cepLa = new Perfil();
+    private final Perfil viaCep = new Perfil();
+
+    private CepProviderStub(int porta) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", porta), 0);
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "cep-stub-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/cepla/", exchange -> atender(exchange, cepLa, "/cepla/", this::respostaCepLa));
+        server.createContext("/viacep/ws/", exchange -> atender(exchange, viaCep, "/viacep/ws/", this::respostaViaCep));
+    }
+
+    /** Sobe o servidor em {@code localhost}; porta 0 escolhe uma porta livre. */
+    public static CepProviderStub iniciar(int porta) throws IOException {
+        CepProviderStub stub = new CepProviderStub(porta);
+        stub.server.start();
+        return stub;
+    }
+
+    public String urlCepLa() {
+        return "http://localhost:" + server.getAddress().getPort() + "/cepla/";
+    }
+
+    public String urlViaCep() {
+        return "http://localhost:" + server.getAddress().getPort() + "/viacep/ws/";
+    }
+
+    public Perfil cepLa() {
+        return cepLa;
+    }
+
+    public Perfil viaCep() {
+        return viaCep;
+    }
+
+    public CepProviderStub adicionar(String cep, String logradouro, String bairro, String cidade, String uf) {
+        Map<String, String> endereco = new LinkedHashMap<>();
+        endereco.put("logradouro", logradouro);
+        endereco.put("bairro", bairro);
+        endereco.put("cidade", cidade);
+        endereco.put("uf", uf);
+        enderecos.put(cep, endereco);
+        return this;
+    }
+
+    /** Carrega {@code stub/ceps.csv} do classpath de teste. */
+    public CepProviderStub carregarFixture() throws IOException {
+        try (InputStream in = CepProviderStub.class.getResourceAsStream("/stub/ceps.csv")) {
+            if (in == null) {
+                throw new IOException("stub/ceps.csv não encontrado no classpath");
+            }
+            return carregarCsv(in);
+        }
+    }
+
+    /** CSV {@code cep;logradouro;bairro;cidade;uf}, com cabeçalho, no mesmo formato do CepDatasetConverter. */
+    public CepProviderStub carregarCsv(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.readLine();
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            String[] campos = linha.split(";", -1);
+            if (campos.length >= 5) {
+                adicionar(campos[0].replaceAll("\\D", ""), campos[1], campos[2], campos[3], campos[4]);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void atender(HttpExchange exchange, Perfil perfil, String prefixo, Resposta resposta) throws IOException {
+        try (exchange) {
+            perfil.chamadas.increment();
+            String caminho = exchange.getRequestURI().getPath().substring(prefixo.length());
+            String cep = caminho.replace("/json", "").replace("/", "");
+
+            if (!perfil.dentroDoLimite()) {
+                perfil.limitadas.increment();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                responder(exchange, 429, "{\"erro\":\"limite de requisições\"}");
+                return;
+            }
+
+            dormir(perfil.latencia.amostrar());
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < perfil.taxaTimeout) {
+                perfil.timeouts.increment();
+                dormir(perfil.duracaoTimeoutMs);
+                return;
+            }
+            if (random.nextDouble() < perfil.taxaErro) {
+                perfil.erros.increment();
+                responder(exchange, 500, "{\"erro\":\"falha simulada\"}");
+                return;
+            }
+
+            resposta.escrever(exchange, cep);
+        }
+    }
+
+    private void respostaCepLa(HttpExchange exchange, String cep) throws IOException {
+        Map<String, String> endereco = enderecos.get(cep);
+        if (endereco == null) {
+            responder(exchange, 200, "[]");
+            return;
+        }
+        Map<String, String> corpo = new LinkedHashMap<>();
+        corpo.put("cep", cep);
+        corpo.putAll(endereco);
+        responder(exchange, 200, JSON.writeValueAsString(List.of(corpo)));
+    }
+
+    private void respostaViaCep(HttpExchange exchange, String cep) throws IOException {
+        if (!cep.matches("\\d{8}")) {
+            responder(exchange, 400, "<h1>Http 400</h1>");
+            return;
+        }
+        Map<String, String> endereco = enderecos.get(cep);
+        if (endereco == null) {
+            responder(exchange, 200, "{\n  \"erro\": \"true\"\n}");
+            return;
+        }
+        Map<String, String> corpo = new LinkedHashMap<>();
+        corpo.put("cep", cep.substring(0, 5) + "-" + cep.substring(5));
+        corpo.put("logradouro", endereco.get("logradouro"));
+        corpo.put("complemento", "");
+        corpo.put("bairro", endereco.get("bairro"));
+        corpo.put("localidade", endereco.get("cidade"));
+        corpo.put("uf", endereco.get("uf"));
+        corpo.put("ibge", "");
+        corpo.put("ddd", "");
+        responder(exchange, 200, JSON.writeValueAsString(corpo));
+    }
+
+    private static void responder(HttpExchange exchange, int status, String corpo) throws IOException {
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void dormir(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Resposta {
+        void escrever(HttpExchange exchange, String cep) throws IOException;
+    }
+
+    /** Distribuição de latência, em milissegundos, aplicada antes de cada resposta. */
+    @FunctionalInterface
+    public interface Latencia {
+
+        long amostrar();
+
+        static Latencia fixa(long millis) {
+            return () -> millis;
+        }
+
+        static Latencia uniforme(long minimoMillis, long maximoMillis) {
+            return () -> ThreadLocalRandom.current().nextLong(minimoMillis, maximoMillis + 1);
+        }
+
+        /** Log-normal com a mediana informada: sigma 0.5 dá p99 ≈ 3,2x a mediana, como em APIs públicas. */
+        static Latencia logNormal(long medianaMillis, double sigma) {
+            return () -> Math.round(medianaMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+
+        /** {@code fixa:50}, {@code uniforme:20:200} ou {@code lognormal:80:0.5}. */
+        static Latencia parse(String valor) {
+            String[] partes = valor.split(":");
+            return switch (partes[0]) {
+                case "fixa" -> fixa(Long.parseLong(partes[1]));
+                case "uniforme" -> uniforme(Long.parseLong(partes[1]), Long.parseLong(partes[2]));
+                case "lognormal" -> logNormal(Long.parseLong(partes[1]), Double.parseDouble(partes[2]));
+                default -> throw new IllegalArgumentException("Latência desconhecida: " + valor);
+            };
+        }
+    }
+
+    /** Comportamento de um provedor. Os campos podem ser trocados com o servidor no ar. */
+    public static final class Perfil {
+
+        private volatile Latencia latencia = Latencia.fixa(0);
+        private volatile double taxaErro;
+        private volatile double taxaTimeout;
+        private volatile long duracaoTimeoutMs = 30_000;
+        private volatile int limitePorSegundo;
+
+        private final AtomicLong janelaAtual = new AtomicLong();
+        private final AtomicInteger chamadasNaJanela = new AtomicInteger();
+
+        private final LongAdder chamadas = new LongAdder();
+        private final LongAdder erros = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder limitadas = new LongAdder();
+
+        public Perfil latencia(Latencia latencia) {
+            this.latencia = latencia;
+            return this;
+        }
+
+        /** Fração das requisições respondidas com HTTP 500. */
+        public Perfil taxaErro(double taxa) {
+            this.taxaErro = taxa;
+            return this;
+        }
+
+        /** Fração das requisições que ficam {@code duracaoMillis} sem resposta e então fecham a conexão. */
+        public Perfil taxaTimeout(double taxa, long duracaoMillis) {
+            this.taxaTimeout = taxa;
+            this.duracaoTimeoutMs = duracaoMillis;
+            return this;
+        }
+
+        /** Acima disso, no mesmo segundo, responde HTTP 429 com Retry-After. 0 desliga. */
+        public Perfil limitePorSegundo(int limite) {
+            this.limitePorSegundo = limite;
+            return this;
+        }
+
+        public Perfil normal() {
+            return latencia(Latencia.fixa(0)).taxaErro(0).taxaTimeout(0, 30_000).limitePorSegundo(0);
+        }
+
+        public long getChamadas() {
+            return chamadas.sum();
+        }
+
+        public long getErros() {
+            return erros.sum();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public long getLimitadas() {
+            return limitadas.sum();
+        }
+
+        /**
+         * Lê {@code <prefixo>.latencia}, {@code .erro}, {@code .timeout}, {@code .timeout-ms} e {@code .limite}
+         * das system properties, ex.: {@code -Dstub.cepla.latencia=lognormal:80:0.5 -Dstub.cepla.erro=0.05}.
+         */
+        public Perfil configurar(String prefixo) {
+            String valor = System.getProperty(prefixo + ".latencia");
+            if (valor != null) {
+                latencia(Latencia.parse(valor));
+            }
+            taxaErro(Double.parseDouble(System.getProperty(prefixo + ".erro", "0")));
+            taxaTimeout(Double.parseDouble(System.getProperty(prefixo + ".timeout", "0")),
+                Long.parseLong(System.getProperty(prefixo + ".timeout-ms", "30000")));
+            return limitePorSegundo(Integer.parseInt(System.getProperty(prefixo + ".limite", "0")));
+        }
+
+        private boolean dentroDoLimite() {
+            int limite = limitePorSegundo;
+            if (limite <= 0) {
+                return true;
+            }
+            long segundo = System.nanoTime() / 1_000_000_000L;
+            long janela = janelaAtual.get();
+            if (janela != segundo && janelaAtual.compareAndSet(janela, segundo)) {
+                chamadasNaJanela.set(0);
+            }
+            return chamadasNaJanela.incrementAndGet() <= limite;
+        }
+    }
+
+    /**
+     * Sobe o stub para benchmarks fora do JUnit: {@code [porta] [csv]}, com os perfis em
+     * {@code -Dstub.cepla.*} e {@code -Dstub.viacep.*}.
+     */
+    public static void main(String[] args) throws Exception {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        CepProviderStub stub = iniciar(porta);
+        if (args.length > 1) {
+            try (InputStream in = Files.newInputStream(Path.of(args[1]))) {
+                stub.carregarCsv(in);
+            }
+        } else {
+            stub.carregarFixture();
+        }
+        stub.cepLa().configurar("stub.cepla");
+        stub.viaCep().configurar("stub.viacep");
+
+        System.out.println("cep.la: " + stub.urlCepLa());
+        System.out.println("ViaCEP: " + stub.urlViaCep());
+        System.out.println("--app.cep.provedores.cep-la.url=" + stub.urlCepLa()
+            + " --app.cep.provedores.viacep.url=" + stub.urlViaCep());
+        Thread.currentThread().join();
+    }
+}